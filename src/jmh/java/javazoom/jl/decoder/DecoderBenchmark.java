@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package javazoom.jl.decoder;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * {@link Decoder#decodeFrame(Header, Bitstream)}, one operation is one frame
+ * including {@link Bitstream#readFrame()}.
+ * <p>
+ * The score is ns/frame, frames/s is 10<sup>9</sup> / score (or run with {@code -bm thrpt -tu s}).
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026/10/18 nsano initial version <br>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DecoderBenchmark {
+
+    @Param
+    public Fixture fixture;
+
+    private Bitstream bitstream;
+    private Decoder decoder;
+
+    @Setup
+    public void setup() {
+        bitstream = new Bitstream(fixture.openLoop());
+        decoder = new Decoder();
+    }
+
+    @Benchmark
+    public Obuffer decodeFrame() throws JavaLayerException {
+        Header header = bitstream.readFrame();
+        Obuffer output = decoder.decodeFrame(header, bitstream);
+        bitstream.closeFrame();
+        return output;
+    }
+}
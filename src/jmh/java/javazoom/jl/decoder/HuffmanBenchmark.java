@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package javazoom.jl.decoder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+
+/**
+ * {@link HuffCodeTab#huffman_decoder}, one operation is one code word (a pair, or a quadruple
+ * for tables 32 and 33) including sign and linbits.
+ * <p>
+ * Values are distributed like big values of music: mostly small, some escapes.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026/10/18 nsano initial version <br>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HuffmanBenchmark {
+
+    /** a granule has up to 288 pairs */
+    private static final int CODES = 288;
+
+    @Param({"1", "7", "13", "15", "16", "24", "31", "32", "33"})
+    public int table;
+
+    private BitReserve br;
+    private HuffCodeTab h;
+    private int bits;
+    private final int[] x = {0}, y = {0}, v = {0}, w = {0};
+
+    @Setup
+    public void setup() {
+        h = HuffCodeTab.ht[table];
+
+        Random random = new Random(table);
+        FixtureGenerator.BitWriter out = new FixtureGenerator.BitWriter();
+        for (int i = 0; i < CODES; i++) {
+            if (table >= 32) {
+                FixtureGenerator.writeQuad(out, table, sign(random, random.nextInt(2)), sign(random, random.nextInt(2)),
+                        sign(random, random.nextInt(2)), sign(random, random.nextInt(2)));
+            } else {
+                FixtureGenerator.writePair(out, table, value(random), value(random));
+            }
+        }
+        bits = out.position();
+        br = new BitReserve();
+        for (byte b : out.toByteArray())
+            br.hputbuf(b & 0xff);
+    }
+
+    private int value(Random random) {
+        int max = FixtureGenerator.maxValue(table);
+        int scale = Math.max(1, Math.min(max, 15) / 3);
+        int v = (int) Math.abs(random.nextGaussian() * scale);
+        if (max > 15 && random.nextInt(16) == 0)
+            v += random.nextInt(max - 15);
+        return sign(random, Math.min(v, max));
+    }
+
+    private static int sign(Random random, int v) {
+        return random.nextBoolean() ? -v : v;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CODES)
+    public void huffmanDecoder(Blackhole bh) {
+        for (int i = 0; i < CODES; i++) {
+            HuffCodeTab.huffman_decoder(h, x, y, v, w, br);
+            bh.consume(x[0] + y[0] + v[0] + w[0]);
+        }
+        br.rewindNBits(bits);
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package javazoom.jl.decoder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * {@link LayerIIIDecoder#inv_mdct(float[], float[], int)}, one operation is one subband,
+ * a granule is 32 operations per channel.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026/10/18 nsano initial version <br>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InvMdctBenchmark {
+
+    /** 0: normal, 1: start, 2: short, 3: stop */
+    @Param({"0", "1", "2", "3"})
+    public int blockType;
+
+    private LayerIIIDecoder decoder;
+    private final float[] in = new float[18];
+    private final float[] out = new float[36];
+
+    @Setup
+    public void setup() throws BitstreamException {
+        Bitstream bitstream = new Bitstream(Fixture.MP3_44K_128_JOINT.open());
+        Header header = bitstream.readFrame();
+        decoder = new LayerIIIDecoder(bitstream, header, null, null, null, OutputChannels.BOTH_CHANNELS);
+        Random random = new Random(0);
+        for (int i = 0; i < in.length; i++)
+            in[i] = (float) random.nextGaussian();
+    }
+
+    @Benchmark
+    public float[] invMdct() {
+        decoder.inv_mdct(in, out, blockType);
+        return out;
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package javazoom.jl.decoder;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * {@link LayerIDecoder}, {@link LayerIIDecoder} and {@link LayerIIIDecoder} without {@link Decoder},
+ * one operation is one frame including {@link Bitstream#readFrame()}.
+ * <p>
+ * The layer decoder is the one the fixture needs, see {@link BitstreamBenchmark} for the reading part.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026/10/18 nsano initial version <br>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LayerDecoderBenchmark {
+
+    @Param
+    public Fixture fixture;
+
+    private Bitstream bitstream;
+    private SampleBuffer buffer;
+    private FrameDecoder decoder;
+
+    @Setup
+    public void setup() throws BitstreamException {
+        bitstream = new Bitstream(fixture.openLoop());
+        // the header instance is reused for all frames
+        Header header = bitstream.readFrame();
+        bitstream.closeFrame();
+
+        int channels = header.mode() == Header.SINGLE_CHANNEL ? 1 : 2;
+        buffer = new SampleBuffer(header.frequency(), channels);
+        SynthesisFilter filter1 = new SynthesisFilter(0, 32700.0f, null);
+        SynthesisFilter filter2 = channels == 2 ? new SynthesisFilter(1, 32700.0f, null) : null;
+
+        decoder = switch (header.layer()) {
+            case 1 -> {
+                LayerIDecoder d = new LayerIDecoder();
+                d.create(bitstream, header, filter1, filter2, buffer, OutputChannels.BOTH_CHANNELS);
+                yield d;
+            }
+            case 2 -> {
+                LayerIIDecoder d = new LayerIIDecoder();
+                d.create(bitstream, header, filter1, filter2, buffer, OutputChannels.BOTH_CHANNELS);
+                yield d;
+            }
+            default -> new LayerIIIDecoder(bitstream, header, filter1, filter2, buffer, OutputChannels.BOTH_CHANNELS);
+        };
+    }
+
+    @Benchmark
+    public Obuffer decodeFrame() throws JavaLayerException {
+        bitstream.readFrame();
+        buffer.clearBuffer();
+        decoder.decodeFrame();
+        bitstream.closeFrame();
+        return buffer;
+    }
+}
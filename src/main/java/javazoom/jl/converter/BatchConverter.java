@@ -0,0 +1,302 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package javazoom.jl.converter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.Iterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+import javazoom.jl.decoder.Decoder;
+import javazoom.jl.decoder.Header;
+import javazoom.jl.decoder.JavaLayerException;
+import javazoom.jl.decoder.Obuffer;
+
+
+/**
+ * Converts many files to .WAV files on a number of worker threads,
+ * e.g. the files of a directory tree.
+ * <p>
+ * Every file is converted by its own {@link Converter} with its own
+ * {@link Converter.ProgressListener}. At most twice as many files as the
+ * workers are queued, so the sources can be a lazy stream of millions of files.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026/10/18 nsano initial version <br>
+ * @since 1.0.4
+ */
+public class BatchConverter {
+
+    private static final Logger logger = Logger.getLogger(BatchConverter.class.getName());
+
+    private final int workers;
+
+    /**
+     * Creates a new batch converter.
+     *
+     * @param workers the number of files converted at once
+     */
+    public BatchConverter(int workers) {
+        if (workers < 1)
+            throw new IllegalArgumentException("workers: " + workers);
+        this.workers = workers;
+    }
+
+    /**
+     * Finds the files in a directory tree.
+     * <p>
+     * A directory which cannot be read, e.g. by the permission, is thrown as
+     * {@link UncheckedIOException} by the iterator of the stream, the iterator
+     * continues with the next directory then. {@link #convert} counts it as a failure.
+     *
+     * @param dir  the root of the tree
+     * @param glob the pattern of the file names, e.g. <code>*.mp3</code>
+     * @return the files, the stream must be closed.
+     */
+    public static Stream<Path> find(Path dir, String glob) throws IOException {
+        PathMatcher matcher = dir.getFileSystem().getPathMatcher("glob:" + glob);
+        return Files.walk(dir, FileVisitOption.FOLLOW_LINKS)
+                .filter(Files::isRegularFile)
+                .filter(p -> matcher.matches(p.getFileName()));
+    }
+
+    /**
+     * Returns the .WAV file of a source beside it, or in a tree of another directory.
+     * <p>
+     * The function throws {@link IllegalArgumentException} for a source not in the root,
+     * its .WAV file would be outside of the output directory.
+     *
+     * @param root   the root of the sources, null for the files beside the sources
+     * @param output the root of the .WAV files, ignored if the root of the sources is null
+     */
+    public static Function<Path, Path> destinations(Path root, Path output) {
+        return source -> {
+            String name = source.getFileName().toString();
+            int p = name.lastIndexOf('.');
+            name = (p > 0 ? name.substring(0, p) : name) + ".wav";
+            if (root == null)
+                return source.resolveSibling(name);
+            Path dest = output.resolve(root.relativize(source)).resolveSibling(name).normalize();
+            if (!dest.toAbsolutePath().startsWith(output.toAbsolutePath().normalize()))
+                throw new IllegalArgumentException("not in " + root + ": " + source);
+            return dest;
+        };
+    }
+
+    /**
+     * Converts the files, and waits for all of them.
+     * <p>
+     * A file failing is logged and counted, the others are converted still.
+     *
+     * @param sources       the files to convert, enumerated as the workers get free
+     * @param destinations  the .WAV file of a source, its directory is created if needed
+     * @param listeners     the progress listener of a source, called on the thread converting it
+     * @param decoderParams the parameters of every decoder, null for the default
+     * @return the aggregate statistics
+     */
+    public Stats convert(Iterable<Path> sources,
+                         Function<Path, Path> destinations,
+                         Function<Path, Converter.ProgressListener> listeners,
+                         Decoder.Params decoderParams) throws InterruptedException {
+        return convert(sources, Function.identity(), destinations, listeners, decoderParams);
+    }
+
+    /**
+     * Converts the files of the jobs, and waits for all of them.
+     * <p>
+     * A job is e.g. a source and the root it is found in, the destination
+     * of a source can depend on its root then.
+     * A file failing, also in the functions, is logged and counted, the others are converted still.
+     * So is an {@link UncheckedIOException} thrown by the iterator of the jobs, e.g. of an unreadable
+     * directory found by {@link #find}, the iterator must continue with the next job after it.
+     * When the current thread is interrupted, the conversions are interrupted and not waited for.
+     *
+     * @param jobs          the jobs, enumerated as the workers get free
+     * @param sources       the file of a job to convert
+     * @param destinations  the .WAV file of a job, its directory is created if needed
+     * @param listeners     the progress listener of a source, called on the thread converting it
+     * @param decoderParams the parameters of every decoder, null for the default
+     * @return the aggregate statistics
+     */
+    public <T> Stats convert(Iterable<T> jobs,
+                             Function<T, Path> sources,
+                             Function<T, Path> destinations,
+                             Function<Path, Converter.ProgressListener> listeners,
+                             Decoder.Params decoderParams) throws InterruptedException {
+        Stats stats = new Stats();
+        Semaphore queue = new Semaphore(workers * 2);
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            Iterator<T> iterator = jobs.iterator();
+            while (true) {
+                T job;
+                try {
+                    if (!iterator.hasNext())
+                        break;
+                    job = iterator.next();
+                } catch (UncheckedIOException ex) {
+                    stats.failed.incrementAndGet();
+                    logger.log(Level.WARNING, "Enumeration failure: " + ex.getCause().getMessage(), ex);
+                    continue;
+                }
+                queue.acquire();
+                executor.execute(() -> {
+                    try {
+                        convert(job, sources, destinations, listeners, decoderParams, stats);
+                    } finally {
+                        queue.release();
+                    }
+                });
+            }
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } finally {
+            if (!executor.isTerminated())
+                executor.shutdownNow();
+            stats.elapsed = System.nanoTime() - stats.start;
+        }
+        return stats;
+    }
+
+    /** Converts the file of a job, and counts it. */
+    private static <T> void convert(T job,
+                                    Function<T, Path> sources,
+                                    Function<T, Path> destinations,
+                                    Function<Path, Converter.ProgressListener> listeners,
+                                    Decoder.Params decoderParams,
+                                    Stats stats) {
+        Path source = null;
+        try {
+            source = sources.apply(job);
+            Path dest = destinations.apply(job);
+            Converter.ProgressListener listener = listeners.apply(source);
+            if (dest.getParent() != null)
+                Files.createDirectories(dest.getParent());
+            long bytes = Files.size(source);
+            CountingListener counter = new CountingListener(listener);
+            new Converter().convert(source.toString(), dest.toString(), counter, decoderParams);
+            stats.files.incrementAndGet();
+            stats.frames.addAndGet(counter.frames);
+            stats.bytes.addAndGet(bytes);
+        } catch (IOException | JavaLayerException | RuntimeException ex) {
+            stats.failed.incrementAndGet();
+            logger.log(Level.WARNING, "Conversion failure: " + (source != null ? source : job), ex);
+        }
+    }
+
+    /**
+     * Passes the events to a listener, and keeps the number of frames converted.
+     */
+    private static final class CountingListener implements Converter.ProgressListener {
+
+        private final Converter.ProgressListener listener;
+
+        private int frames;
+
+        CountingListener(Converter.ProgressListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void converterUpdate(int updateID, int param1, int param2) {
+            if (updateID == UPDATE_CONVERT_COMPLETE)
+                frames = param2;
+            listener.converterUpdate(updateID, param1, param2);
+        }
+
+        @Override
+        public void parsedFrame(int frameNo, Header header) {
+            listener.parsedFrame(frameNo, header);
+        }
+
+        @Override
+        public void readFrame(int frameNo, Header header) {
+            listener.readFrame(frameNo, header);
+        }
+
+        @Override
+        public void decodedFrame(int frameNo, Header header, Obuffer o) {
+            listener.decodedFrame(frameNo, header, o);
+        }
+
+        @Override
+        public boolean converterException(Throwable t) {
+            return listener.converterException(t);
+        }
+    }
+
+    /**
+     * The aggregate statistics of a batch.
+     */
+    public static final class Stats {
+
+        private final long start = System.nanoTime();
+        private long elapsed;
+        private final AtomicInteger files = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final AtomicLong frames = new AtomicLong();
+        private final AtomicLong bytes = new AtomicLong();
+
+        private Stats() {
+        }
+
+        /** Returns the number of files converted. */
+        public int files() {
+            return files.get();
+        }
+
+        /** Returns the number of files failed, and of the directories which cannot be read. */
+        public int failed() {
+            return failed.get();
+        }
+
+        /** Returns the number of frames of the files converted. */
+        public long frames() {
+            return frames.get();
+        }
+
+        /** Returns the size of the files converted in bytes. */
+        public long bytes() {
+            return bytes.get();
+        }
+
+        /** Returns the time of the whole batch in milliseconds. */
+        public long elapsedMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(elapsed);
+        }
+
+        /** Returns the files converted per second. */
+        public double filesPerSecond() {
+            return elapsed == 0 ? 0 : files.get() * 1e9 / elapsed;
+        }
+
+        /** Returns the megabytes of the files converted per second. */
+        public double megabytesPerSecond() {
+            return elapsed == 0 ? 0 : bytes.get() * 1e9 / elapsed / (1024 * 1024);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Converted %d files (%d failed), %d frames, %.1f MB in %d ms: %.1f files/s, %.2f MB/s",
+                    files(), failed(), frames(), bytes() / (1024.0 * 1024.0), elapsedMillis(),
+                    filesPerSecond(), megabytesPerSecond());
+        }
+    }
+}
@@ -22,13 +22,29 @@ package javazoom.jl.converter;
 
 import java.io.BufferedInputStream;
 import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import javazoom.jl.decoder.Bitstream;
+import javazoom.jl.decoder.BitstreamException;
 import javazoom.jl.decoder.Decoder;
+import javazoom.jl.decoder.FrameIndex;
+import javazoom.jl.decoder.FrameScanner;
 import javazoom.jl.decoder.Header;
 import javazoom.jl.decoder.JavaLayerException;
 import javazoom.jl.decoder.Obuffer;
@@ -41,16 +57,116 @@ import javazoom.jl.decoder.Obuffer;
  * method, passing in the names of the input and output files. You can
  * pass in optional <code>ProgressListener</code> and
  * <code>Decoder.Params</code> objects also to customize the conversion.
+ * <p>
+ * The output can be raw PCM instead, see {@link #setFormat(Format)}, and
+ * the standard output, see {@link #STDOUT}.
  *
  * @author MDM 12/12/99
  * @since 0.0.7
  */
 public class Converter {
 
+    /**
+     * The destination name of the standard output.
+     * A .WAV file to it is always streamed, the sizes of the header are
+     * {@link WaveFileWriter#UNKNOWN_SIZE}, also when it is redirected to a file.
+     *
+     * @since 1.0.4
+     */
+    public static final String STDOUT = "-";
+
+    /**
+     * The formats of the output.
+     *
+     * @since 1.0.4
+     */
+    public enum Format {
+        /** .WAV, the sizes are unknown for the standard output, see {@link WaveFileWriter} */
+        WAV(null),
+        /** raw 16 bit signed little endian PCM */
+        S16LE(RawPcmObuffer.Encoding.S16LE),
+        /** raw 32 bit float little endian PCM */
+        F32LE(RawPcmObuffer.Encoding.F32LE);
+
+        /** null for .WAV */
+        final RawPcmObuffer.Encoding encoding;
+
+        Format(RawPcmObuffer.Encoding encoding) {
+            this.encoding = encoding;
+        }
+    }
+
+    /** bytes written to the output at once */
+    private static final int OUTPUT_BUFFER_SIZE = 256 * 1024;
+
+    /** frames of a segment decoded by a task of the parallel conversion */
+    private static final int SEGMENT_FRAMES = 256;
+
+    /** decodes the segments, null for the sequential conversion */
+    private final ForkJoinPool pool;
+
+    private final int segmentFrames;
+
+    private Format format = Format.WAV;
+
     /**
      * Creates a new converter instance.
      */
     public Converter() {
+        this(null, SEGMENT_FRAMES);
+    }
+
+    /**
+     * Creates a new converter instance converting files in parallel.
+     *
+     * @param pool decodes the segments of a file
+     * @see #Converter(ForkJoinPool, int)
+     * @since 1.0.4
+     */
+    public Converter(ForkJoinPool pool) {
+        this(pool, SEGMENT_FRAMES);
+    }
+
+    /**
+     * Creates a new converter instance converting files in parallel.
+     * <p>
+     * A file mapped into memory or a buffer is split into segments at frame
+     * boundaries with a {@link FrameIndex}. Each segment is decoded on the pool
+     * with its own decoder, starting some frames before it to fill the bit
+     * reservoir and the state of the filters, see
+     * {@link Decoder#seek(Bitstream, FrameIndex, long)}. The segments are written
+     * in order, the output is the same as the sequential conversion.
+     * <p>
+     * The progress listener is notified of the frames of a segment when it is written.
+     * A segment failing is written as silence if the listener continues, so the
+     * following audio is not shifted. Streams are converted sequentially.
+     *
+     * @param pool          decodes the segments of a file, null for the sequential conversion
+     * @param segmentFrames the number of frames of a segment
+     * @since 1.0.4
+     */
+    public Converter(ForkJoinPool pool, int segmentFrames) {
+        if (segmentFrames < 1)
+            throw new IllegalArgumentException("segmentFrames: " + segmentFrames);
+        this.pool = pool;
+        this.segmentFrames = segmentFrames;
+    }
+
+    /**
+     * Sets the format of the output, .WAV by default.
+     * Raw PCM is converted sequentially even if a pool is given.
+     *
+     * @since 1.0.4
+     */
+    public synchronized void setFormat(Format format) {
+        if (format == null)
+            throw new NullPointerException("format");
+        this.format = format;
+    }
+
+    /** @since 1.0.4 */
+    public synchronized Format getFormat() {
+        return format;
     }
 
     public synchronized void convert(String sourceName, String destName) throws JavaLayerException {
@@ -70,9 +186,14 @@ public class Converter {
         if (destName.isEmpty())
             destName = null;
         try {
-            InputStream in = openInput(sourceName);
-            convert(in, destName, progressListener, decoderParams);
-            in.close();
+            ByteBuffer buffer = mapInput(sourceName);
+            if (buffer != null) {
+                convert(buffer, destName, progressListener, decoderParams);
+            } else {
+                InputStream in = openInput(sourceName);
+                convert(in, destName, progressListener, decoderParams);
+                in.close();
+            }
         } catch (IOException ioe) {
             throw new JavaLayerException(ioe.getLocalizedMessage(), ioe);
         }
@@ -93,76 +214,366 @@ public class Converter {
                 frameCount = countFrames(sourceStream);
                 sourceStream.reset();
             }
-            progressListener.converterUpdate(ProgressListener.UPDATE_FRAME_COUNT, frameCount, 0);
 
-            Obuffer output = null;
-            Decoder decoder = new Decoder(decoderParams);
-            Bitstream stream = new Bitstream(sourceStream);
+            convert(new Bitstream(sourceStream), frameCount, destName, progressListener, decoderParams);
+        } catch (IOException ex) {
+            throw new JavaLayerException(ex.getLocalizedMessage(), ex);
+        }
+    }
+
+    /**
+     * Converts the stream in the buffer, e.g. a memory mapped file.
+     * The frames are counted and decoded in the buffer, they are not copied.
+     *
+     * @param sourceBuffer the bytes from the position to the limit are converted,
+     *                     the position is not changed.
+     * @since 1.0.4
+     */
+    public synchronized void convert(ByteBuffer sourceBuffer,
+                                     String destName,
+                                     ProgressListener progressListener,
+                                     Decoder.Params decoderParams) throws JavaLayerException {
+        if (progressListener == null)
+            progressListener = PrintWriterProgressListener.newStdOut(PrintWriterProgressListener.NO_DETAIL);
+        if (pool != null && format == Format.WAV) {
+            convertParallel(sourceBuffer, destName, progressListener, decoderParams);
+            return;
+        }
+        int frameCount = countFrames(sourceBuffer, progressListener);
+
+        convert(new Bitstream(sourceBuffer), frameCount, destName, progressListener, decoderParams);
+    }
+
+    private void convert(Bitstream stream,
+                         int frameCount,
+                         String destName,
+                         ProgressListener progressListener,
+                         Decoder.Params decoderParams) throws JavaLayerException {
+        progressListener.converterUpdate(ProgressListener.UPDATE_FRAME_COUNT, frameCount, 0);
+
+        Obuffer output = null;
+        Decoder decoder = new Decoder(decoderParams);
+
+        if (frameCount == -1)
+            frameCount = Integer.MAX_VALUE;
+
+        int frame = 0;
+        long startTime = System.currentTimeMillis();
+
+        try {
+            for (; frame < frameCount; frame++) {
+                try {
+                    Header header = stream.readFrame();
+                    if (header == null)
+                        break;
+
+                    progressListener.readFrame(frame, header);
+
+                    if (output == null) {
+                        // REVIEW: Incorrect functionality.
+                        // the decoder should provide decoded
+                        // frequency and channels output as it may differ from
+                        // the source (e.g. when downmixing stereo to mono.)
+                        int channels = (header.mode() == Header.SINGLE_CHANNEL) ? 1 : 2;
+                        int freq = header.frequency();
+                        output = openOutput(channels, freq, destName);
+                        decoder.setOutputBuffer(output);
+                    }
+
+                    Obuffer decoderOutput = decoder.decodeFrame(header, stream);
+
+                    // REVIEW: the way the output buffer is set
+                    // on the decoder is a bit dodgy. Even though
+                    // this exception should never happen, we test to be sure.
+                    if (decoderOutput != output)
+                        throw new InternalError("Output buffers are different.");
+
+                    progressListener.decodedFrame(frame, header, output);
+
+                    stream.closeFrame();
+
+                } catch (Exception ex) {
+                    boolean stop = !progressListener.converterException(ex);
+
+                    if (stop) {
+                        throw new JavaLayerException(ex.getLocalizedMessage(), ex);
+                    }
+                }
+            }
+
+        } finally {
 
-            if (frameCount == -1)
-                frameCount = Integer.MAX_VALUE;
+            if (output != null)
+                output.close();
+        }
 
-            int frame = 0;
-            long startTime = System.currentTimeMillis();
+        int time = (int) (System.currentTimeMillis() - startTime);
+        progressListener.converterUpdate(ProgressListener.UPDATE_CONVERT_COMPLETE, time, frame);
+    }
 
-            try {
-                for (; frame < frameCount; frame++) {
-                    try {
-                        Header header = stream.readFrame();
-                        if (header == null)
-                            break;
-
-                        progressListener.readFrame(frame, header);
-
-                        if (output == null) {
-                            // REVIEW: Incorrect functionality.
-                            // the decoder should provide decoded
-                            // frequency and channels output as it may differ from
-                            // the source (e.g. when downmixing stereo to mono.)
-                            int channels = (header.mode() == Header.SINGLE_CHANNEL) ? 1 : 2;
-                            int freq = header.frequency();
-                            output = new WaveFileObuffer(channels, freq, destName);
-                            decoder.setOutputBuffer(output);
-                        }
+    /**
+     * Decodes the segments of the buffer on the pool, and writes them in order.
+     * A window of segments twice as many as the workers is decoded ahead.
+     */
+    private void convertParallel(ByteBuffer buffer,
+                                 String destName,
+                                 ProgressListener progressListener,
+                                 Decoder.Params decoderParams) throws JavaLayerException {
+        FrameIndex index;
+        Header header;
+        try {
+            index = FrameIndex.build(buffer);
+            header = new Bitstream(buffer).readFrame();
+        } catch (BitstreamException ex) {
+            throw new JavaLayerException(ex.getLocalizedMessage(), ex);
+        }
+        int frameCount = index.size();
+        progressListener.converterUpdate(ProgressListener.UPDATE_FRAME_COUNT, frameCount, 0);
 
-                        Obuffer decoderOutput = decoder.decodeFrame(header, stream);
+        long startTime = System.currentTimeMillis();
 
-                        // REVIEW: the way the output buffer is set
-                        // on the decoder is a bit dodgy. Even though
-                        // this exception should never happen, we test to be sure.
-                        if (decoderOutput != output)
-                            throw new InternalError("Output buffers are different.");
+        int channels = header == null ? 0 : (header.mode() == Header.SINGLE_CHANNEL) ? 1 : 2;
 
-                        progressListener.decodedFrame(frame, header, output);
+        // reports the frames as they are written
+        FrameScanner scanner = new FrameScanner(buffer);
 
-                        stream.closeFrame();
+        Deque<ForkJoinTask<SegmentObuffer>> tasks = new ArrayDeque<>();
+        int window = pool.getParallelism() * 2;
+        int next = 0;
+        int written = 0;
+        try (WaveFileWriter output = header == null ? null : new WaveFileWriter(openChannel(destName), header.frequency(), channels, OUTPUT_BUFFER_SIZE)) {
+            try {
+                while (next < frameCount || !tasks.isEmpty()) {
+                    while (next < frameCount && tasks.size() < window) {
+                        int first = next;
+                        int last = Math.min(first + segmentFrames, frameCount);
+                        tasks.add(pool.submit(() -> decodeSegment(buffer, index, first, last, channels, decoderParams)));
+                        next = last;
+                    }
 
-                    } catch (Exception ex) {
+                    int first = written;
+                    int last = Math.min(first + segmentFrames, frameCount);
+                    SegmentObuffer segment = null;
+                    try {
+                        segment = tasks.remove().join();
+                        short[] pcm = segment.getSamples();
+                        output.write(pcm, 0, pcm.length);
+                    } catch (RuntimeException ex) {
                         boolean stop = !progressListener.converterException(ex);
 
                         if (stop) {
                             throw new JavaLayerException(ex.getLocalizedMessage(), ex);
                         }
+
+                        // silence of the segment, not to shift the rest
+                        short[] silence = new short[(int) (index.sample(last) - index.sample(first)) * channels];
+                        output.write(silence, 0, silence.length);
                     }
-                }
 
+                    for (int frame = first; frame < last && scanner.next(); frame++) {
+                        progressListener.readFrame(frame, scanner.header());
+                        if (segment != null)
+                            progressListener.decodedFrame(frame, scanner.header(), segment);
+                    }
+                    written = last;
+                }
             } finally {
-
-                if (output != null)
-                    output.close();
+                for (ForkJoinTask<SegmentObuffer> task : tasks)
+                    task.cancel(true);
             }
-
-            int time = (int) (System.currentTimeMillis() - startTime);
-            progressListener.converterUpdate(ProgressListener.UPDATE_CONVERT_COMPLETE, time, frame);
         } catch (IOException ex) {
             throw new JavaLayerException(ex.getLocalizedMessage(), ex);
         }
+
+        int time = (int) (System.currentTimeMillis() - startTime);
+        progressListener.converterUpdate(ProgressListener.UPDATE_CONVERT_COMPLETE, time, frameCount);
+    }
+
+    /**
+     * Decodes the frames of a segment with a new decoder.
+     *
+     * @param first    the first frame of the segment
+     * @param last     the frame after the segment
+     * @param channels the channels of the output, of the first frame of the stream
+     * @return the buffer of the interleaved samples
+     */
+    private static SegmentObuffer decodeSegment(ByteBuffer buffer,
+                                         FrameIndex index,
+                                         int first,
+                                         int last,
+                                         int channels,
+                                         Decoder.Params decoderParams) throws JavaLayerException {
+        Bitstream stream = new Bitstream(buffer);
+        Decoder decoder = new Decoder(decoderParams);
+        SegmentObuffer output = new SegmentObuffer(channels, (int) (index.sample(last) - index.sample(first)));
+        decoder.setOutputBuffer(output);
+        decoder.seek(stream, index, index.sample(first));
+
+        for (int frame = first; frame < last; frame++) {
+            Header header = stream.readFrame();
+            if (header == null)
+                break;
+
+            decoder.decodeFrame(header, stream);
+
+            stream.closeFrame();
+        }
+
+        return output;
+    }
+
+    /**
+     * Collects the samples of a segment in memory, they are clipped
+     * and interleaved as {@link WaveFileObuffer} does.
+     */
+    private static final class SegmentObuffer extends Obuffer {
+
+        private final short[] buffer = new short[OBUFFERSIZE];
+        private final int[] bufferP = new int[MAXCHANNELS];
+        private final int channels;
+        private short[] samples;
+        private int length;
+
+        /**
+         * @param samples the number of samples per channel expected
+         */
+        SegmentObuffer(int channels, int samples) {
+            this.channels = channels;
+            this.samples = new short[samples * channels];
+            for (int i = 0; i < channels; ++i)
+                bufferP[i] = i;
+        }
+
+        short[] getSamples() {
+            return Arrays.copyOf(samples, length);
+        }
+
+        @Override
+        public void append(int channel, short value) {
+            buffer[bufferP[channel]] = value;
+            bufferP[channel] += channels;
+        }
+
+        @Override
+        public void writeBuffer(int val) {
+            int n = bufferP[0];
+            if (length + n > samples.length)
+                samples = Arrays.copyOf(samples, Math.max(samples.length * 2, length + n));
+            System.arraycopy(buffer, 0, samples, length, n);
+            length += n;
+            for (int i = 0; i < channels; ++i)
+                bufferP[i] = i;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public void clearBuffer() {
+        }
+
+        @Override
+        public void setStopFlag() {
+        }
     }
 
     protected int countFrames(InputStream in) {
         return -1;
     }
 
+    /**
+     * Counts the frames by reading their headers only, the frames are not decoded.
+     *
+     * @return the number of frames, or -1 if they could not be counted.
+     */
+    protected int countFrames(ByteBuffer buffer, ProgressListener progressListener) {
+        FrameScanner scanner = new FrameScanner(buffer);
+        try {
+            while (scanner.next()) {
+                progressListener.parsedFrame(scanner.frames() - 1, scanner.header());
+            }
+        } catch (BitstreamException e) {
+            return -1;
+        }
+        return scanner.frames();
+    }
+
+    /**
+     * Maps the file into memory.
+     *
+     * @return null if the file cannot be mapped, it is read by {@link #openInput(String)} then.
+     */
+    protected ByteBuffer mapInput(String fileName) throws IOException {
+        Path path = Path.of(fileName);
+        if (!Files.isRegularFile(path) || Files.size(path) > Integer.MAX_VALUE)
+            return null;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /**
+     * Opens the output of the format.
+     *
+     * @param destName the file name, or {@link #STDOUT}
+     * @since 1.0.4
+     */
+    protected Obuffer openOutput(int channels, int freq, String destName) throws IOException {
+        WritableByteChannel channel = openChannel(destName);
+        if (format == Format.WAV)
+            return new WaveFileObuffer(channels, freq, channel, OUTPUT_BUFFER_SIZE);
+        else
+            return new RawPcmObuffer(channels, channel, format.encoding, OUTPUT_BUFFER_SIZE);
+    }
+
+    /**
+     * Opens the file, the standard output for {@link #STDOUT}.
+     *
+     * @since 1.0.4
+     */
+    protected WritableByteChannel openChannel(String destName) throws IOException {
+        if (STDOUT.equals(destName))
+            return new StandardOutputChannel();
+        return FileChannel.open(Path.of(destName),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Writes to the file descriptor of the standard output directly, it is not closed.
+     * It is not seekable even if it is redirected to a file, it may be appended to,
+     * or a terminal, so the sizes of a .WAV header are not written back.
+     * {@link System#out} is flushed first, messages should be printed to {@link System#err}.
+     */
+    private static final class StandardOutputChannel implements WritableByteChannel {
+
+        private final FileChannel channel = new FileOutputStream(FileDescriptor.out).getChannel();
+
+        private boolean open = true;
+
+        StandardOutputChannel() {
+            System.out.flush();
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            if (!open)
+                throw new ClosedChannelException();
+            return channel.write(src);
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public void close() {
+            open = false;
+        }
+    }
+
     protected InputStream openInput(String fileName) throws IOException {
         // ensure name is abstract path name
         File file = new File(fileName);
@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package javazoom.jl.converter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+
+import javazoom.jl.decoder.Obuffer;
+
+
+/**
+ * Implements an {@link Obuffer} by writing the interleaved samples to a channel
+ * as raw PCM without a header, e.g. for a pipe to another program.
+ * <p>
+ * The samples of a frame are put to a little endian direct buffer and written
+ * when it is full, so the channel is written in blocks of the buffer size.
+ * I/O errors are thrown as {@link UncheckedIOException}.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026/10/18 nsano initial version <br>
+ * @since 1.0.4
+ */
+public class RawPcmObuffer extends Obuffer {
+
+    /** The encodings of the samples. */
+    public enum Encoding {
+        /** 16 bit signed, little endian, clipped as {@link WaveFileObuffer} */
+        S16LE(2),
+        /** 32 bit float, little endian, not clipped as {@link javazoom.jl.decoder.FloatSampleBuffer} */
+        F32LE(4);
+
+        /** bytes of a sample */
+        final int bytes;
+
+        Encoding(int bytes) {
+            this.bytes = bytes;
+        }
+    }
+
+    /** 16 bits scale to [-1.0, 1.0] */
+    private static final float SCALE = 1.0f / 32768.0f;
+
+    private final WritableByteChannel channel;
+    private final Encoding encoding;
+    private final int channels;
+
+    /** samples of a frame, one of them is used */
+    private final short[] shortSamples;
+    private final float[] floatSamples;
+    private final int[] bufferP;
+
+    /** little endian */
+    private final ByteBuffer buffer;
+
+    /** views of the buffer, the samples are put to one of them */
+    private final ShortBuffer shorts;
+    private final FloatBuffer floats;
+
+    /**
+     * Creates a new RawPcmObuffer instance writing to a channel.
+     *
+     * @param number_of_channels The number of channels of audio data
+     *                           this buffer will receive.
+     * @param channel            The channel to write the data to, it is closed by {@link #close()}.
+     * @param encoding           The encoding of the samples.
+     * @param bufferSize         The bytes written to the channel at once.
+     */
+    public RawPcmObuffer(int number_of_channels, WritableByteChannel channel, Encoding encoding, int bufferSize) {
+        if (channel == null)
+            throw new NullPointerException("channel");
+        if (bufferSize < encoding.bytes)
+            throw new IllegalArgumentException("bufferSize: " + bufferSize);
+        this.channel = channel;
+        this.encoding = encoding;
+        channels = number_of_channels;
+
+        bufferP = new int[MAXCHANNELS];
+        for (int i = 0; i < number_of_channels; ++i)
+            bufferP[i] = i;
+
+        buffer = ByteBuffer.allocateDirect(bufferSize / encoding.bytes * encoding.bytes).order(ByteOrder.LITTLE_ENDIAN);
+        if (encoding == Encoding.S16LE) {
+            shortSamples = new short[OBUFFERSIZE];
+            floatSamples = null;
+            shorts = buffer.asShortBuffer();
+            floats = null;
+        } else {
+            shortSamples = null;
+            floatSamples = new float[OBUFFERSIZE];
+            shorts = null;
+            floats = buffer.asFloatBuffer();
+        }
+    }
+
+    /**
+     * Creates a new RawPcmObuffer instance writing to a stream.
+     *
+     * @param number_of_channels The number of channels of audio data
+     *                           this buffer will receive.
+     * @param out                The stream to write the data to, it is closed by {@link #close()}.
+     * @param encoding           The encoding of the samples.
+     * @param bufferSize         The bytes written to the stream at once.
+     */
+    public RawPcmObuffer(int number_of_channels, OutputStream out, Encoding encoding, int bufferSize) {
+        this(number_of_channels, Channels.newChannel(out), encoding, bufferSize);
+    }
+
+    /**
+     * Takes a 16 Bit PCM sample.
+     */
+    @Override
+    public void append(int channel, short value) {
+        if (shortSamples != null)
+            shortSamples[bufferP[channel]] = value;
+        else
+            floatSamples[bufferP[channel]] = value * SCALE;
+        bufferP[channel] += channels;
+    }
+
+    @Override
+    public void appendSamples(int channel, float[] f, int offset) {
+        if (floatSamples == null) {
+            super.appendSamples(channel, f, offset);
+            return;
+        }
+
+        int pos = bufferP[channel];
+
+        for (int i = offset; i < 32; ) {
+            floatSamples[pos] = f[i++] * SCALE;
+            pos += channels;
+        }
+
+        bufferP[channel] = pos;
+    }
+
+    /**
+     * Write the samples to the buffer, and the buffer to the channel when it is full.
+     */
+    @Override
+    public void writeBuffer(int val) {
+        try {
+            int length = bufferP[0];
+            int offset = 0;
+            while (offset < length) {
+                if (position() == limit())
+                    flush();
+                int n = Math.min(length - offset, limit() - position());
+                if (shorts != null)
+                    shorts.put(shortSamples, offset, n);
+                else
+                    floats.put(floatSamples, offset, n);
+                offset += n;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        for (int i = 0; i < channels; ++i) bufferP[i] = i;
+    }
+
+    /** Returns the position of the view in samples. */
+    private int position() {
+        return shorts != null ? shorts.position() : floats.position();
+    }
+
+    /** Returns the limit of the view in samples. */
+    private int limit() {
+        return shorts != null ? shorts.limit() : floats.limit();
+    }
+
+    /** Writes the buffered samples to the channel. */
+    private void flush() throws IOException {
+        buffer.limit(position() * encoding.bytes).position(0);
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+        buffer.clear();
+        if (shorts != null)
+            shorts.clear();
+        else
+            floats.clear();
+    }
+
+    @Override
+    public void close() {
+        try {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     *
+     */
+    @Override
+    public void clearBuffer() {
+        for (int i = 0; i < channels; ++i)
+            bufferP[i] = i;
+    }
+
+    /**
+     *
+     */
+    @Override
+    public void setStopFlag() {
+    }
+}
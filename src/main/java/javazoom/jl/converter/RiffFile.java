@@ -73,6 +73,8 @@ public class RiffFile {
     protected int fmode;
     /** I/O stream to use */
     protected RandomAccessFile file;
+    /** bytes of the shorts written, reused */
+    private byte[] shortBytes = new byte[0];
 
     /**
      * Dummy Constructor
@@ -188,7 +190,9 @@ public class RiffFile {
      * Write numBytes data.
      */
     public int write(short[] data, int numBytes) {
-        byte[] theData = new byte[numBytes];
+        if (shortBytes.length < numBytes)
+            shortBytes = new byte[numBytes];
+        byte[] theData = shortBytes;
         int yc = 0;
         for (int y = 0; y < numBytes; y = y + 2) {
             theData[y] = (byte) (data[yc] & 0x00FF);
@@ -370,6 +374,7 @@ public class RiffFile {
 
     /**
      * Write data to specified offset.
+     * The data overwrites the file, it is not counted in the RIFF size.
      */
     public int backpatch(long fileOffset, RiffChunkHeader data, int numBytes) {
         if (file == null) {
@@ -380,7 +385,10 @@ public class RiffFile {
         } catch (IOException ioe) {
             return DDC_FILE_ERROR;
         }
-        return write(data, numBytes);
+        int retcode = write(data, numBytes);
+        if (retcode == DDC_SUCCESS)
+            riffHeader.ckSize -= numBytes;
+        return retcode;
     }
 
     public int backpatch(long fileOffset, byte[] data, int numBytes) {
@@ -392,7 +400,10 @@ public class RiffFile {
         } catch (IOException ioe) {
             return DDC_FILE_ERROR;
         }
-        return write(data, numBytes);
+        int retcode = write(data, numBytes);
+        if (retcode == DDC_SUCCESS)
+            riffHeader.ckSize -= numBytes;
+        return retcode;
     }
 
     /**
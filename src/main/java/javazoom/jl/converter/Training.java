@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package javazoom.jl.converter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import javazoom.jl.decoder.JavaLayerException;
+
+
+/**
+ * A training workload for an AppCDS archive of {@link jlc}.
+ * <pre>
+ * java -XX:ArchiveClassesAtExit=jlc.jsa -cp jlayer.jar javazoom.jl.converter.Training
+ * java -XX:SharedArchiveFile=jlc.jsa -cp jlayer.jar javazoom.jl.converter.jlc in.mp3
+ * </pre>
+ * Silent streams of the layer I, II and III are converted to .WAV files as jlc does,
+ * so the classes jlc uses are loaded and archived. No input file is needed.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026/10/18 nsano initial version <br>
+ * @since 1.0.4
+ */
+public final class Training {
+
+    /** MPEG1 layer I, II and III, 128 kbps, 44.1 kHz, stereo, no crc */
+    static final int[] HEADERS = {0xffff4000, 0xfffd8000, 0xfffb9000};
+
+    /** frame sizes of the headers including the header */
+    static final int[] FRAME_SIZES = {12 * 128000 / 44100 * 4, 144 * 128000 / 44100, 144 * 128000 / 44100};
+
+    /** frames of a stream */
+    static final int FRAMES = 64;
+
+    private Training() {
+    }
+
+    /**
+     * Returns a stream of the frames with no bits allocated, they are decoded to silence.
+     *
+     * @param layer 1, 2 or 3
+     */
+    static byte[] silence(int layer, int frames) {
+        ByteBuffer buffer = ByteBuffer.allocate(FRAME_SIZES[layer - 1] * frames);
+        for (int i = 0; i < frames; i++) {
+            buffer.putInt(FRAME_SIZES[layer - 1] * i, HEADERS[layer - 1]);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * @param args none
+     */
+    public static void main(String[] args) throws IOException, JavaLayerException {
+        Path dir = Files.createTempDirectory("jlayer");
+        try {
+            Converter.ProgressListener listener = new Converter.PrintWriterProgressListener(new PrintWriter(System.out, true),
+                    Converter.PrintWriterProgressListener.NO_DETAIL);
+            for (int layer = 1; layer <= 3; layer++) {
+                Path source = dir.resolve("layer" + layer + ".mp3");
+                Path dest = dir.resolve("layer" + layer + ".wav");
+                Files.write(source, silence(layer, FRAMES));
+                // same as jlc
+                new Converter().convert(source.toString(), dest.toString(), listener);
+                Files.delete(source);
+                Files.deleteIfExists(dest);
+            }
+        } finally {
+            Files.delete(dir);
+        }
+    }
+}
@@ -25,12 +25,20 @@
 
 package javazoom.jl.converter;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+
 import javazoom.jl.decoder.Obuffer;
 
 
 /**
  * Implements an {@link Obuffer} by writing the data to
  * a file in RIFF WAVE format.
+ * <p>
+ * The data is written by a {@link WaveFileWriter}, I/O errors are
+ * thrown as {@link UncheckedIOException}.
  *
  * @since 0.0
  */
@@ -39,7 +47,7 @@ public class WaveFileObuffer extends Obuffer {
     private final short[] buffer;
     private final short[] bufferP;
     private final int channels;
-    private final WaveFile outWave;
+    private final WaveFileWriter outWave;
 
     /**
      * Creates a new WareFileObuffer instance.
@@ -50,9 +58,25 @@ public class WaveFileObuffer extends Obuffer {
      * @param fileName           The filename to write the data to.
      */
     public WaveFileObuffer(int number_of_channels, int freq, String fileName) {
-        if (fileName == null)
-            throw new NullPointerException("fileName");
+        this(number_of_channels, freq, open(fileName, freq, number_of_channels));
+    }
 
+    /**
+     * Creates a new WareFileObuffer instance writing to a channel.
+     *
+     * @param number_of_channels The number of channels of audio data
+     *                           this buffer will receive.
+     * @param freq               The sample frequency of the samples in the buffer.
+     * @param channel            The channel to write the data to, it is closed by {@link #close()}.
+     *                           The sizes of the header are written back if it is seekable.
+     * @param bufferSize         The bytes written to the channel at once.
+     * @since 1.0.4
+     */
+    public WaveFileObuffer(int number_of_channels, int freq, WritableByteChannel channel, int bufferSize) {
+        this(number_of_channels, freq, open(channel, freq, number_of_channels, bufferSize));
+    }
+
+    private WaveFileObuffer(int number_of_channels, int freq, WaveFileWriter outWave) {
         buffer = new short[OBUFFERSIZE];
         bufferP = new short[MAXCHANNELS];
         channels = number_of_channels;
@@ -60,9 +84,25 @@ public class WaveFileObuffer extends Obuffer {
         for (int i = 0; i < number_of_channels; ++i)
             bufferP[i] = (short) i;
 
-        outWave = new WaveFile();
+        this.outWave = outWave;
+    }
 
-        int rc = outWave.openForWrite(fileName, freq, (short) 16, (short) channels);
+    private static WaveFileWriter open(String fileName, int freq, int channels) {
+        if (fileName == null)
+            throw new NullPointerException("fileName");
+        try {
+            return new WaveFileWriter(Path.of(fileName), freq, channels);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static WaveFileWriter open(WritableByteChannel channel, int freq, int channels, int bufferSize) {
+        try {
+            return new WaveFileWriter(channel, freq, channels, bufferSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     /**
@@ -75,21 +115,25 @@ public class WaveFileObuffer extends Obuffer {
     }
 
     /**
-     * Write the samples to the file (Random Access).
+     * Write the samples to the file.
      */
-    short[] myBuffer = new short[2];
-
     @Override
     public void writeBuffer(int val) {
-
-        int rc = outWave.writeData(buffer, bufferP[0]);
-        // REVIEW: handle RiffFile errors.
+        try {
+            outWave.write(buffer, 0, bufferP[0]);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
         for (int i = 0; i < channels; ++i) bufferP[i] = (short) i;
     }
 
     @Override
     public void close() {
-        outWave.close();
+        try {
+            outWave.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     /**
@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package javazoom.jl.converter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+
+/**
+ * Writes 16 bit PCM samples to a channel in RIFF WAVE format.
+ * <pre>
+ * try (WaveFileWriter writer = new WaveFileWriter(Path.of("out.wav"), 44100, 2)) {
+ *     writer.write(samples, 0, length);
+ * }
+ * </pre>
+ * The header and the samples are put to a direct buffer and written when it is full,
+ * so a channel is written in blocks of the buffer size.
+ * <p>
+ * The sizes in the header are not known until the end. When the channel is seekable
+ * they are written back at the header on close, otherwise, e.g. a pipe or a socket,
+ * the writer is streaming and {@link #UNKNOWN_SIZE} is written as the sizes.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026/10/18 nsano initial version <br>
+ * @since 1.0.4
+ */
+public final class WaveFileWriter implements Closeable {
+
+    /** size of the RIFF, fmt and data chunk headers */
+    public static final int HEADER_SIZE = 44;
+
+    /** default size of the buffer in bytes */
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    /** the sizes written by a streaming writer, most readers read it until the end of the stream */
+    public static final int UNKNOWN_SIZE = 0xffffffff;
+
+    private final WritableByteChannel channel;
+
+    private final int freq;
+
+    private final int channels;
+
+    /** little endian */
+    private final ByteBuffer buffer;
+
+    /** view of the buffer, the samples are put to */
+    private final ShortBuffer shorts;
+
+    /** position of the header in the channel, -1 when streaming */
+    private final long start;
+
+    /** bytes of the samples written */
+    private long dataSize;
+
+    private boolean closed;
+
+    /**
+     * Creates a file and a writer of it with the default buffer size.
+     *
+     * @param path     the file, it is truncated if exists
+     * @param freq     the sample frequency
+     * @param channels 1 or 2
+     */
+    public WaveFileWriter(Path path, int freq, int channels) throws IOException {
+        this(path, freq, channels, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Creates a file and a writer of it.
+     *
+     * @param path       the file, it is truncated if exists
+     * @param freq       the sample frequency
+     * @param channels   1 or 2
+     * @param bufferSize bytes written at once, {@link #HEADER_SIZE} at least
+     */
+    public WaveFileWriter(Path path, int freq, int channels, int bufferSize) throws IOException {
+        this(FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE),
+                freq, channels, bufferSize);
+    }
+
+    /**
+     * Creates a writer of a channel.
+     * The header is written at the current position of a seekable channel.
+     *
+     * @param channel    the channel, it is closed by {@link #close()}
+     * @param freq       the sample frequency
+     * @param channels   1 or 2
+     * @param bufferSize bytes written at once, {@link #HEADER_SIZE} at least
+     */
+    public WaveFileWriter(WritableByteChannel channel, int freq, int channels, int bufferSize) throws IOException {
+        if (channel == null)
+            throw new NullPointerException("channel");
+        if (channels < 1 || channels > 2)
+            throw new IllegalArgumentException("channels: " + channels);
+        if (bufferSize < HEADER_SIZE)
+            throw new IllegalArgumentException("bufferSize: " + bufferSize);
+        this.channel = channel;
+        this.freq = freq;
+        this.channels = channels;
+        this.start = position(channel);
+        buffer = ByteBuffer.allocateDirect(bufferSize & ~1).order(ByteOrder.LITTLE_ENDIAN);
+        shorts = buffer.asShortBuffer();
+        putHeader(isStreaming() ? UNKNOWN_SIZE : 0);
+        shorts.position(HEADER_SIZE / 2);
+    }
+
+    /**
+     * Returns the position of a seekable channel.
+     *
+     * @return -1 if the channel cannot seek, e.g. a {@link FileChannel} of a pipe
+     */
+    private static long position(WritableByteChannel channel) {
+        if (channel instanceof SeekableByteChannel) {
+            try {
+                return ((SeekableByteChannel) channel).position();
+            } catch (IOException e) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    /** Returns true if the sizes in the header are not written back. */
+    public boolean isStreaming() {
+        return start < 0;
+    }
+
+    /** Returns the bytes of the samples written. */
+    public long dataSize() {
+        return dataSize;
+    }
+
+    /**
+     * Writes the interleaved samples.
+     *
+     * @param samples the samples of the channels in turn
+     */
+    public void write(short[] samples, int offset, int length) throws IOException {
+        if (closed)
+            throw new IOException("closed");
+        dataSize += length * 2L;
+        while (length > 0) {
+            if (!shorts.hasRemaining())
+                flush();
+            int n = Math.min(length, shorts.remaining());
+            shorts.put(samples, offset, n);
+            offset += n;
+            length -= n;
+        }
+    }
+
+    /** Writes the buffered bytes to the channel. */
+    public void flush() throws IOException {
+        buffer.limit(shorts.position() * 2).position(0);
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+        buffer.clear();
+        shorts.clear();
+    }
+
+    /**
+     * Writes the buffered bytes and the sizes in the header, and closes the channel.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed)
+            return;
+        closed = true;
+        try {
+            flush();
+            if (!isStreaming()) {
+                putHeader((int) Math.min(dataSize, UNKNOWN_SIZE & 0xffffffffL));
+                buffer.limit(HEADER_SIZE);
+                ((SeekableByteChannel) channel).position(start);
+                while (buffer.hasRemaining())
+                    channel.write(buffer);
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+    /** Puts the header at the beginning of the buffer. */
+    private void putHeader(int dataSize) {
+        int blockAlign = channels * 2;
+        buffer.putInt(0, fourCC("RIFF"));
+        buffer.putInt(4, dataSize == UNKNOWN_SIZE ? UNKNOWN_SIZE : (int) Math.min((dataSize & 0xffffffffL) + 36, 0xffffffffL));
+        buffer.putInt(8, fourCC("WAVE"));
+        buffer.putInt(12, fourCC("fmt "));
+        buffer.putInt(16, 16);
+        buffer.putShort(20, (short) 1); // PCM
+        buffer.putShort(22, (short) channels);
+        buffer.putInt(24, freq);
+        buffer.putInt(28, freq * blockAlign);
+        buffer.putShort(32, (short) blockAlign);
+        buffer.putShort(34, (short) 16);
+        buffer.putInt(36, fourCC("data"));
+        buffer.putInt(40, dataSize);
+    }
+
+    /** Returns the chunk id to put to a little endian buffer. */
+    private static int fourCC(String chunkName) {
+        return Integer.reverseBytes(RiffFile.fourCC(chunkName));
+    }
+}
@@ -28,8 +28,22 @@
 
 package javazoom.jl.converter;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
 import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
 
 import javazoom.jl.decoder.JavaLayerException;
 import javazoom.jl.decoder.OutputChannels;
@@ -57,11 +71,16 @@ public class jlc {
         if (!ma.processArgs(argv))
             System.exit(1);
 
+        if (ma.isBatch()) {
+            System.exit(batch(ma) ? 0 : 1);
+        }
+
         Converter conv = new Converter();
+        conv.setFormat(ma.format);
 
         int detail = (ma.verboseMode ? ma.verboseLevel : Converter.PrintWriterProgressListener.NO_DETAIL);
 
-        Converter.ProgressListener listener = new Converter.PrintWriterProgressListener(new PrintWriter(System.out, true),
+        Converter.ProgressListener listener = new Converter.PrintWriterProgressListener(new PrintWriter(ma.console(), true),
                 detail);
 
         try {
@@ -73,6 +92,88 @@ public class jlc {
         System.exit(0);
     }
 
+    /**
+     * Returns the elements of the streams in turn, the iterator of a stream continues
+     * after it throws, e.g. at an unreadable directory, and the elements are not buffered
+     * as {@link Stream#flatMap} does.
+     */
+    private static <T> Iterable<T> concat(List<Stream<T>> streams) {
+        return () -> new Iterator<>() {
+            private final Iterator<Stream<T>> outer = streams.iterator();
+            private Iterator<T> inner = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!inner.hasNext() && outer.hasNext())
+                    inner = outer.next().iterator();
+                return inner.hasNext();
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                return inner.next();
+            }
+        };
+    }
+
+    /**
+     * Converts the files, directories and the list of files of the arguments.
+     *
+     * @return false if a file failed
+     */
+    private static boolean batch(jlcArgs ma) {
+        int detail = (ma.verboseMode ? ma.verboseLevel : Converter.PrintWriterProgressListener.NO_DETAIL);
+        PrintWriter pw = new PrintWriter(System.out, true);
+
+        // a source and the root it is mirrored relative to, the directory argument it is found in,
+        // or its parent for a file, so the .WAV file of a file is put directly in the output directory
+        List<Stream<Map.Entry<Path, Path>>> streams = new ArrayList<>();
+        try {
+            for (String filename : ma.filenames) {
+                Path path = Path.of(filename).toAbsolutePath();
+                streams.add(Files.isDirectory(path)
+                        ? BatchConverter.find(path, ma.glob).map(p -> Map.entry(path, p))
+                        : Stream.of(Map.entry(path.getParent(), path)));
+            }
+            if (ma.listFilename != null) {
+                streams.add((ma.listFilename.equals("-")
+                        ? new BufferedReader(new InputStreamReader(System.in)).lines()
+                        : Files.lines(Path.of(ma.listFilename)))
+                        .map(l -> Path.of(l).toAbsolutePath())
+                        .map(p -> Map.entry(p.getParent(), p)));
+            }
+
+            Function<Map.Entry<Path, Path>, Path> destinations;
+            if (ma.outputDirname != null) {
+                Path output = Path.of(ma.outputDirname).toAbsolutePath();
+                destinations = e -> BatchConverter.destinations(e.getKey(), output).apply(e.getValue());
+            } else {
+                Function<Path, Path> beside = BatchConverter.destinations(null, null);
+                destinations = e -> beside.apply(e.getValue());
+            }
+
+            BatchConverter.Stats stats = new BatchConverter(ma.workers).convert(
+                    concat(streams),
+                    Map.Entry::getValue,
+                    destinations,
+                    p -> {
+                        if (detail > Converter.PrintWriterProgressListener.NO_DETAIL)
+                            pw.println("FileName = " + p);
+                        return new Converter.PrintWriterProgressListener(pw, detail);
+                    },
+                    null);
+            pw.println(stats);
+            return stats.failed() == 0;
+        } catch (IOException | InterruptedException ex) {
+            logger.warning("Conversion failure: " + ex);
+            return false;
+        } finally {
+            streams.forEach(Stream::close);
+        }
+    }
+
     /**
      * Class to contain arguments for maplay.
      */
@@ -95,6 +196,24 @@ public class jlc {
 
         public int verboseLevel = 3;
 
+        /** files and directories */
+        public List<String> filenames = new ArrayList<>();
+
+        /** a file of the file names, "-" for stdin */
+        public String listFilename;
+
+        /** the output directory of a batch */
+        public String outputDirname;
+
+        /** the file names in directories */
+        public String glob = "*.mp3";
+
+        /** 0 unless specified */
+        public int workers;
+
+        /** the format of the output */
+        public Converter.Format format = Converter.Format.WAV;
+
         public jlcArgs() {
             whichC = OutputChannels.BOTH_CHANNELS;
             useOwnScalefactor = false;
@@ -114,6 +233,7 @@ public class jlc {
             int argc = argv.length;
 
             verboseMode = false;
+            filenames.clear();
             outputMode = OutputChannels.BOTH_CHANNELS;
             outputFilename = "";
             if (argc < 2 || argv[1].equals("-h"))
@@ -133,29 +253,83 @@ logger.finer("Option = " + argv[i]);
                                 System.err.println("Invalid verbose level. Using default.");
                             }
                         }
-                        System.out.println("Verbose Activated (level " + verboseLevel + ")");
                     } else if (argv[i].equals("-p")) {
                         if (++i == argc) {
                             System.out.println("Please specify an output filename after the -p option!");
                             System.exit(1);
                         }
                         outputFilename = argv[i];
+                    } else if (argv[i].equals("-f")) {
+                        if (++i == argc)
+                            return usage();
+                        try {
+                            format = Converter.Format.valueOf(argv[i].toUpperCase());
+                        } catch (IllegalArgumentException ex) {
+                            return usage();
+                        }
+                    } else if (argv[i].equals("-j")) {
+                        if (++i == argc)
+                            return usage();
+                        try {
+                            workers = Integer.parseInt(argv[i]);
+                        } catch (NumberFormatException ex) {
+                            return usage();
+                        }
+                        if (workers < 1)
+                            return usage();
+                    } else if (argv[i].equals("-d")) {
+                        if (++i == argc)
+                            return usage();
+                        outputDirname = argv[i];
+                    } else if (argv[i].equals("-g")) {
+                        if (++i == argc)
+                            return usage();
+                        glob = argv[i];
+                    } else if (argv[i].equals("-l")) {
+                        if (++i == argc)
+                            return usage();
+                        listFilename = argv[i];
                     } else
                         return usage();
                 } else {
                     filename = argv[i];
-                    System.out.println("FileName = " + argv[i]);
-                    if (filename == null)
-                        return usage();
+                    filenames.add(filename);
                 }
                 i++;
             }
-            if (filename == null)
+            if (filename == null && listFilename == null)
                 return usage();
+            if (verboseMode)
+                console().println("Verbose Activated (level " + verboseLevel + ")");
+            if (isBatch()) {
+                if (!outputFilename.isEmpty() || format != Converter.Format.WAV)
+                    return usage();
+                if (workers == 0)
+                    workers = Runtime.getRuntime().availableProcessors();
+            } else {
+                console().println("FileName = " + filename);
+            }
 
             return true;
         }
 
+        /**
+         * Tells whether many files are converted, more than one file,
+         * a directory, a list of files or the workers are specified.
+         */
+        public boolean isBatch() {
+            return filenames.size() > 1 || listFilename != null || workers > 0 || outputDirname != null ||
+                    filenames.stream().anyMatch(f -> Files.isDirectory(Path.of(f)));
+        }
+
+        /**
+         * Returns the stream of the messages, the standard error
+         * if the output is written to the standard output.
+         */
+        public PrintStream console() {
+            return Converter.STDOUT.equals(outputFilename) ? System.err : System.out;
+        }
+
         /**
          * Usage of JavaLayer.
          */
@@ -169,7 +343,14 @@ logger.finer("Option = " + argv[i]);
 //            System.out.println("  -d         downmix mode (layer III only)");
 //            System.out.println("  -s         write pcm samples to stdout");
 //            System.out.println("  -d         downmix mode (layer III only)");
-            System.out.println("  -p name    output as a PCM wave file");
+            System.out.println("  -p name    output as a PCM wave file, - for stdout");
+            System.out.println("  -f format  wav, s16le or f32le (raw PCM), default = wav");
+            System.out.println();
+            System.out.println("  batch mode, for more than one file, a directory or a list:");
+            System.out.println("  -j n       convert n files at once, default = number of processors");
+            System.out.println("  -d dir     output wave files into the directory, default = beside the sources");
+            System.out.println("  -g glob    file names in directories, default = *.mp3");
+            System.out.println("  -l file    convert the files listed in the file, - for stdin");
             System.out.println();
             System.out.println("  More info on http://www.javazoom.net");
 //            System.out.println("  -f ushort  use this scalefactor instead of the default value 32768");
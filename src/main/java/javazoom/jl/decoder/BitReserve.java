@@ -27,14 +27,16 @@
 
 package javazoom.jl.decoder;
 
+import java.util.Arrays;
+
+
 /**
  * Implementation of Bit Reservoir for Layer III.
  * <p>
- * The implementation stores single bits as a word in the buffer. If
- * a bit is set, the corresponding word in the buffer will be non-zero.
- * If a bit is clear, the corresponding word is zero. Although this
- * may seem wasteful, this can be a factor of two quicker than
- * packing 8 bits to a byte and extracting.
+ * The implementation stores the bytes as they are, bits are extracted
+ * by shifting and masking up to 40 bits at once. The first bytes are
+ * mirrored behind the end of the buffer, so that reading across the
+ * wrap-around needs no range checks.
  * <p>
  * REVIEW: there is no range checking, so buffer underflow or overflow
  * can silently occur.
@@ -42,11 +44,10 @@ package javazoom.jl.decoder;
 final class BitReserve {
 
     /**
-     * Size of the internal buffer to store the reserved bits.
-     * Must be a power of 2. And x8, as each bit is stored as a single
-     * entry.
+     * Size of the internal buffer to store the reserved bytes.
+     * Must be a power of 2.
      */
-    private static final int BUFSIZE = 4096 * 8;
+    private static final int BUFSIZE = 4096;
 
     /**
      * Mask that can be used to quickly implement the
@@ -54,15 +55,30 @@ final class BitReserve {
      */
     private static final int BUFSIZE_MASK = BUFSIZE - 1;
 
-    private int offset, totbit, bufByteIdx;
-    private final int[] buf = new int[BUFSIZE];
-    @SuppressWarnings("unused")
-    private int buf_bit_idx;
+    /** Mask for the bit position, BUFSIZE x8. */
+    private static final int BITS_MASK = (BUFSIZE << 3) - 1;
+
+    /** Bytes mirrored behind the end of the buffer, a 32 bits read spans 5 bytes. */
+    private static final int MIRROR = 4;
+
+    /** offset in bytes to write, bit position to read */
+    private int offset, totbit, bitIdx;
+    private final byte[] buf = new byte[BUFSIZE + MIRROR];
 
     BitReserve() {
         offset = 0;
         totbit = 0;
-        bufByteIdx = 0;
+        bitIdx = 0;
+    }
+
+    /**
+     * Empties the reservoir, as if it were created.
+     */
+    void reset() {
+        offset = 0;
+        totbit = 0;
+        bitIdx = 0;
+        Arrays.fill(buf, (byte) 0);
     }
 
     /**
@@ -75,30 +91,38 @@ final class BitReserve {
     /**
      * Read a number bits from the bit stream.
      *
-     * @param N the number of
+     * @param N the number of bits, up to 32
      */
     public int hgetbits(int N) {
-        totbit += N;
-
-        int val = 0;
-
-        int pos = bufByteIdx;
-        if (pos + N < BUFSIZE) {
-            while (N-- > 0) {
-                val <<= 1;
-                val |= ((buf[pos++] != 0) ? 1 : 0);
-            }
-        } else {
-            while (N-- > 0) {
-                val <<= 1;
-                val |= ((buf[pos] != 0) ? 1 : 0);
-                pos = (pos + 1) & BUFSIZE_MASK;
-            }
-        }
-        bufByteIdx = pos;
+        int val = hpeekbits(N);
+        hskipbits(N);
         return val;
     }
 
+    /**
+     * Returns the next n bits without consuming them.
+     *
+     * @param n the number of bits, up to 32
+     * @see #hskipbits(int)
+     */
+    public int hpeekbits(int n) {
+        int i = bitIdx >>> 3;
+        long w = ((buf[i] & 0xffL) << 32) |
+                ((buf[i + 1] & 0xffL) << 24) |
+                ((buf[i + 2] & 0xff) << 16) |
+                ((buf[i + 3] & 0xff) << 8) |
+                (buf[i + 4] & 0xff);
+        return (int) ((w >>> (40 - (bitIdx & 7) - n)) & ((1L << n) - 1));
+    }
+
+    /**
+     * Consumes n bits, typically after {@link #hpeekbits(int)}.
+     */
+    public void hskipbits(int n) {
+        totbit += n;
+        bitIdx = (bitIdx + n) & BITS_MASK;
+    }
+
     /**
      * Returns next bit from reserve.
      *
@@ -106,8 +130,8 @@ final class BitReserve {
      */
     public int hget1bit() {
         totbit++;
-        int val = buf[bufByteIdx];
-        bufByteIdx = (bufByteIdx + 1) & BUFSIZE_MASK;
+        int val = (buf[bitIdx >>> 3] >>> (7 - (bitIdx & 7))) & 1;
+        bitIdx = (bitIdx + 1) & BITS_MASK;
         return val;
     }
 
@@ -116,19 +140,10 @@ final class BitReserve {
      */
     public void hputbuf(int val) {
         int ofs = offset;
-        buf[ofs++] = val & 0x80;
-        buf[ofs++] = val & 0x40;
-        buf[ofs++] = val & 0x20;
-        buf[ofs++] = val & 0x10;
-        buf[ofs++] = val & 0x08;
-        buf[ofs++] = val & 0x04;
-        buf[ofs++] = val & 0x02;
-        buf[ofs++] = val & 0x01;
-
-        if (ofs == BUFSIZE)
-            offset = 0;
-        else
-            offset = ofs;
+        buf[ofs] = (byte) val;
+        if (ofs < MIRROR)
+            buf[BUFSIZE + ofs] = (byte) val;
+        offset = (ofs + 1) & BUFSIZE_MASK;
     }
 
     /**
@@ -136,19 +151,13 @@ final class BitReserve {
      */
     public void rewindNBits(int n) {
         totbit -= n;
-        bufByteIdx -= n;
-        if (bufByteIdx < 0)
-            bufByteIdx += BUFSIZE;
+        bitIdx = (bitIdx - n) & BITS_MASK;
     }
 
     /**
      * Rewind n bytes in Stream.
      */
     public void rewindNBytes(int n) {
-        int bits = (n << 3);
-        totbit -= bits;
-        bufByteIdx -= bits;
-        if (bufByteIdx < 0)
-            bufByteIdx += BUFSIZE;
+        rewindNBits(n << 3);
     }
 }
@@ -35,11 +35,10 @@
 
 package javazoom.jl.decoder;
 
-import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.PushbackInputStream;
+import java.nio.ByteBuffer;
 
 
 /**
@@ -56,20 +55,20 @@ public final class Bitstream implements BitstreamErrors {
      * Synchronization control constant for the initial
      * synchronization to the start of a frame.
      */
-    static byte INITIAL_SYNC = 0;
+    static final byte INITIAL_SYNC = 0;
 
     /**
      * Synchronization control constant for non-initial frame
      * synchronizations.
      */
-    static byte STRICT_SYNC = 1;
+    static final byte STRICT_SYNC = 1;
 
     /**
      * Maximum size of the frame buffer.
      * <p>
      * max. 1730 bytes per frame: 144 * 384kbit/s / 32000 Hz + 2 Bytes CRC
      */
-    private static final int BUFFER_INT_SIZE = 433;
+    static final int BUFFER_INT_SIZE = 433;
 
     /**
      * The frame buffer that holds the data for the current frame.
@@ -118,7 +117,23 @@ public final class Bitstream implements BitstreamErrors {
             0x000007FF, 0x00000FFF, 0x00001FFF, 0x00003FFF, 0x00007FFF, 0x0000FFFF, 0x0001FFFF
     };
 
-    private final PushbackInputStream source;
+    /** not used when reading from a buffer, kept for {@link #reset(Source)} */
+    private SourceInputStream source;
+
+    /** not null when reading from a buffer, frames are parsed in place */
+    private ByteBuffer buffer;
+
+    /** position of the current frame in the buffer */
+    private int frameStart;
+
+    /** end of the bytes of the current frame in the buffer */
+    private int frameEnd;
+
+    /** bytes read from the stream, not used for a buffer */
+    private long position;
+
+    /** position of the header of the current frame */
+    private long framePosition = -1;
 
     private final Header header = new Header();
 
@@ -137,12 +152,96 @@ public final class Bitstream implements BitstreamErrors {
      * @param in The InputStream to read from.
      */
     public Bitstream(InputStream in) {
+        reset(in);
+    }
+
+    /**
+     * Construct a IBitstream that reads data from a
+     * given Source.
+     *
+     * @param source The Source to read from, it is closed by {@link #close()}
+     *               if it is {@link java.io.Closeable}.
+     * @since 1.0.4
+     */
+    public Bitstream(Source source) {
+        reset(source);
+    }
+
+    /**
+     * Construct a IBitstream that reads data from a given buffer,
+     * e.g. a {@link java.nio.MappedByteBuffer} of a whole file.
+     * <p>
+     * The frames are parsed in the buffer, they are not copied.
+     * The bytes from the position to the limit of the buffer are
+     * read, the position of the given buffer is not changed.
+     *
+     * @param buffer The buffer to read from.
+     * @since 1.0.4
+     */
+    public Bitstream(ByteBuffer buffer) {
+        reset(buffer);
+    }
+
+    /**
+     * Starts reading another stream, as if this bitstream were created for it.
+     * The buffers of this bitstream are reused. The stream read before is not closed.
+     *
+     * @param in The InputStream to read from.
+     * @since 1.0.4
+     */
+    public void reset(InputStream in) {
         if (in == null)
             throw new NullPointerException("in");
-        in = new BufferedInputStream(in);
-        loadID3v2(in);
+        reset(new InputStreamSource(in));
+    }
+
+    /**
+     * Starts reading another source, as if this bitstream were created for it.
+     * The buffers of this bitstream are reused. The source read before is not closed.
+     *
+     * @param source The Source to read from.
+     * @since 1.0.4
+     */
+    public void reset(Source source) {
+        if (source == null)
+            throw new NullPointerException("source");
+        // not BufferedInputStream nor PushbackInputStream, their reading is synchronized
+        if (this.source == null)
+            this.source = new SourceInputStream(source, BUFFER_INT_SIZE * 4);
+        else
+            this.source.setSource(source);
+        buffer = null;
+        init();
+        loadID3v2(this.source);
+        position = rawid3v2 != null ? rawid3v2.length : 0;
+    }
+
+    /**
+     * Starts reading another buffer, as if this bitstream were created for it.
+     *
+     * @param buffer The buffer to read from.
+     * @since 1.0.4
+     */
+    public void reset(ByteBuffer buffer) {
+        if (buffer == null)
+            throw new NullPointerException("buffer");
+        this.buffer = buffer.slice();
+        if (source != null)
+            source.setSource(null);
+        init();
+        loadID3v2(this.buffer);
+    }
+
+    /**
+     * Clears the state of the stream read before.
+     */
+    private void init() {
+        header.reset();
+        headerPos = 0;
+        rawid3v2 = null;
         firstframe = true;
-        source = new PushbackInputStream(in, BUFFER_INT_SIZE * 4);
+        position = 0;
+        framePosition = -1;
 
         closeFrame();
     }
@@ -156,58 +255,129 @@ public final class Bitstream implements BitstreamErrors {
         return headerPos;
     }
 
+    /**
+     * Returns the position of the header of the frame read last, in bytes from
+     * the beginning of the stream including an ID3v2 tag.
+     *
+     * @return -1 if no frame is read yet.
+     * @since 1.0.4
+     */
+    public long framePosition() {
+        return framePosition;
+    }
+
+    /**
+     * Tells whether {@link #seek(long)} is supported,
+     * it is for a bitstream reading from a buffer or a seekable {@link Source}.
+     *
+     * @since 1.0.4
+     */
+    public boolean isSeekable() {
+        return buffer != null || (source != null && source.source() != null && source.source().isSeekable());
+    }
+
+    /**
+     * Returns the size of the stream in bytes including an ID3v2 tag.
+     *
+     * @return -1 when the bitstream reads from an InputStream, or the size of the source is unknown.
+     * @since 1.0.4
+     */
+    public long length() {
+        if (buffer != null)
+            return buffer.limit();
+        if (isSeekable())
+            return source.source().length();
+        return -1;
+    }
+
+    /**
+     * Repositions the bitstream, the current frame is closed and
+     * the next {@link #readFrame()} reads the frame at the position,
+     * or the next frame found after it.
+     *
+     * @param position the position in bytes from the beginning of the stream, e.g.
+     *                 {@link #framePosition()} or {@link FrameIndex#position(int)}
+     * @throws UnsupportedOperationException when the bitstream reads from an InputStream
+     *                                       or a {@link Source} not seekable.
+     * @throws IllegalArgumentException      the position is out of the stream.
+     * @see #isSeekable()
+     * @since 1.0.4
+     */
+    public void seek(long position) {
+        if (!isSeekable())
+            throw new UnsupportedOperationException("not seekable");
+        long length = length();
+        if (position < 0 || (length >= 0 && position > length))
+            throw new IllegalArgumentException("position: " + position);
+        closeFrame();
+        if (buffer != null) {
+            buffer.position((int) position);
+        } else {
+            if (!source.seek(position))
+                throw new IllegalArgumentException("position: " + position);
+            this.position = position;
+        }
+    }
+
     /**
      * Load ID3v2 frames.
      *
      * @param in MP3 InputStream.
      * @author JavaZOOM
      */
-    private void loadID3v2(InputStream in) {
+    private void loadID3v2(SourceInputStream in) {
         int size = -1;
         try {
             // Read ID3v2 header (10 bytes).
-            in.mark(10);
-            size = readID3v2Header(in);
+            int read = in.readNBytes(frameBytes, 0, 10);
+            size = readID3v2Header(frameBytes, read);
             headerPos = size;
+            // Unread ID3v2 header (10 bytes).
+            in.unread(frameBytes, 0, read);
         } catch (IOException e) {
-        } finally {
-            try {
-                // Unread ID3v2 header (10 bytes).
-                in.reset();
-            } catch (IOException e) {
-            }
         }
         // Load ID3v2 tags.
         try {
             if (size > 0) {
-                rawid3v2 = new byte[size];
-                in.read(rawid3v2, 0, rawid3v2.length);
+                rawid3v2 = in.readNBytes(size);
             }
         } catch (IOException e) {
         }
     }
 
+    /**
+     * Load ID3v2 frames from the buffer.
+     */
+    private void loadID3v2(ByteBuffer buffer) {
+        if (buffer.remaining() < 10 ||
+                buffer.get(0) != 'I' || buffer.get(1) != 'D' || buffer.get(2) != '3')
+            return;
+        // same as readID3v2Header()
+        int size = (buffer.get(6) << 21) + (buffer.get(7) << 14) + (buffer.get(8) << 7) + buffer.get(9) + 10;
+        headerPos = size;
+        if (size > 0) {
+            rawid3v2 = new byte[Math.min(size, buffer.remaining())];
+            buffer.get(rawid3v2);
+        }
+    }
+
     /**
      * Parse ID3v2 tag header to find out size of ID3v2 frames.
      *
-     * @param in MP3 InputStream
-     * @return size of ID3v2 frames + header
-     * @throws IOException
+     * @param id3header the first bytes of the stream
+     * @param length    the number of the bytes
+     * @return size of ID3v2 frames + header, 0 if not ID3v2
      * @author JavaZOOM
      */
-    private int readID3v2Header(InputStream in) throws IOException {
-        byte[] id3header = new byte[4];
+    static int readID3v2Header(byte[] id3header, int length) {
         int size = -10;
-        in.read(id3header, 0, 3);
         // Look for ID3v2
-        if ((id3header[0] == 'I') && (id3header[1] == 'D') && (id3header[2] == '3')) {
-            in.read(id3header, 0, 3);
+        if (length == 10 && (id3header[0] == 'I') && (id3header[1] == 'D') && (id3header[2] == '3')) {
             @SuppressWarnings("unused")
-            int majorVersion = id3header[0];
+            int majorVersion = id3header[3];
             @SuppressWarnings("unused")
-            int revision = id3header[1];
-            in.read(id3header, 0, 4);
-            size = (id3header[0] << 21) + (id3header[1] << 14) + (id3header[2] << 7) + (id3header[3]);
+            int revision = id3header[4];
+            size = (id3header[6] << 21) + (id3header[7] << 14) + (id3header[8] << 7) + (id3header[9]);
         }
         return (size + 10);
     }
@@ -232,6 +402,8 @@ public final class Bitstream implements BitstreamErrors {
      * @throws BitstreamException
      */
     public void close() throws BitstreamException {
+        if (buffer != null)
+            return;
         try {
             source.close();
         } catch (IOException ex) {
@@ -306,8 +478,13 @@ public final class Bitstream implements BitstreamErrors {
     // REVIEW: add new error codes for this.
     public void unreadFrame() throws BitstreamException {
         if (wordPointer == -1 && bitindex == -1 && (frameSize > 0)) {
+            if (buffer != null) {
+                buffer.position(frameStart);
+                return;
+            }
             try {
                 source.unread(frameBytes, 0, frameSize);
+                position -= frameSize;
             } catch (IOException ex) {
                 throw newBitstreamException(STREAM_ERROR);
             }
@@ -328,12 +505,26 @@ public final class Bitstream implements BitstreamErrors {
      * frame header.
      */
     public boolean isSyncCurrentPosition(int syncmode) throws BitstreamException {
+        if (buffer != null) {
+            int position = buffer.position();
+            int read = Math.min(4, buffer.remaining());
+            buffer.get(syncBuf, 0, read);
+            buffer.position(position);
+            return switch (read) {
+                case 0 -> true;
+                case 4 -> isSyncMark(((syncBuf[0] << 24) & 0xFF000000) | ((syncBuf[1] << 16) & 0x00FF0000)
+                        | ((syncBuf[2] << 8) & 0x0000FF00) | (syncBuf[3] & 0x000000FF), syncmode, syncWord);
+                default -> false;
+            };
+        }
+
         int read = readBytes(syncBuf, 0, 4);
         int headerString = ((syncBuf[0] << 24) & 0xFF000000) | ((syncBuf[1] << 16) & 0x00FF0000)
                 | ((syncBuf[2] << 8) & 0x0000FF00) | ((syncBuf[3] << 0) & 0x000000FF);
 
         try {
             source.unread(syncBuf, 0, read);
+            position -= read;
         } catch (IOException ex) {
         }
 
@@ -394,10 +585,22 @@ public final class Bitstream implements BitstreamErrors {
             sync = isSyncMark(headerString, syncMode, syncWord);
         } while (!sync);
 
+        framePosition = (buffer != null ? buffer.position() : position) - 4;
+
         return headerString;
     }
 
     public boolean isSyncMark(int headerstring, int syncmode, int word) {
+        return isSyncMark(headerstring, syncmode, word, singleChMode);
+    }
+
+    /**
+     * Determines if the header string is a frame header.
+     *
+     * @param word         the sync word of the strict mode
+     * @param singleChMode the channel mode of the strict mode is single channel or not
+     */
+    static boolean isSyncMark(int headerstring, int syncmode, int word, boolean singleChMode) {
         boolean sync = false;
 
         if (syncmode == INITIAL_SYNC) {
@@ -426,6 +629,18 @@ public final class Bitstream implements BitstreamErrors {
      */
     int readFrameData(int bytesize) throws BitstreamException {
         int numread = 0;
+        if (buffer != null) {
+            frameStart = buffer.position();
+            numread = Math.max(0, Math.min(bytesize, buffer.remaining()));
+            buffer.position(frameStart + numread);
+            frameEnd = frameStart + numread;
+            if (firstframe) // for Header#parseVBR
+                buffer.get(frameStart, frameBytes, 0, Math.min(numread, frameBytes.length));
+            frameSize = bytesize;
+            wordPointer = -1;
+            bitindex = -1;
+            return numread;
+        }
         numread = readFully(frameBytes, 0, bytesize);
         frameSize = bytesize;
         wordPointer = -1;
@@ -437,6 +652,12 @@ public final class Bitstream implements BitstreamErrors {
      * Parses the data previously read with read_frame_data().
      */
     void parseFrame() throws BitstreamException {
+        if (buffer != null) { // bits are read from the buffer directly
+            wordPointer = 0;
+            bitindex = 0;
+            return;
+        }
+
         // Convert Bytes read to int
         int b = 0;
         byte[] byteread = frameBytes;
@@ -471,6 +692,9 @@ public final class Bitstream implements BitstreamErrors {
      * (1 <= number_of_bits <= 16)
      */
     public int getBits(int number_of_bits) {
+        if (buffer != null)
+            return getBufferBits(number_of_bits);
+
         int returnvalue = 0;
         int sum = bitindex + number_of_bits;
 
@@ -501,6 +725,35 @@ public final class Bitstream implements BitstreamErrors {
         return returnvalue;
     }
 
+    /**
+     * {@link #getBits(int)} for a buffer, the frame is read in place.
+     * Bytes behind the frame are read as 0.
+     */
+    private int getBufferBits(int number_of_bits) {
+        if (wordPointer < 0)
+            wordPointer = 0;
+
+        int bitPos = (wordPointer << 5) + bitindex;
+        int p = frameStart + (bitPos >>> 3);
+        int bits; // 24 bits, enough for 7 + 16 bits
+        if (p + 3 <= frameEnd) {
+            bits = ((buffer.get(p) & 0xff) << 16) | ((buffer.get(p + 1) & 0xff) << 8) | (buffer.get(p + 2) & 0xff);
+        } else {
+            bits = 0;
+            for (int i = 0; i < 3; i++) {
+                bits <<= 8;
+                if (p + i < frameEnd)
+                    bits |= buffer.get(p + i) & 0xff;
+            }
+        }
+        int returnvalue = (bits >>> (24 - (bitPos & 7) - number_of_bits)) & bitmask[number_of_bits];
+
+        bitPos += number_of_bits;
+        wordPointer = bitPos >>> 5;
+        bitindex = bitPos & 31;
+        return returnvalue;
+    }
+
     /**
      * Set the word we want to sync the header to.
      * In Big-Endian byte order
@@ -535,6 +788,7 @@ public final class Bitstream implements BitstreamErrors {
                     //throw newBitstreamException(UNEXPECTED_EOF, new EOFException());
                 }
                 nRead = nRead + bytesread;
+                position += bytesread;
                 offs += bytesread;
                 len -= bytesread;
             }
@@ -549,6 +803,12 @@ public final class Bitstream implements BitstreamErrors {
      * EOF is reached.
      */
     private int readBytes(byte[] b, int offs, int len) throws BitstreamException {
+        if (buffer != null) {
+            len = Math.min(len, buffer.remaining());
+            buffer.get(b, offs, len);
+            return len;
+        }
+
         int totalBytesRead = 0;
         try {
             while (len > 0) {
@@ -557,6 +817,7 @@ public final class Bitstream implements BitstreamErrors {
                     break;
                 }
                 totalBytesRead += bytesread;
+                position += bytesread;
                 offs += bytesread;
                 len -= bytesread;
             }
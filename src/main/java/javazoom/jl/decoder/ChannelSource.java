@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package javazoom.jl.decoder;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+
+/**
+ * A seekable {@link Source} of a channel, e.g. a file.
+ * <pre>
+ * Bitstream bitstream = new Bitstream(new ChannelSource(Path.of("in.mp3")));
+ * FrameIndex index = FrameIndex.build(bitstream);
+ * decoder.seek(bitstream, index, sample);
+ * </pre>
+ * Positions are relative to the position of the channel when this source is created.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026/10/18 nsano initial version <br>
+ * @since 1.0.4
+ */
+public final class ChannelSource implements Source, Closeable {
+
+    private final SeekableByteChannel channel;
+
+    /** position of the channel at the beginning */
+    private final long start;
+
+    /**
+     * Opens a file.
+     *
+     * @param path the file, it is closed by {@link #close()}
+     */
+    public ChannelSource(Path path) throws IOException {
+        this(FileChannel.open(path, StandardOpenOption.READ));
+    }
+
+    /**
+     * @param channel the channel from the current position, it is closed by {@link #close()}
+     */
+    public ChannelSource(SeekableByteChannel channel) throws IOException {
+        if (channel == null)
+            throw new NullPointerException("channel");
+        this.channel = channel;
+        this.start = channel.position();
+    }
+
+    @Override
+    public int read(byte[] b, int offs, int len) throws IOException {
+        return channel.read(ByteBuffer.wrap(b, offs, len));
+    }
+
+    @Override
+    public boolean willReadBlock() {
+        return false;
+    }
+
+    @Override
+    public boolean isSeekable() {
+        return true;
+    }
+
+    @Override
+    public long length() {
+        try {
+            return channel.size() - start;
+        } catch (IOException e) {
+            return LENGTH_UNKNOWN;
+        }
+    }
+
+    @Override
+    public long tell() {
+        try {
+            return channel.position() - start;
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * @return the position, or -1 if the channel cannot seek to it
+     */
+    @Override
+    public long seek(long pos) {
+        if (pos < 0)
+            return -1;
+        try {
+            channel.position(start + pos);
+            return pos;
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package javazoom.jl.decoder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+
+/**
+ * Decodes a stream headless, the PCM of every frame is pushed to a consumer.
+ * <p>
+ * Unlike {@link javazoom.jl.player.Player} there is no audio device and no
+ * monitor is held while reading the source or calling the consumer, so a
+ * session can run on a virtual thread, one per stream, without pinning
+ * its carrier thread.
+ * <pre>
+ * try (DecodeSession session = new DecodeSession(source)) {
+ *     session.run((pcm, length, header) -&gt; out.write(pcm, length));
+ * }
+ * </pre>
+ * A session is used by one thread, except {@link #close()} which may be
+ * called by another thread to stop it.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026/10/18 nsano initial version <br>
+ * @since 1.0.4
+ */
+public final class DecodeSession implements AutoCloseable {
+
+    /**
+     * Receives the PCM of the frames.
+     */
+    @FunctionalInterface
+    public interface PcmConsumer {
+
+        /**
+         * Accepts the PCM of a frame.
+         *
+         * @param pcm    the 16 bit samples, interleaved if stereo.
+         *               the array is reused for the next frame.
+         * @param length the number of samples in the array
+         * @param header the header of the frame, reused for the next frame
+         * @throws IOException stops the session, e.g. the client disconnected
+         */
+        void accept(short[] pcm, int length, Header header) throws IOException;
+    }
+
+    private final Bitstream stream;
+
+    private final Decoder decoder;
+
+    private volatile boolean closed;
+
+    private int frames;
+
+    private long samples;
+
+    /**
+     * Creates a session decoding a source, it is closed with the session
+     * if it is {@link java.io.Closeable}.
+     */
+    public DecodeSession(Source source) {
+        this(source, null);
+    }
+
+    /**
+     * Creates a session decoding a source, it is closed with the session
+     * if it is {@link java.io.Closeable}.
+     *
+     * @param params the parameters of the decoder, null for the default
+     */
+    public DecodeSession(Source source, Decoder.Params params) {
+        this(new Bitstream(source), params);
+    }
+
+    /**
+     * Creates a session decoding a stream, it is closed with the session.
+     *
+     * @param params the parameters of the decoder, null for the default
+     */
+    public DecodeSession(InputStream in, Decoder.Params params) {
+        this(new Bitstream(in), params);
+    }
+
+    /**
+     * Creates a session decoding a buffer, e.g. a {@link java.nio.MappedByteBuffer}
+     * shared by many sessions. The position of the buffer is not changed.
+     *
+     * @param params the parameters of the decoder, null for the default
+     */
+    public DecodeSession(ByteBuffer buffer, Decoder.Params params) {
+        this(new Bitstream(buffer), params);
+    }
+
+    private DecodeSession(Bitstream stream, Decoder.Params params) {
+        this.stream = stream;
+        this.decoder = new Decoder(params);
+    }
+
+    /**
+     * Decodes the next frame and passes it to the consumer.
+     *
+     * @return false at the end of the stream, or if the session is closed.
+     * @throws JavaLayerException the stream is broken
+     * @throws IOException        thrown by the consumer
+     */
+    public boolean next(PcmConsumer consumer) throws JavaLayerException, IOException {
+        if (closed)
+            return false;
+        try {
+            Header header = stream.readFrame();
+            if (header == null)
+                return false;
+
+            // sample buffer set when decoder constructed
+            SampleBuffer output = (SampleBuffer) decoder.decodeFrame(header, stream);
+            stream.closeFrame();
+
+            frames++;
+            samples += output.getBufferLength() / output.getChannelCount();
+            consumer.accept(output.getBuffer(), output.getBufferLength(), header);
+            return true;
+        } catch (BitstreamException ex) {
+            if (closed)
+                return false; // the source is closed while reading
+            throw ex;
+        } catch (RuntimeException ex) {
+            throw new JavaLayerException("Exception decoding audio frame", ex);
+        }
+    }
+
+    /**
+     * Decodes the frames to the end of the stream, or until the session is closed.
+     *
+     * @return the number of frames decoded by this call
+     * @throws JavaLayerException the stream is broken
+     * @throws IOException        thrown by the consumer
+     */
+    public int run(PcmConsumer consumer) throws JavaLayerException, IOException {
+        int start = frames;
+        while (next(consumer)) {
+        }
+        return frames - start;
+    }
+
+    /** Returns the number of frames decoded. */
+    public int frames() {
+        return frames;
+    }
+
+    /** Returns the number of samples decoded per channel. */
+    public long samples() {
+        return samples;
+    }
+
+    /** Returns true if the session is closed. */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Stops the session and closes the source. It may be called by another thread,
+     * a read blocking in the source is aborted if the source supports it.
+     */
+    @Override
+    public void close() {
+        if (closed)
+            return;
+        closed = true;
+        try {
+            stream.close();
+        } catch (BitstreamException ex) {
+        }
+    }
+}
@@ -23,6 +23,11 @@ package javazoom.jl.decoder;
 /**
  * The <code>Decoder</code> class encapsulates the details of
  * decoding an MPEG audio frame.
+ * <p>
+ * Instances are not thread safe, but they share no mutable state,
+ * independent <code>Decoder</code> and {@link Bitstream} pairs can be
+ * created and used on different threads concurrently. Tables are
+ * initialized with the classes, not lazily.
  *
  * @author MDM
  * @version 0.0.7 12/12/99
@@ -31,12 +36,24 @@ package javazoom.jl.decoder;
 public class Decoder implements DecoderErrors {
     static private final Params DEFAULT_PARAMS = new Params();
 
+    /** bytes of a layer III frame not in the bit reservoir at most, the header, crc and side info */
+    private static final int FRAME_OVERHEAD = 4 + 2 + 32;
+
+    /** the largest main_data_begin, bytes of the bit reservoir a layer III frame starts before */
+    private static final int MAX_MAIN_DATA_BEGIN = 511;
+
     /**
      * The Obuffer instance that will receive the decoded
      * PCM samples.
      */
     private Obuffer output;
 
+    /**
+     * Passes the samples of the frame decoders to the output,
+     * drops the ones before the sample seeked to.
+     */
+    private final Trimmer trimmer = new Trimmer();
+
     /**
      * Synthesis filter for the left channel.
      */
@@ -57,6 +74,15 @@ public class Decoder implements DecoderErrors {
     private int outputFrequency;
     private int outputChannels;
 
+    /** the output buffer created when no buffer is set by the client */
+    private SampleBuffer defaultOutput;
+
+    /** the bitstream the frame decoders read from */
+    private Bitstream stream;
+
+    /** the version, sample frequency and channels the frame decoders are made for */
+    private int format = -1;
+
     private Equalizer equalizer = new Equalizer();
 
     private Params params;
@@ -135,11 +161,124 @@ public class Decoder implements DecoderErrors {
         return output;
     }
 
+    /**
+     * Seeks to the sample, the output of the next {@link #decodeFrame(Header, Bitstream)}
+     * starts at the sample.
+     * <p>
+     * The stream is repositioned some frames before the frame containing the sample.
+     * They are decoded silently to fill the bit reservoir of layer III, the overlap
+     * of the IMDCT and the history of the synthesis filters, so the output is the same
+     * as decoding from the beginning.
+     *
+     * @param stream the seekable bitstream being decoded
+     * @param index  the frame index of the stream
+     * @param sample the sample number per channel to start at
+     * @throws IllegalArgumentException the sample is beyond the end of the stream
+     * @see Bitstream#isSeekable()
+     * @since 1.0.4
+     */
+    public void seek(Bitstream stream, FrameIndex index, long sample)
+            throws DecoderException, BitstreamException {
+        if (sample < 0 || sample >= index.totalSamples())
+            throw new IllegalArgumentException("sample: " + sample);
+
+        int frame = index.frameOf(sample);
+        stream.seek(index.position(frame));
+        Header header = stream.readFrame();
+        if (header == null)
+            throw new BitstreamException(BitstreamErrors.UNEXPECTED_EOF, null);
+        stream.closeFrame();
+
+        // the frames filling the history of the synthesis filters, 16 blocks
+        int history = Math.max(0, frame - (header.layer() == 1 ? 2 : 1));
+        int start = history;
+        if (header.layer() == 3) {
+            // the frame before it for the overlap
+            start = Math.max(0, history - 1);
+            // and the frames of the bit reservoir of them
+            for (int bytes = 0; start > 0 && bytes < MAX_MAIN_DATA_BEGIN; start--)
+                bytes += (int) (index.position(start) - index.position(start - 1)) - FRAME_OVERHEAD;
+        }
+
+        if (!initialized)
+            initialize(header);
+        if (l3decoder != null)
+            l3decoder.seek_notify();
+
+        trimmer.skip(Integer.MAX_VALUE);
+        stream.seek(index.position(start));
+        for (int i = start; i <= frame; i++) {
+            // reset here, a frame without the bit reservoir outputs no blocks
+            if (i == history) {
+                filter1.reset(index.sample(i) / 32);
+                if (filter2 != null)
+                    filter2.reset(index.sample(i) / 32);
+            }
+            if (i == frame || (header = stream.readFrame()) == null)
+                break;
+            retrieveDecoder(header, stream, header.layer()).decodeFrame();
+            stream.closeFrame();
+        }
+        stream.seek(index.position(frame));
+        trimmer.skip((int) (sample - index.sample(frame)));
+    }
+
+    /**
+     * Seeks to the time approximately, without an index.
+     * <p>
+     * The position is looked up in the Xing TOC or the VBRI table of a VBR stream,
+     * or proportional to the size of a CBR stream, and the bitstream resyncs on the
+     * next frame. The state of the decoder is reset, the frames decoded right after
+     * it may miss the bit reservoir.
+     *
+     * @param stream the seekable bitstream being decoded
+     * @param header a header read from the stream, it keeps the VBR header of the first frame
+     * @param ms     the time from the beginning
+     * @see Header#positionAt(float, int)
+     * @see #seek(Bitstream, FrameIndex, long)
+     * @since 1.0.4
+     */
+    public void seek(Bitstream stream, Header header, float ms) throws DecoderException {
+        int first = stream.header_pos();
+        stream.seek(first + header.positionAt(ms, (int) (stream.length() - first)));
+
+        if (!initialized)
+            initialize(header);
+        filter1.reset();
+        if (filter2 != null)
+            filter2.reset();
+        if (l3decoder != null)
+            l3decoder.seek_notify();
+        trimmer.skip(0);
+    }
+
+    /**
+     * Prepares this decoder for another stream, as if it were created.
+     * <p>
+     * The synthesis filters, the frame decoders and the default output buffer
+     * are reused if the next stream has the same format. The output buffer set
+     * by the client and the equalizer are kept.
+     *
+     * @see Bitstream#reset(java.io.InputStream)
+     * @since 1.0.4
+     */
+    public void reset() {
+        initialized = false;
+        trimmer.skip(0);
+    }
+
     /**
      * Changes the output buffer. This will take effect the next time
      * decodeFrame() is called.
+     *
+     * @param out null for a {@link SampleBuffer} created by this decoder
      */
     public void setOutputBuffer(Obuffer out) {
+        if (out == null && initialized) {
+            if (defaultOutput == null)
+                defaultOutput = new SampleBuffer(outputFrequency, outputChannels);
+            out = defaultOutput;
+        }
         output = out;
     }
 
@@ -191,12 +330,20 @@ public class Decoder implements DecoderErrors {
     }
 
     protected FrameDecoder retrieveDecoder(Header header, Bitstream stream, int layer) throws DecoderException {
+        // the frame decoders are bound to the bitstream
+        if (stream != this.stream) {
+            l1decoder = null;
+            l2decoder = null;
+            l3decoder = null;
+            this.stream = stream;
+        }
+
         FrameDecoder decoder = switch (layer) {
             case 3 -> {
                 if (l3decoder == null) {
                     l3decoder = new LayerIIIDecoder(stream,
                             header, filter1, filter2,
-                            output, OutputChannels.BOTH_CHANNELS);
+                            trimmer, OutputChannels.BOTH_CHANNELS);
                 }
 
                 yield l3decoder;
@@ -206,7 +353,7 @@ public class Decoder implements DecoderErrors {
                     l2decoder = new LayerIIDecoder();
                     l2decoder.create(stream,
                             header, filter1, filter2,
-                            output, OutputChannels.BOTH_CHANNELS);
+                            trimmer, OutputChannels.BOTH_CHANNELS);
                 }
                 yield l2decoder;
             }
@@ -215,7 +362,7 @@ public class Decoder implements DecoderErrors {
                     l1decoder = new LayerIDecoder();
                     l1decoder.create(stream,
                             header, filter1, filter2,
-                            output, OutputChannels.BOTH_CHANNELS);
+                            trimmer, OutputChannels.BOTH_CHANNELS);
                 }
                 yield l1decoder;
             }
@@ -243,16 +390,39 @@ public class Decoder implements DecoderErrors {
         int channels = mode == Header.SINGLE_CHANNEL ? 1 : 2;
 
 
+        // the frame decoders are made for the format of a stream
+        int format = (header.version() << 4) | (header.sampleFrequency() << 2) | channels;
+        if (format != this.format) {
+            l1decoder = null;
+            l2decoder = null;
+            l3decoder = null;
+            this.format = format;
+        }
+        if (l3decoder != null)
+            l3decoder.seek_notify();
+
         // set up output buffer if not set up by client.
         if (output == null)
-            output = new SampleBuffer(header.frequency(), channels);
+            output = defaultOutput;
+        if (output == null || (output == defaultOutput &&
+                (defaultOutput.getChannelCount() != channels || defaultOutput.getSampleFrequency() != header.frequency()))) {
+            defaultOutput = new SampleBuffer(header.frequency(), channels);
+            output = defaultOutput;
+        }
 
         float[] factors = equalizer.getBandFactors();
-        filter1 = new SynthesisFilter(0, scalefactor, factors);
+        if (filter1 == null)
+            filter1 = new SynthesisFilter(0, scalefactor, factors);
+        else
+            filter1.reset();
 
         // REVIEW: allow mono output for stereo
-        if (channels == 2)
-            filter2 = new SynthesisFilter(1, scalefactor, factors);
+        if (channels == 2) {
+            if (filter2 == null)
+                filter2 = new SynthesisFilter(1, scalefactor, factors);
+            else
+                filter2.reset();
+        }
 
         outputChannels = channels;
         outputFrequency = header.frequency();
@@ -260,6 +430,61 @@ public class Decoder implements DecoderErrors {
         initialized = true;
     }
 
+    /**
+     * Forwards the samples to the current output buffer,
+     * after dropping the given number of samples per channel.
+     */
+    private final class Trimmer extends Obuffer {
+
+        private final int[] skip = new int[MAXCHANNELS];
+
+        void skip(int samples) {
+            for (int ch = 0; ch < MAXCHANNELS; ch++)
+                skip[ch] = samples;
+        }
+
+        @Override
+        public void append(int channel, short value) {
+            if (skip[channel] > 0)
+                skip[channel]--;
+            else
+                output.append(channel, value);
+        }
+
+        @Override
+        public void appendSamples(int channel, float[] f) {
+            int n = skip[channel];
+            if (n == 0) {
+                output.appendSamples(channel, f);
+            } else if (n >= 32) {
+                skip[channel] = n - 32;
+            } else {
+                skip[channel] = 0;
+                output.appendSamples(channel, f, n);
+            }
+        }
+
+        @Override
+        public void writeBuffer(int val) {
+            output.writeBuffer(val);
+        }
+
+        @Override
+        public void close() {
+            output.close();
+        }
+
+        @Override
+        public void clearBuffer() {
+            output.clearBuffer();
+        }
+
+        @Override
+        public void setStopFlag() {
+            output.setStopFlag();
+        }
+    }
+
     /**
      * The <code>Params</code> class presents the customizable
      * aspects of the decoder.
@@ -278,7 +503,10 @@ public class Decoder implements DecoderErrors {
         @Override
         public Object clone() {
             try {
-                return super.clone();
+                Params params = (Params) super.clone();
+                params.equalizer = new Equalizer();
+                params.equalizer.setFrom(equalizer);
+                return params;
             } catch (CloneNotSupportedException ex) {
                 throw new InternalError(this + ": " + ex);
             }
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package javazoom.jl.decoder;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+
+/**
+ * Pool of {@link Bitstream} and {@link Decoder} pairs, for decoding
+ * many short streams without allocating their buffers and tables again.
+ * <pre>
+ * try (DecoderPool.Lease lease = pool.acquire(in)) {
+ *     Header header;
+ *     while ((header = lease.bitstream().readFrame()) != null) {
+ *         Obuffer output = lease.decoder().decodeFrame(header, lease.bitstream());
+ *         ...
+ *         lease.bitstream().closeFrame();
+ *     }
+ * }
+ * </pre>
+ * A pair is reset for the stream when it is acquired, and returned to the
+ * pool when the lease is closed. The pool is thread safe, a lease is used
+ * by one thread at a time.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026/10/18 nsano initial version <br>
+ * @since 1.0.4
+ */
+public final class DecoderPool {
+
+    /** read by the idle bitstreams, so they keep no stream */
+    private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+    private final Decoder.Params params;
+
+    private final BlockingQueue<Lease> idle;
+
+    /**
+     * Creates a pool of decoders with the default parameters.
+     *
+     * @param maxIdle the number of the pairs kept in the pool at most
+     */
+    public DecoderPool(int maxIdle) {
+        this(maxIdle, null);
+    }
+
+    /**
+     * Creates a pool.
+     *
+     * @param maxIdle the number of the pairs kept in the pool at most
+     * @param params  the parameters of the decoders, null for the default
+     */
+    public DecoderPool(int maxIdle, Decoder.Params params) {
+        if (maxIdle < 1)
+            throw new IllegalArgumentException("maxIdle: " + maxIdle);
+        this.params = params;
+        this.idle = new ArrayBlockingQueue<>(maxIdle);
+    }
+
+    /**
+     * Acquires a pair reading the stream, it is closed with the lease.
+     */
+    public Lease acquire(InputStream in) {
+        Lease lease = take();
+        lease.bitstream.reset(in);
+        return lease;
+    }
+
+    /**
+     * Acquires a pair reading the source, it is closed with the lease
+     * if it is {@link java.io.Closeable}.
+     */
+    public Lease acquire(Source source) {
+        Lease lease = take();
+        lease.bitstream.reset(source);
+        return lease;
+    }
+
+    /**
+     * Acquires a pair reading the buffer, the position of the buffer is not changed.
+     */
+    public Lease acquire(ByteBuffer buffer) {
+        Lease lease = take();
+        lease.bitstream.reset(buffer);
+        return lease;
+    }
+
+    /** Returns the number of the pairs in the pool. */
+    public int idle() {
+        return idle.size();
+    }
+
+    private Lease take() {
+        Lease lease = idle.poll();
+        if (lease == null)
+            lease = new Lease();
+        lease.decoder.reset();
+        lease.closed.set(false);
+        return lease;
+    }
+
+    /**
+     * A pair of a bitstream and a decoder acquired from the pool.
+     */
+    public final class Lease implements AutoCloseable {
+
+        private final Bitstream bitstream = new Bitstream(EMPTY);
+
+        private final Decoder decoder = new Decoder(params);
+
+        private final AtomicBoolean closed = new AtomicBoolean(true);
+
+        private Lease() {
+        }
+
+        /** Returns the bitstream reading the stream acquired for. */
+        public Bitstream bitstream() {
+            return bitstream;
+        }
+
+        /** Returns the decoder, it is reset for the stream. */
+        public Decoder decoder() {
+            return decoder;
+        }
+
+        /**
+         * Closes the stream and returns the pair to the pool.
+         * The output buffer and the equalizer of the decoder are restored.
+         * The pair must not be used after this.
+         */
+        @Override
+        public void close() {
+            if (!closed.compareAndSet(false, true))
+                return;
+            try {
+                bitstream.close();
+            } catch (BitstreamException ex) {
+            }
+            bitstream.reset(EMPTY);
+            decoder.setOutputBuffer(null);
+            decoder.setEqualizer(params != null ? params.getInitialEqualizerSettings() : null);
+            idle.offer(this);
+        }
+    }
+}
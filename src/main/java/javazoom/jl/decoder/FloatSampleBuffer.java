@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package javazoom.jl.decoder;
+
+/**
+ * An output buffer that stores the samples of the synthesis filter
+ * as floats in [-1.0, 1.0] without clipping them to 16 bits.
+ * <p>
+ * The synthesis filter calculates samples scaled to 16 bits, they are
+ * scaled by a power of two here, so no precision is lost.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026/10/18 nsano initial version <br>
+ * @see SampleBuffer
+ * @since 1.0.4
+ */
+public class FloatSampleBuffer extends Obuffer {
+
+    /** 16 bits scale to [-1.0, 1.0] */
+    private static final float SCALE = 1.0f / 32768.0f;
+
+    private final float[] buffer;
+    private final int[] bufferP;
+    private final int channels;
+    private final int frequency;
+
+    /**
+     * Constructor
+     */
+    public FloatSampleBuffer(int sample_frequency, int number_of_channels) {
+        buffer = new float[OBUFFERSIZE];
+        bufferP = new int[MAXCHANNELS];
+        channels = number_of_channels;
+        frequency = sample_frequency;
+
+        for (int i = 0; i < number_of_channels; ++i)
+            bufferP[i] = i;
+    }
+
+    public int getChannelCount() {
+        return this.channels;
+    }
+
+    public int getSampleFrequency() {
+        return this.frequency;
+    }
+
+    /** Interleaved samples, the values may exceed [-1.0, 1.0] as they are not clipped. */
+    public float[] getBuffer() {
+        return this.buffer;
+    }
+
+    public int getBufferLength() {
+        return bufferP[0];
+    }
+
+    /**
+     * Takes a 16 Bit PCM sample.
+     */
+    @Override
+    public void append(int channel, short value) {
+        buffer[bufferP[channel]] = value * SCALE;
+        bufferP[channel] += channels;
+    }
+
+    @Override
+    public void appendSamples(int channel, float[] f, int offset) {
+        int pos = bufferP[channel];
+
+        for (int i = offset; i < 32; ) {
+            buffer[pos] = f[i++] * SCALE;
+            pos += channels;
+        }
+
+        bufferP[channel] = pos;
+    }
+
+    @Override
+    public void writeBuffer(int val) {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public void clearBuffer() {
+        for (int i = 0; i < channels; ++i)
+            bufferP[i] = i;
+    }
+
+    @Override
+    public void setStopFlag() {
+    }
+}
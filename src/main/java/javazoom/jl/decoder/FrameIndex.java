@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package javazoom.jl.decoder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serial;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+
+/**
+ * Index of the frames of a stream, the byte position and the first sample
+ * of every frame.
+ * <p>
+ * The index is built by reading the frame headers only by {@link FrameScanner}, nothing is decoded.
+ * It is serializable, so it can be cached beside the file. A stale or broken one is
+ * not deserialized, {@link InvalidObjectException} is thrown.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026/10/18 nsano initial version <br>
+ * @since 1.0.4
+ */
+public final class FrameIndex implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /** sample frequency of the first frame in Hz */
+    private final int frequency;
+
+    /** number of frames */
+    private final int size;
+
+    /** position of the frame header in bytes from the beginning of the stream */
+    private final long[] positions;
+
+    /** first sample of the frame per channel, {@link #size} + 1 entries, the last one is the total */
+    private final long[] samples;
+
+    private FrameIndex(int frequency, int size, long[] positions, long[] samples) {
+        this.frequency = frequency;
+        this.size = size;
+        this.positions = positions;
+        this.samples = samples;
+    }
+
+    /**
+     * Checks the index read, the arrays are of the size and increasing.
+     */
+    @Serial
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        if (frequency < 0 || size < 0 || positions == null || samples == null)
+            throw new InvalidObjectException("no frequency, size or arrays");
+        if (positions.length != size || samples.length != size + 1)
+            throw new InvalidObjectException("array length mismatch");
+        if (samples[0] != 0)
+            throw new InvalidObjectException("first sample is not 0");
+        for (int i = 0; i < size; i++) {
+            if (positions[i] < (i == 0 ? 0 : positions[i - 1] + 1) || samples[i + 1] <= samples[i])
+                throw new InvalidObjectException("not increasing at frame " + i);
+        }
+    }
+
+    /**
+     * Builds the index of a whole stream.
+     *
+     * @param in the stream from the beginning, it is read to the end, not closed.
+     */
+    public static FrameIndex build(InputStream in) throws BitstreamException {
+        return build(new FrameScanner(in));
+    }
+
+    /**
+     * Builds the index of a whole buffer.
+     *
+     * @param buffer the bytes from the position to the limit, the position is not changed.
+     *               positions in the index are relative to the position.
+     */
+    public static FrameIndex build(ByteBuffer buffer) throws BitstreamException {
+        return build(new FrameScanner(buffer));
+    }
+
+    /**
+     * Builds the index of the rest of the frames of the scanner.
+     */
+    public static FrameIndex build(FrameScanner scanner) throws BitstreamException {
+        long[] positions = new long[1024];
+        long[] samples = new long[1025];
+        int size = 0;
+        int frequency = 0;
+        while (scanner.next()) {
+            Header header = scanner.header();
+            if (size == 0)
+                frequency = header.frequency();
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+                samples = Arrays.copyOf(samples, size * 2 + 1);
+            }
+            positions[size] = scanner.position();
+            samples[size + 1] = samples[size] + header.samplesPerFrame();
+            size++;
+        }
+        return new FrameIndex(frequency, size, Arrays.copyOf(positions, size), Arrays.copyOf(samples, size + 1));
+    }
+
+    /**
+     * Builds the index of the rest of the bitstream.
+     * The bitstream is read to the end.
+     */
+    public static FrameIndex build(Bitstream stream) throws BitstreamException {
+        long[] positions = new long[1024];
+        long[] samples = new long[1025];
+        int size = 0;
+        int frequency = 0;
+        Header header;
+        while ((header = stream.readFrame()) != null) {
+            if (size == 0)
+                frequency = header.frequency();
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+                samples = Arrays.copyOf(samples, size * 2 + 1);
+            }
+            positions[size] = stream.framePosition();
+            samples[size + 1] = samples[size] + header.samplesPerFrame();
+            size++;
+            stream.closeFrame();
+        }
+        return new FrameIndex(frequency, size, Arrays.copyOf(positions, size), Arrays.copyOf(samples, size + 1));
+    }
+
+    /** Returns the number of frames. */
+    public int size() {
+        return size;
+    }
+
+    /** Returns the sample frequency of the first frame in Hz. */
+    public int frequency() {
+        return frequency;
+    }
+
+    /**
+     * Returns the position of the frame.
+     *
+     * @param frame the frame number from 0
+     * @return the position of the frame header in bytes from the beginning of the stream
+     */
+    public long position(int frame) {
+        if (frame < 0 || frame >= size)
+            throw new IndexOutOfBoundsException(frame);
+        return positions[frame];
+    }
+
+    /**
+     * Returns the first sample of the frame.
+     *
+     * @param frame the frame number from 0, {@link #size()} returns the total.
+     * @return the sample number per channel
+     */
+    public long sample(int frame) {
+        if (frame < 0 || frame > size)
+            throw new IndexOutOfBoundsException(frame);
+        return samples[frame];
+    }
+
+    /** Returns the number of samples per channel of the whole stream. */
+    public long totalSamples() {
+        return samples[size];
+    }
+
+    /** Returns the duration of the whole stream in milliseconds. */
+    public long durationMillis() {
+        return frequency == 0 ? 0 : samples[size] * 1000 / frequency;
+    }
+
+    /**
+     * Returns the frame containing the sample.
+     *
+     * @param sample the sample number per channel
+     * @return the frame number, {@link #size()} if the sample is beyond the end.
+     */
+    public int frameOf(long sample) {
+        if (sample < 0)
+            throw new IllegalArgumentException("sample: " + sample);
+        int i = Arrays.binarySearch(samples, 0, size + 1, sample);
+        if (i < 0)
+            i = -i - 2; // the frame starting before the sample
+        return Math.min(i, size);
+    }
+
+    /**
+     * Returns the frame containing the time.
+     *
+     * @param millis the time from the beginning in milliseconds
+     * @return the frame number, {@link #size()} if the time is beyond the end.
+     */
+    public int frameAtMillis(long millis) {
+        return frameOf(millis * frequency / 1000);
+    }
+}
@@ -0,0 +1,319 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package javazoom.jl.decoder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+
+/**
+ * Scans the frames of a stream by reading their 4 byte headers only,
+ * the frame data is skipped, it is neither copied nor parsed.
+ * <pre>
+ * FrameScanner scanner = new FrameScanner(buffer);
+ * while (scanner.next()) {
+ *     Header header = scanner.header();
+ *     ... scanner.position(), header.bitrateInstant(), header.mode(), header.padding(), header.checksums()
+ * }
+ * long millis = scanner.durationMillis();
+ * </pre>
+ * The frames are synchronized as {@link Bitstream#readFrame()} does, so the frames found and
+ * their positions are the same as {@link Bitstream#framePosition()} and {@link FrameIndex}.
+ * <p>
+ * A buffer, e.g. a {@link java.nio.MappedByteBuffer} of a whole file, is read at the headers only.
+ * A stream is read in blocks to a small buffer holding a few frames, {@link InputStream#skip(long)}
+ * is used for an ID3v2 tag.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026/10/18 nsano initial version <br>
+ * @since 1.0.4
+ */
+public final class FrameScanner {
+
+    /** larger than any frame and the next header */
+    private static final int WINDOW_SIZE = 8192;
+
+    private final InputStream in;
+
+    private final ByteBuffer buffer;
+
+    /** bytes of the stream from {@link #windowStart}, null for a buffer */
+    private final byte[] window;
+
+    /** position of the first byte of the window in the stream */
+    private long windowStart;
+
+    /** number of bytes in the window */
+    private int windowLength;
+
+    /** the stream ends at the end of the window */
+    private boolean eof;
+
+    /** position of the frame being synchronized, the window keeps the bytes from it */
+    private long mark;
+
+    /** an ID3v2 tag is skipped */
+    private boolean started;
+
+    private final Header header = new Header();
+
+    private final byte[] headerBytes = new byte[4];
+
+    private byte syncMode = Bitstream.INITIAL_SYNC;
+
+    private int syncWord;
+
+    private boolean singleChMode;
+
+    /** position to search the next frame from */
+    private long next;
+
+    /** position of the header of the current frame */
+    private long position = -1;
+
+    private int frames;
+
+    private long samples;
+
+    private int frequency;
+
+    /**
+     * Creates a scanner of a stream.
+     *
+     * @param in the stream from the beginning, it is not closed.
+     */
+    public FrameScanner(InputStream in) {
+        if (in == null)
+            throw new NullPointerException("in");
+        this.in = in;
+        this.buffer = null;
+        this.window = new byte[WINDOW_SIZE];
+    }
+
+    /**
+     * Creates a scanner of a buffer.
+     *
+     * @param buffer the bytes from the position to the limit, the position is not changed.
+     *               positions are relative to the position.
+     */
+    public FrameScanner(ByteBuffer buffer) {
+        if (buffer == null)
+            throw new NullPointerException("buffer");
+        this.in = null;
+        this.buffer = buffer.slice();
+        this.window = null;
+    }
+
+    /**
+     * Scans the next frame.
+     *
+     * @return false at the end of the stream
+     * @throws BitstreamException the stream cannot be read
+     */
+    public boolean next() throws BitstreamException {
+        try {
+            if (!started) {
+                skipID3v2();
+                started = true;
+            }
+            long p = next;
+            while (true) {
+                // same as Bitstream#syncHeader()
+                mark = p;
+                if (fetch(p) < 4)
+                    return false;
+                int headerString = headerString();
+                if (!Bitstream.isSyncMark(headerString, syncMode, syncWord, singleChMode)) {
+                    p++;
+                    continue;
+                }
+                header.decode(headerString);
+                int framesize = header.framesize;
+                long end = p + 4 + Math.max(framesize, 0);
+                // same as Header#read_header()
+                int read = fetch(end);
+                if (framesize >= 0 && read < 0)
+                    return false; // truncated, it might be an ID3v1 TAG.
+                boolean sync = switch (read) {
+                    case 0 -> true;
+                    case 4 -> Bitstream.isSyncMark(headerString(), syncMode, syncWord, singleChMode);
+                    default -> false;
+                };
+                if (!sync) {
+                    p += 4;
+                    continue;
+                }
+                if (syncMode == Bitstream.INITIAL_SYNC) {
+                    syncMode = Bitstream.STRICT_SYNC;
+                    syncWord = headerString & 0xFFF80C00;
+                    singleChMode = (headerString & 0x000000C0) == 0x000000C0;
+                }
+                if (frames == 0) {
+                    frequency = header.frequency();
+                    header.parseVBR(frameBytes(p + 4, framesize));
+                }
+                position = p;
+                next = end;
+                frames++;
+                samples += header.samplesPerFrame();
+                return true;
+            }
+        } catch (IOException e) {
+            throw new BitstreamException(Bitstream.STREAM_ERROR, e);
+        }
+    }
+
+    /** Returns the header of the current frame, it is reused for the next frame. */
+    public Header header() {
+        return header;
+    }
+
+    /**
+     * Returns the position of the header of the current frame, in bytes from
+     * the beginning of the stream including an ID3v2 tag.
+     *
+     * @return -1 if no frame is scanned yet.
+     */
+    public long position() {
+        return position;
+    }
+
+    /** Returns the size of the current frame in bytes including the header. */
+    public int frameSize() {
+        return (int) (next - position);
+    }
+
+    /** Returns the number of frames scanned. */
+    public int frames() {
+        return frames;
+    }
+
+    /** Returns the number of samples per channel of the frames scanned. */
+    public long samples() {
+        return samples;
+    }
+
+    /** Returns the duration of the frames scanned in milliseconds, at the sample frequency of the first frame. */
+    public long durationMillis() {
+        return frequency == 0 ? 0 : samples * 1000 / frequency;
+    }
+
+    /**
+     * Scans the rest of the frames.
+     *
+     * @return the number of frames scanned by this call
+     */
+    public int scan() throws BitstreamException {
+        int start = frames;
+        while (next()) {
+        }
+        return frames - start;
+    }
+
+    /** Skips an ID3v2 tag at the beginning, same as Bitstream#loadID3v2(). */
+    private void skipID3v2() throws IOException {
+        byte[] id3header = new byte[10];
+        int read;
+        if (buffer != null) {
+            read = Math.min(id3header.length, buffer.limit());
+            buffer.get(0, id3header, 0, read);
+        } else {
+            fetch(0);
+            read = Math.min(id3header.length, windowLength);
+            System.arraycopy(window, 0, id3header, 0, read);
+        }
+        int size = Bitstream.readID3v2Header(id3header, read);
+        if (size > 0)
+            next = size;
+    }
+
+    /**
+     * Reads the 4 bytes at the position to {@link #headerBytes}.
+     *
+     * @return the number of bytes read, -1 if the stream ends before the position
+     */
+    private int fetch(long p) throws IOException {
+        if (buffer != null) {
+            if (p > buffer.limit())
+                return -1;
+            int n = (int) Math.min(4, buffer.limit() - p);
+            buffer.get((int) p, headerBytes, 0, n);
+            return n;
+        }
+
+        long windowEnd = windowStart + windowLength;
+        if (p + 4 > windowEnd && !eof) {
+            if (mark >= windowEnd) {
+                // skip the gap
+                long gap = p - windowEnd;
+                long skipped = skip(gap);
+                windowStart = windowEnd + skipped;
+                windowLength = 0;
+                if (skipped < gap) {
+                    eof = true;
+                    return -1;
+                }
+            } else {
+                // keep the bytes from the mark
+                int offset = (int) (mark - windowStart);
+                System.arraycopy(window, offset, window, 0, windowLength - offset);
+                windowStart = mark;
+                windowLength -= offset;
+            }
+            while (windowLength < window.length) {
+                int n = in.read(window, windowLength, window.length - windowLength);
+                if (n < 0) {
+                    eof = true;
+                    break;
+                }
+                windowLength += n;
+            }
+        }
+        if (p > windowStart + windowLength)
+            return -1;
+        int offset = (int) (p - windowStart);
+        int n = Math.min(4, windowLength - offset);
+        System.arraycopy(window, offset, headerBytes, 0, n);
+        return n;
+    }
+
+    /** Skips the bytes of the stream, reads them to the window if the stream cannot skip. */
+    private long skip(long n) throws IOException {
+        long skipped = 0;
+        while (skipped < n) {
+            long k = in.skip(n - skipped);
+            if (k <= 0) {
+                k = in.read(window, 0, (int) Math.min(window.length, n - skipped));
+                if (k < 0)
+                    break;
+            }
+            skipped += k;
+        }
+        return skipped;
+    }
+
+    /** Returns the bytes fetched as a big endian int. */
+    private int headerString() {
+        return ((headerBytes[0] << 24) & 0xFF000000) | ((headerBytes[1] << 16) & 0x00FF0000)
+                | ((headerBytes[2] << 8) & 0x0000FF00) | (headerBytes[3] & 0x000000FF);
+    }
+
+    /**
+     * Returns the data of the first frame for {@link Header#parseVBR(byte[])}, it is
+     * zero padded as the frame buffer of {@link Bitstream}.
+     */
+    private byte[] frameBytes(long p, int framesize) {
+        byte[] bytes = new byte[Math.max(framesize, Bitstream.BUFFER_INT_SIZE * 4)];
+        int n = Math.max(framesize, 0);
+        if (buffer != null)
+            buffer.get((int) p, bytes, 0, n);
+        else
+            System.arraycopy(window, (int) (p - windowStart), bytes, 0, n);
+        return bytes;
+    }
+}
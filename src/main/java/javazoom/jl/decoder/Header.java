@@ -70,12 +70,18 @@ public final class Header {
     private int hNumberOfSubbands, hIntensityStereoBound;
     private boolean h_copyright, h_original;
     // VBR support added by E.B
-    private static final double[] h_vbr_time_per_frame = {-1, 384, 1152, 1152};
     private boolean h_vbr;
+    /** true if a Xing header is parsed, h_vbr_toc is of it */
+    private boolean h_vbr_xing;
     private int h_vbr_frames;
     private int h_vbr_scale;
     private int h_vbr_bytes;
     private byte[] h_vbr_toc;
+    /** bytes of the frames of every entry of the VBRI table, null for a Xing header */
+    private int[] h_vbri_toc;
+    private int h_vbri_frames_per_entry;
+    /** size of the frame holding the VBR header, the VBRI table starts after it */
+    private int h_vbr_frame_size;
 
     private byte syncmode = Bitstream.INITIAL_SYNC;
     private Crc16 crc;
@@ -89,6 +95,26 @@ public final class Header {
     Header() {
     }
 
+    /**
+     * Forgets the stream read before, the next header is synchronized
+     * as the first one of a stream.
+     */
+    void reset() {
+        syncmode = Bitstream.INITIAL_SYNC;
+        h_copyright = false;
+        h_original = false;
+        h_vbr = false;
+        h_vbr_xing = false;
+        h_vbr_frames = 0;
+        h_vbr_scale = 0;
+        h_vbr_bytes = 0;
+        h_vbr_toc = null;
+        h_vbri_toc = null;
+        h_vbri_frames_per_entry = 0;
+        h_vbr_frame_size = 0;
+        _headerstring = -1;
+    }
+
     public String toString() {
         StringBuilder buffer = new StringBuilder(200);
         buffer.append("Layer ");
@@ -114,7 +140,6 @@ public final class Header {
      */
     void read_header(Bitstream stream, Crc16[] crcp) throws BitstreamException {
         int headerString;
-        int channelBitrate;
         boolean sync = false;
         do {
             headerString = stream.syncHeader(syncmode);
@@ -130,43 +155,7 @@ public final class Header {
                     throw stream.newBitstreamException(Bitstream.UNKNOWN_ERROR);
                 }
             }
-            hLayer = 4 - (headerString >>> 17) & 3;
-            h_protection_bit = (headerString >>> 16) & 1;
-            hBitrateIndex = (headerString >>> 12) & 0xF;
-            h_padding_bit = (headerString >>> 9) & 1;
-            h_mode = ((headerString >>> 6) & 3);
-            h_mode_extension = (headerString >>> 4) & 3;
-            if (h_mode == JOINT_STEREO)
-                hIntensityStereoBound = (h_mode_extension << 2) + 4;
-            else
-                hIntensityStereoBound = 0; // should never be used
-            if (((headerString >>> 3) & 1) == 1)
-                h_copyright = true;
-            if (((headerString >>> 2) & 1) == 1)
-                h_original = true;
-            // calculate number of subbands:
-            if (hLayer == 1)
-                hNumberOfSubbands = 32;
-            else {
-                channelBitrate = hBitrateIndex;
-                // calculate bitrate per channel:
-                if (h_mode != SINGLE_CHANNEL)
-                    if (channelBitrate == 4)
-                        channelBitrate = 1;
-                    else
-                        channelBitrate -= 4;
-                if ((channelBitrate == 1) || (channelBitrate == 2))
-                    if (h_sample_frequency == THIRTYTWO)
-                        hNumberOfSubbands = 12;
-                    else
-                        hNumberOfSubbands = 8;
-                else if ((h_sample_frequency == FOURTYEIGHT) || ((channelBitrate >= 3) && (channelBitrate <= 5)))
-                    hNumberOfSubbands = 27;
-                else
-                    hNumberOfSubbands = 30;
-            }
-            if (hIntensityStereoBound > hNumberOfSubbands)
-                hIntensityStereoBound = hNumberOfSubbands;
+            decodeFields(headerString);
             // calculate framesize and nSlots
             calculateFrameSize();
             // read framedata:
@@ -201,6 +190,64 @@ public final class Header {
         }
     }
 
+    /**
+     * Decodes a header string accepted by {@link Bitstream#isSyncMark(int, int, int)},
+     * and calculates the frame size. The frame is not read.
+     */
+    void decode(int headerString) {
+        _headerstring = headerString;
+        hVersion = ((headerString >>> 19) & 1);
+        if (((headerString >>> 20) & 1) == 0) // SZD: MPEG2.5 detection
+            hVersion = MPEG25_LSF;
+        h_sample_frequency = ((headerString >>> 10) & 3);
+        decodeFields(headerString);
+        calculateFrameSize();
+    }
+
+    /**
+     * Decodes the fields of a header string except the version and the sample frequency.
+     */
+    private void decodeFields(int headerString) {
+        int channelBitrate;
+        hLayer = 4 - (headerString >>> 17) & 3;
+        h_protection_bit = (headerString >>> 16) & 1;
+        hBitrateIndex = (headerString >>> 12) & 0xF;
+        h_padding_bit = (headerString >>> 9) & 1;
+        h_mode = ((headerString >>> 6) & 3);
+        h_mode_extension = (headerString >>> 4) & 3;
+        if (h_mode == JOINT_STEREO)
+            hIntensityStereoBound = (h_mode_extension << 2) + 4;
+        else
+            hIntensityStereoBound = 0; // should never be used
+        if (((headerString >>> 3) & 1) == 1)
+            h_copyright = true;
+        if (((headerString >>> 2) & 1) == 1)
+            h_original = true;
+        // calculate number of subbands:
+        if (hLayer == 1)
+            hNumberOfSubbands = 32;
+        else {
+            channelBitrate = hBitrateIndex;
+            // calculate bitrate per channel:
+            if (h_mode != SINGLE_CHANNEL)
+                if (channelBitrate == 4)
+                    channelBitrate = 1;
+                else
+                    channelBitrate -= 4;
+            if ((channelBitrate == 1) || (channelBitrate == 2))
+                if (h_sample_frequency == THIRTYTWO)
+                    hNumberOfSubbands = 12;
+                else
+                    hNumberOfSubbands = 8;
+            else if ((h_sample_frequency == FOURTYEIGHT) || ((channelBitrate >= 3) && (channelBitrate <= 5)))
+                hNumberOfSubbands = 27;
+            else
+                hNumberOfSubbands = 30;
+        }
+        if (hIntensityStereoBound > hNumberOfSubbands)
+            hIntensityStereoBound = hNumberOfSubbands;
+    }
+
     /**
      * Parse frame to extract optional VBR frame.
      *
@@ -226,10 +273,12 @@ public final class Header {
             if (xing.equals(new String(tmp))) {
                 //Yes.
                 h_vbr = true;
+                h_vbr_xing = true;
                 h_vbr_frames = -1;
                 h_vbr_bytes = -1;
                 h_vbr_scale = -1;
-                h_vbr_toc = new byte[100];
+                h_vbr_toc = null;
+                h_vbri_toc = null;
 
                 int length = 4;
                 // Read flags.
@@ -250,6 +299,7 @@ public final class Header {
                 }
                 // Read TOC (if available).
                 if ((flags[3] & (byte) (1 << 2)) != 0) {
+                    h_vbr_toc = new byte[100];
                     System.arraycopy(firstFrame, offset + length, h_vbr_toc, 0, h_vbr_toc.length);
                     length += h_vbr_toc.length;
                 }
@@ -274,6 +324,8 @@ public final class Header {
             if (vbri.equals(new String(tmp))) {
                 //Yes.
                 h_vbr = true;
+                // the toc is empty, it is not used for seeking
+                h_vbr_xing = false;
                 h_vbr_frames = -1;
                 h_vbr_bytes = -1;
                 h_vbr_scale = -1;
@@ -289,11 +341,29 @@ public final class Header {
                 length += 4;
                 //System.out.println("VBR:"+vbri+" Frames:"+ h_vbr_frames +" Size:"+h_vbr_bytes);
                 // TOC
-                // TODO
+                int entries = (firstFrame[offset + length] & 0xff) << 8 | firstFrame[offset + length + 1] & 0xff;
+                int scale = (firstFrame[offset + length + 2] & 0xff) << 8 | firstFrame[offset + length + 3] & 0xff;
+                int entrySize = (firstFrame[offset + length + 4] & 0xff) << 8 | firstFrame[offset + length + 5] & 0xff;
+                int framesPerEntry = (firstFrame[offset + length + 6] & 0xff) << 8 | firstFrame[offset + length + 7] & 0xff;
+                length += 8;
+                h_vbri_toc = null;
+                if (entrySize >= 1 && entrySize <= 4 && framesPerEntry > 0 &&
+                        offset + length + entries * entrySize <= Math.min(firstFrame.length, framesize)) {
+                    h_vbri_toc = new int[entries];
+                    h_vbri_frames_per_entry = framesPerEntry;
+                    for (int i = 0; i < entries; i++) {
+                        int entry = 0;
+                        for (int j = 0; j < entrySize; j++)
+                            entry = entry << 8 | firstFrame[offset + length++] & 0xff;
+                        h_vbri_toc[i] = entry * scale;
+                    }
+                }
             }
         } catch (ArrayIndexOutOfBoundsException e) {
             throw new BitstreamException("VBRIVBRHeader Corrupted", e);
         }
+
+        h_vbr_frame_size = framesize + 4;
     }
 
     // Functions to query header contents:
@@ -489,7 +559,7 @@ public final class Header {
      * @return number of frames
      */
     public int maxNumberOfFrames(int streamSize) { // E.B
-        if (h_vbr) return h_vbr_frames;
+        if (h_vbr && h_vbr_frames >= 0) return h_vbr_frames;
         else {
             if ((framesize + 4 - h_padding_bit) == 0) return 0;
             else return (streamSize / (framesize + 4 - h_padding_bit));
@@ -503,13 +573,26 @@ public final class Header {
      * @return number of frames
      */
     public int minNumberOfFrames(int streamSize) { // E.B
-        if (h_vbr) return h_vbr_frames;
+        if (h_vbr && h_vbr_frames >= 0) return h_vbr_frames;
         else {
             if ((framesize + 5 - h_padding_bit) == 0) return 0;
             else return (streamSize / (framesize + 5 - h_padding_bit));
         }
     }
 
+    /**
+     * Returns the number of samples per channel in a frame.
+     *
+     * @since 1.0.4
+     */
+    public int samplesPerFrame() {
+        return switch (hLayer) {
+            case 1 -> 384;
+            case 2 -> 1152;
+            default -> hVersion == MPEG1 ? 1152 : 576;
+        };
+    }
+
     /**
      * Returns ms/frame.
      *
@@ -517,9 +600,7 @@ public final class Header {
      */
     public float msPerFrame() { // E.B
         if (h_vbr) {
-            double tpf = h_vbr_time_per_frame[layer()] / frequency();
-            if ((hVersion == MPEG2_LSF) || (hVersion == MPEG25_LSF)) tpf /= 2;
-            return ((float) (tpf * 1000));
+            return samplesPerFrame() * 1000f / frequency();
         } else {
             float[][] ms_per_frame_array = {
                     {8.707483f, 8.0f, 12.0f},
@@ -540,6 +621,56 @@ public final class Header {
         return (maxNumberOfFrames(streamSize) * msPerFrame());
     }
 
+    /**
+     * Returns the position of the time without an index.
+     * <p>
+     * For a VBR stream the position is looked up in the Xing TOC or the VBRI table,
+     * otherwise, also when the VBRI table is invalid, it is proportional to the stream size. The position is approximate,
+     * typically in the middle of a frame, the bitstream resyncs on the next frame.
+     * The position is not beyond the stream size, even if the VBR header overstates
+     * the size, e.g. of a truncated stream.
+     *
+     * @param ms         the time from the beginning
+     * @param streamSize stream size from the first frame, used when the VBR header has no size
+     * @return the position in bytes from the first frame, 0 to the stream size
+     * @since 1.0.4
+     */
+    public long positionAt(float ms, int streamSize) {
+        return Math.max(0, Math.min(vbrPositionAt(ms, streamSize), streamSize));
+    }
+
+    /** Returns the position of the time, it is not clamped to the stream size. */
+    private long vbrPositionAt(float ms, int streamSize) {
+        float total = totalMs(streamSize);
+        if (ms <= 0 || total <= 0)
+            return 0;
+        if (h_vbr && h_vbri_toc != null) {
+            // bytes of the entries before, and a part of the entry
+            float entries = ms / msPerFrame() / h_vbri_frames_per_entry;
+            long position = h_vbr_frame_size;
+            for (int i = 0; i < h_vbri_toc.length; i++) {
+                if (entries < i + 1) {
+                    position += (long) ((entries - i) * h_vbri_toc[i]);
+                    break;
+                }
+                position += h_vbri_toc[i];
+            }
+            return position;
+        }
+        int size = h_vbr && h_vbr_bytes > 0 ? h_vbr_bytes : streamSize;
+        if (ms >= total)
+            return size;
+        if (h_vbr_xing && h_vbr_toc != null) {
+            // 1/256 of the size at each percent
+            float percent = ms * 100 / total;
+            int i = (int) percent;
+            float a = h_vbr_toc[i] & 0xff;
+            float b = i < 99 ? h_vbr_toc[i + 1] & 0xff : 256;
+            return (long) ((a + (b - a) * (percent - i)) * size / 256);
+        }
+        return (long) (ms * size / total);
+    }
+
     /**
      * Returns synchronized header.
      */
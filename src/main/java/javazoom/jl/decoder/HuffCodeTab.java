@@ -48,6 +48,11 @@ final class HuffCodeTab {
     private static final int MXOFF = 250;
     private static final int HTN = 34;
 
+    /** number of bits the lookup table is indexed by */
+    private static final int LOOKUP_BITS = 8;
+    /** lookup entry telling the code is not decodable by the table, walk the tree from the root */
+    private static final int LOOKUP_NONE = Integer.MIN_VALUE;
+
     /** string, containing table_description */
     private char tablename0 = ' ';
     /** string, containing table_description */
@@ -78,6 +83,12 @@ final class HuffCodeTab {
     private int[][] val = null;
     /** length of decoder tree */
     private int treelen;
+    /**
+     * decoder tree flattened for the next {@link #LOOKUP_BITS} bits.
+     * a positive entry is a leaf, code length &lt;&lt; 8 | x &lt;&lt; 4 | y,
+     * a negative one is ~(tree point) reached after {@link #LOOKUP_BITS} bits.
+     */
+    private int[] lookup;
 
     private static final int[][] ValTab0 = {
             {0, 0} // dummy
@@ -432,11 +443,8 @@ final class HuffCodeTab {
             {0, 15},
     };
 
-    /** Simulate extern struct */
-    public static HuffCodeTab[] ht = null;
-
-    @SuppressWarnings("unused")
-    private static int[] bitbuf = new int[32];
+    /** Simulate extern struct, shared by all decoders, never modified after the class initialization */
+    public static final HuffCodeTab[] ht = createTables();
 
     /**
      * Big Constructor : Computes all Huffman Tables.
@@ -455,6 +463,40 @@ final class HuffCodeTab {
         hlen = HLEN;
         val = VAL;
         treelen = TREELEN;
+        if (val != null && treelen != 0)
+            lookup = createLookup(val);
+    }
+
+    /**
+     * Walks the tree for every {@link #LOOKUP_BITS} bits pattern,
+     * same as {@link #huffman_decoder} does bit by bit.
+     */
+    private static int[] createLookup(int[][] val) {
+        int[] lookup = new int[1 << LOOKUP_BITS];
+        for (int bits = 0; bits < lookup.length; bits++) {
+            int point = 0;
+            int length = 0;
+            try {
+                while (val[point][0] != 0 && length < LOOKUP_BITS) {
+                    if (((bits >>> (LOOKUP_BITS - 1 - length)) & 1) != 0) {
+                        while (val[point][1] >= MXOFF) point += val[point][1];
+                        point += val[point][1];
+                    } else {
+                        while (val[point][0] >= MXOFF) point += val[point][0];
+                        point += val[point][0];
+                    }
+                    length++;
+                }
+                if (val[point][0] == 0)
+                    lookup[bits] = (length << 8) | (val[point][1] & 0xff);
+                else
+                    lookup[bits] = ~point;
+            } catch (ArrayIndexOutOfBoundsException e) {
+                // not a code of the table, leave it to the tree walk
+                lookup[bits] = LOOKUP_NONE;
+            }
+        }
+        return lookup;
     }
 
     /**
@@ -485,24 +527,39 @@ final class HuffCodeTab {
 
         // Lookup in Huffman table.
 
-        do {
-            if (h.val[point][0] == 0) { // end of tree
-                x[0] = h.val[point][1] >>> 4;
-                y[0] = h.val[point][1] & 0xf;
-                error = 0;
-                break;
+        int entry = h.lookup[br.hpeekbits(LOOKUP_BITS)];
+        if (entry >= 0) { // short code, decoded at once
+            br.hskipbits(entry >>> 8);
+            x[0] = (entry >>> 4) & 0xf;
+            y[0] = entry & 0xf;
+            error = 0;
+        } else {
+            // long code, walk the rest of the tree
+            if (entry != LOOKUP_NONE) {
+                br.hskipbits(LOOKUP_BITS);
+                point = ~entry;
+                level >>>= LOOKUP_BITS;
             }
 
-            if (br.hget1bit() != 0) {
-                while (h.val[point][1] >= MXOFF) point += h.val[point][1];
-                point += h.val[point][1];
-            } else {
-                while (h.val[point][0] >= MXOFF) point += h.val[point][0];
-                point += h.val[point][0];
-            }
-            level >>>= 1;
-            // MDM: ht[0] is always 0;
-        } while ((level != 0) || (point < 0));
+            do {
+                if (h.val[point][0] == 0) { // end of tree
+                    x[0] = h.val[point][1] >>> 4;
+                    y[0] = h.val[point][1] & 0xf;
+                    error = 0;
+                    break;
+                }
+
+                if (br.hget1bit() != 0) {
+                    while (h.val[point][1] >= MXOFF) point += h.val[point][1];
+                    point += h.val[point][1];
+                } else {
+                    while (h.val[point][0] >= MXOFF) point += h.val[point][0];
+                    point += h.val[point][0];
+                }
+                level >>>= 1;
+                // MDM: ht[0] is always 0;
+            } while ((level != 0) || (point < 0));
+        }
 
         // Process sign encodings for quadruples tables.
         if (h.tablename0 == '3' && (h.tablename1 == '2' || h.tablename1 == '3')) {
@@ -541,11 +598,8 @@ final class HuffCodeTab {
         return error;
     }
 
-    public static void initHuff() {
-        if (ht != null)
-            return;
-
-        ht = new HuffCodeTab[HTN];
+    private static HuffCodeTab[] createTables() {
+        HuffCodeTab[] ht = new HuffCodeTab[HTN];
         ht[0] = new HuffCodeTab("0  ", 0, 0, 0, 0, -1, null, null, ValTab0, 0);
         ht[1] = new HuffCodeTab("1  ", 2, 2, 0, 0, -1, null, null, ValTab1, 7);
         ht[2] = new HuffCodeTab("2  ", 3, 3, 0, 0, -1, null, null, ValTab2, 17);
@@ -580,5 +634,6 @@ final class HuffCodeTab {
         ht[31] = new HuffCodeTab("31 ", 16, 16, 13, 8191, 24, null, null, ValTab24, 512);
         ht[32] = new HuffCodeTab("32 ", 1, 16, 0, 0, -1, null, null, ValTab32, 31);
         ht[33] = new HuffCodeTab("33 ", 1, 16, 0, 0, -1, null, null, ValTab33, 31);
+        return ht;
     }
 }
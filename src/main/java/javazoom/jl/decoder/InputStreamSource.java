@@ -20,6 +20,7 @@
 
 package javazoom.jl.decoder;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
 
@@ -33,7 +34,7 @@ import java.io.InputStream;
  *
  * @author MDM
  */
-public class InputStreamSource implements Source {
+public class InputStreamSource implements Source, Closeable {
 
     private final InputStream in;
 
@@ -74,4 +75,14 @@ public class InputStreamSource implements Source {
     public long length() {
         return -1;
     }
+
+    /**
+     * Closes the stream.
+     *
+     * @since 1.0.4
+     */
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
 }
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package javazoom.jl.decoder;
+
+/**
+ * An output buffer that stores the samples of the synthesis filter
+ * as ints of 24 or 32 bits, the bits below 16 bits are kept instead
+ * of being truncated to a short.
+ * <p>
+ * The samples are right aligned, a 24 bits sample is in
+ * [-8388608, 8388607].
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026/10/18 nsano initial version <br>
+ * @see SampleBuffer
+ * @since 1.0.4
+ */
+public class IntSampleBuffer extends Obuffer {
+
+    private final int[] buffer;
+    private final int[] bufferP;
+    private final int channels;
+    private final int frequency;
+    private final int bits;
+    /** 16 bits scale to the sample size */
+    private final float scale;
+    private final float max;
+    private final float min;
+
+    /**
+     * Constructor
+     *
+     * @param bits sample size in bits, 24 or 32 typically, 17 at least
+     */
+    public IntSampleBuffer(int sample_frequency, int number_of_channels, int bits) {
+        if (bits < 17 || bits > 32)
+            throw new IllegalArgumentException("bits: " + bits);
+
+        buffer = new int[OBUFFERSIZE];
+        bufferP = new int[MAXCHANNELS];
+        channels = number_of_channels;
+        frequency = sample_frequency;
+        this.bits = bits;
+        scale = 1 << (bits - 16);
+        max = (float) ((1L << (bits - 1)) - 1);
+        min = (float) -(1L << (bits - 1));
+
+        for (int i = 0; i < number_of_channels; ++i)
+            bufferP[i] = i;
+    }
+
+    public int getChannelCount() {
+        return this.channels;
+    }
+
+    public int getSampleFrequency() {
+        return this.frequency;
+    }
+
+    public int getSampleSizeInBits() {
+        return this.bits;
+    }
+
+    public int[] getBuffer() {
+        return this.buffer;
+    }
+
+    public int getBufferLength() {
+        return bufferP[0];
+    }
+
+    /**
+     * Takes a 16 Bit PCM sample.
+     */
+    @Override
+    public void append(int channel, short value) {
+        buffer[bufferP[channel]] = (int) (value * scale);
+        bufferP[channel] += channels;
+    }
+
+    @Override
+    public void appendSamples(int channel, float[] f, int offset) {
+        int pos = bufferP[channel];
+
+        float fs;
+        for (int i = offset; i < 32; ) {
+            fs = f[i++] * scale;
+            fs = (fs > max ? max
+                    : (Math.max(fs, min)));
+
+            buffer[pos] = Math.round(fs);
+            pos += channels;
+        }
+
+        bufferP[channel] = pos;
+    }
+
+    @Override
+    public void writeBuffer(int val) {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public void clearBuffer() {
+        for (int i = 0; i < channels; ++i)
+            bufferP[i] = i;
+    }
+
+    @Override
+    public void setStopFlag() {
+    }
+}
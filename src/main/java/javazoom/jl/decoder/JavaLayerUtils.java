@@ -38,7 +38,7 @@ import java.lang.reflect.Array;
  */
 public class JavaLayerUtils {
 
-    static private JavaLayerHook hook = null;
+    static private volatile JavaLayerHook hook = null;
 
     /**
      * Deserializes the object contained in the given input stream.
@@ -150,11 +150,11 @@ public class JavaLayerUtils {
     /**
      * Sets the system-wide JavaLayer hook.
      */
-    static synchronized public void setHook(JavaLayerHook hook0) {
+    static public void setHook(JavaLayerHook hook0) {
         hook = hook0;
     }
 
-    static synchronized public JavaLayerHook getHook() {
+    static public JavaLayerHook getHook() {
         return hook;
     }
 
@@ -168,9 +168,10 @@ public class JavaLayerUtils {
      * provided, its getResourceAsStream() method is called
      * to retrieve the resource.
      */
-    static synchronized public InputStream getResourceAsStream(String name) {
+    static public InputStream getResourceAsStream(String name) {
         InputStream is = null;
 
+        JavaLayerHook hook = JavaLayerUtils.hook;
         if (hook != null) {
             is = hook.getResourceAsStream(name);
         } else {
@@ -39,9 +39,15 @@ class LayerIDecoder implements FrameDecoder {
     protected int mode;
 
     protected int num_subbands;
-    protected Subband[] subbands;
+    protected final Subband[] subbands = new Subband[32];
     protected Crc16 crc; // new Crc16[1] to enable CRC checking.
 
+    /** kinds of the subbands, for {@link #newSubband(int, int)} */
+    protected static final int SINGLE = 0, STEREO = 1, INTENSITY_STEREO = 2;
+
+    /** the subbands of every kind, created at the first use and reused for every frame */
+    private final Subband[][] subbandCache = new Subband[3][];
+
     public LayerIDecoder() {
         crc = new Crc16();
     }
@@ -61,7 +67,6 @@ class LayerIDecoder implements FrameDecoder {
     public void decodeFrame() throws DecoderException {
 
         num_subbands = header.numberOfSubbands();
-        subbands = new Subband[32];
         mode = header.mode();
 
         createSubbands();
@@ -80,18 +85,46 @@ class LayerIDecoder implements FrameDecoder {
         int i;
         if (mode == Header.SINGLE_CHANNEL)
             for (i = 0; i < num_subbands; ++i)
-                subbands[i] = new SubbandLayer1(i);
+                subbands[i] = subband(SINGLE, i);
         else if (mode == Header.JOINT_STEREO) {
             for (i = 0; i < header.intensityStereoBound(); ++i)
-                subbands[i] = new SubbandLayer1Stereo(i);
+                subbands[i] = subband(STEREO, i);
             for (; i < num_subbands; ++i)
-                subbands[i] = new SubbandLayer1IntensityStereo(i);
+                subbands[i] = subband(INTENSITY_STEREO, i);
         } else {
             for (i = 0; i < num_subbands; ++i)
-                subbands[i] = new SubbandLayer1Stereo(i);
+                subbands[i] = subband(STEREO, i);
         }
     }
 
+    /**
+     * Returns the subband of the kind reset for a frame, it is created at the first time.
+     */
+    private Subband subband(int kind, int subbandNumber) {
+        Subband[] cache = subbandCache[kind];
+        if (cache == null)
+            cache = subbandCache[kind] = new Subband[32];
+        Subband subband = cache[subbandNumber];
+        if (subband == null)
+            subband = cache[subbandNumber] = newSubband(kind, subbandNumber);
+        else
+            subband.reset();
+        return subband;
+    }
+
+    /**
+     * Creates a subband of the kind.
+     *
+     * @param kind {@link #SINGLE}, {@link #STEREO} or {@link #INTENSITY_STEREO}
+     */
+    protected Subband newSubband(int kind, int subbandNumber) {
+        return switch (kind) {
+            case SINGLE -> new SubbandLayer1(subbandNumber);
+            case STEREO -> new SubbandLayer1Stereo(subbandNumber);
+            default -> new SubbandLayer1IntensityStereo(subbandNumber);
+        };
+    }
+
     protected void readAllocation() throws DecoderException {
         // start to read audio data:
         for (int i = 0; i < num_subbands; ++i)
@@ -164,6 +197,11 @@ class LayerIDecoder implements FrameDecoder {
         public abstract boolean readSampleData(Bitstream stream);
 
         public abstract boolean put_next_sample(int channels, SynthesisFilter filter1, SynthesisFilter filter2);
+
+        /**
+         * Prepares the subband for the next frame, as if it were created.
+         */
+        public abstract void reset();
     }
 
     /**
@@ -208,6 +246,11 @@ class LayerIDecoder implements FrameDecoder {
             sampleNumber = 0;
         }
 
+        @Override
+        public void reset() {
+            sampleNumber = 0;
+        }
+
         /**
          *
          */
@@ -352,6 +395,10 @@ class LayerIDecoder implements FrameDecoder {
         public void readAllocation(Bitstream stream, Header header, Crc16 crc) throws DecoderException {
             allocation = stream.getBits(4);
             channel2Allocation = stream.getBits(4);
+            if (allocation == 15 || channel2Allocation == 15) {
+                // MPEG-stream is corrupted!
+                throw new DecoderException(DecoderErrors.ILLEGAL_SUBBAND_ALLOCATION, null);
+            }
             if (crc != null) {
                 crc.addBits(allocation, 4);
                 crc.addBits(channel2Allocation, 4);
@@ -35,20 +35,12 @@ package javazoom.jl.decoder;
 class LayerIIDecoder extends LayerIDecoder implements FrameDecoder {
 
     @Override
-    protected void createSubbands() {
-        int i;
-        if (mode == Header.SINGLE_CHANNEL)
-            for (i = 0; i < num_subbands; ++i)
-                subbands[i] = new SubbandLayer2(i);
-        else if (mode == Header.JOINT_STEREO) {
-            for (i = 0; i < header.intensityStereoBound(); ++i)
-                subbands[i] = new SubbandLayer2Stereo(i);
-            for (; i < num_subbands; ++i)
-                subbands[i] = new SubbandLayer2IntensityStereo(i);
-        } else {
-            for (i = 0; i < num_subbands; ++i)
-                subbands[i] = new SubbandLayer2Stereo(i);
-        }
+    protected Subband newSubband(int kind, int subbandNumber) {
+        return switch (kind) {
+            case SINGLE -> new SubbandLayer2(subbandNumber);
+            case STEREO -> new SubbandLayer2Stereo(subbandNumber);
+            default -> new SubbandLayer2IntensityStereo(subbandNumber);
+        };
     }
 
     @Override
@@ -505,6 +497,11 @@ class LayerIIDecoder extends LayerIDecoder implements FrameDecoder {
             groupNumber = sampleNumber = 0;
         }
 
+        @Override
+        public void reset() {
+            groupNumber = sampleNumber = 0;
+        }
+
         /**
          *
          */
@@ -34,6 +34,9 @@
 
 package javazoom.jl.decoder;
 
+import java.util.Arrays;
+
+
 /**
  * Class Implementing Layer 3 Decoder.
  *
@@ -41,14 +44,12 @@ package javazoom.jl.decoder;
  */
 final class LayerIIIDecoder implements FrameDecoder {
 
-    static final double d43 = (4.0 / 3.0);
-
-    public int[] scaleFacBuffer;
+    private final int[] scaleFacBuffer;
 
     private int checkSumHuff = 0;
     private final int[] is1d;
-    private final float[][][] ro;
-    private final float[][][] lr;
+    private final float[][] ro;
+    private final float[][] lr;
     private final float[] out1d;
     private final float[][] prevBlock;
     private final float[][] k;
@@ -81,10 +82,9 @@ final class LayerIIIDecoder implements FrameDecoder {
     public LayerIIIDecoder(Bitstream stream, Header header,
                            SynthesisFilter filterA, SynthesisFilter filterB,
                            Obuffer buffer, int whichCh) {
-        HuffCodeTab.initHuff();
         is1d = new int[SBLIMIT * SSLIMIT + 4];
-        ro = new float[2][SBLIMIT][SSLIMIT];
-        lr = new float[2][SBLIMIT][SSLIMIT];
+        ro = new float[2][SBLIMIT * SSLIMIT];
+        lr = new float[2][SBLIMIT * SSLIMIT];
         out1d = new float[SBLIMIT * SSLIMIT];
         prevBlock = new float[2][SBLIMIT * SSLIMIT];
         k = new float[2][SBLIMIT * SSLIMIT];
@@ -96,59 +96,13 @@ final class LayerIIIDecoder implements FrameDecoder {
         III_scalefac_t[1] = new Temporaire2();
         scalefac = III_scalefac_t;
 
-        // L3TABLE INIT
-
-        sfBandIndex = new SBI[9]; // SZD: MPEG2.5 +3 indices
-        int[] l0 = {0, 6, 12, 18, 24, 30, 36, 44, 54, 66, 80, 96, 116, 140, 168, 200, 238, 284, 336, 396, 464, 522, 576};
-        int[] s0 = {0, 4, 8, 12, 18, 24, 32, 42, 56, 74, 100, 132, 174, 192};
-        int[] l1 = {0, 6, 12, 18, 24, 30, 36, 44, 54, 66, 80, 96, 114, 136, 162, 194, 232, 278, 330, 394, 464, 540, 576};
-        int[] s1 = {0, 4, 8, 12, 18, 26, 36, 48, 62, 80, 104, 136, 180, 192};
-        int[] l2 = {0, 6, 12, 18, 24, 30, 36, 44, 54, 66, 80, 96, 116, 140, 168, 200, 238, 284, 336, 396, 464, 522, 576};
-        int[] s2 = {0, 4, 8, 12, 18, 26, 36, 48, 62, 80, 104, 134, 174, 192};
-
-        int[] l3 = {0, 4, 8, 12, 16, 20, 24, 30, 36, 44, 52, 62, 74, 90, 110, 134, 162, 196, 238, 288, 342, 418, 576};
-        int[] s3 = {0, 4, 8, 12, 16, 22, 30, 40, 52, 66, 84, 106, 136, 192};
-        int[] l4 = {0, 4, 8, 12, 16, 20, 24, 30, 36, 42, 50, 60, 72, 88, 106, 128, 156, 190, 230, 276, 330, 384, 576};
-        int[] s4 = {0, 4, 8, 12, 16, 22, 28, 38, 50, 64, 80, 100, 126, 192};
-        int[] l5 = {0, 4, 8, 12, 16, 20, 24, 30, 36, 44, 54, 66, 82, 102, 126, 156, 194, 240, 296, 364, 448, 550, 576};
-        int[] s5 = {0, 4, 8, 12, 16, 22, 30, 42, 58, 78, 104, 138, 180, 192};
-        // SZD: MPEG2.5
-        int[] l6 = {0, 6, 12, 18, 24, 30, 36, 44, 54, 66, 80, 96, 116, 140, 168, 200, 238, 284, 336, 396, 464, 522, 576};
-        int[] s6 = {0, 4, 8, 12, 18, 26, 36, 48, 62, 80, 104, 134, 174, 192};
-        int[] l7 = {0, 6, 12, 18, 24, 30, 36, 44, 54, 66, 80, 96, 116, 140, 168, 200, 238, 284, 336, 396, 464, 522, 576};
-        int[] s7 = {0, 4, 8, 12, 18, 26, 36, 48, 62, 80, 104, 134, 174, 192};
-        int[] l8 = {0, 12, 24, 36, 48, 60, 72, 88, 108, 132, 160, 192, 232, 280, 336, 400, 476, 566, 568, 570, 572, 574, 576};
-        int[] s8 = {0, 8, 16, 24, 36, 52, 72, 96, 124, 160, 162, 164, 166, 192};
-
-        sfBandIndex[0] = new SBI(l0, s0);
-        sfBandIndex[1] = new SBI(l1, s1);
-        sfBandIndex[2] = new SBI(l2, s2);
-
-        sfBandIndex[3] = new SBI(l3, s3);
-        sfBandIndex[4] = new SBI(l4, s4);
-        sfBandIndex[5] = new SBI(l5, s5);
-        // SZD: MPEG2.5
-        sfBandIndex[6] = new SBI(l6, s6);
-        sfBandIndex[7] = new SBI(l7, s7);
-        sfBandIndex[8] = new SBI(l8, s8);
-
-        // END OF L3TABLE INIT
-
-        if (reorderTable == null) { // SZD: generate LUT
-            reorderTable = new int[9][];
-            for (int i = 0; i < 9; i++)
-                reorderTable[i] = reorder(sfBandIndex[i].s);
-        }
-
         // SfTable
         int[] ll0 = {0, 6, 11, 16, 21};
         int[] ss0 = {0, 6, 12};
         sfTable = new SfTable(ll0, ss0);
         // END OF SfTable
 
-        // scaleFacBuffer
         scaleFacBuffer = new int[54];
-        // END OF scaleFacBuffer
 
         this.stream = stream;
         this.header = header;
@@ -198,13 +152,20 @@ final class LayerIIIDecoder implements FrameDecoder {
 
     /**
      * Notify decoder that a seek is being made.
+     * The state of the frames decoded before is cleared, as if it were created.
      */
     public void seek_notify() {
         frameStart = 0;
         for (int ch = 0; ch < 2; ch++)
             for (int j = 0; j < 576; j++)
                 prevBlock[ch][j] = 0.0f;
-        br = new BitReserve();
+        for (Temporaire2 sf : scalefac) {
+            clearScaleFactors(sf.l, 0);
+            for (int[] s : sf.s)
+                clearScaleFactors(s, 0);
+        }
+        nonzero[0] = nonzero[1] = 576;
+        br.reset();
     }
 
     @Override
@@ -461,6 +422,7 @@ final class LayerIIIDecoder implements FrameDecoder {
                                 sLen[1][grInfo.scalefacCompress]);
                 for (sfb = 12, window = 0; window < 3; window++)
                     scalefac[ch].s[window][sfb] = 0;
+                clearScaleFactors(scalefac[ch].l, 8);
 
             } else { // SHORT
 
@@ -503,6 +465,7 @@ final class LayerIIIDecoder implements FrameDecoder {
                 scalefac[ch].s[0][12] = 0;
                 scalefac[ch].s[1][12] = 0;
                 scalefac[ch].s[2][12] = 0;
+                clearScaleFactors(scalefac[ch].l, 0);
             } // SHORT
 
         } else { // LONG types 0,1,3
@@ -539,9 +502,21 @@ final class LayerIIIDecoder implements FrameDecoder {
 
             scalefac[ch].l[21] = 0;
             scalefac[ch].l[22] = 0;
+            for (window = 0; window < 3; window++)
+                clearScaleFactors(scalefac[ch].s[window], 0);
         }
     }
 
+    /**
+     * Clears the scale factors not transmitted for the block type of the granule.
+     * The intensity stereo of the other channel may read them, they must not be
+     * left from a granule before, the output would depend on where decoding started.
+     */
+    private static void clearScaleFactors(int[] scalefac, int from) {
+        for (int i = from; i < scalefac.length; i++)
+            scalefac[i] = 0;
+    }
+
     // MDM: newSlen is fully initialized before use, no need
     // to reallocate array.
     private final int[] newSlen = new int[4];
@@ -669,6 +644,7 @@ final class LayerIIIDecoder implements FrameDecoder {
                 }
                 for (window = 0; window < 3; window++)
                     scalefac[ch].s[window][12] = 0;
+                clearScaleFactors(scalefac[ch].l, 8);
 
             } else { // SHORT
 
@@ -681,6 +657,7 @@ final class LayerIIIDecoder implements FrameDecoder {
 
                 for (window = 0; window < 3; window++)
                     scalefac[ch].s[window][12] = 0;
+                clearScaleFactors(scalefac[ch].l, 0);
             }
         } else { // LONG types 0,1,3
 
@@ -690,6 +667,8 @@ final class LayerIIIDecoder implements FrameDecoder {
             }
             scalefac[ch].l[21] = 0; // Jeff
             scalefac[ch].l[22] = 0;
+            for (window = 0; window < 3; window++)
+                clearScaleFactors(scalefac[ch].s[window], 0);
         }
     }
 
@@ -810,15 +789,15 @@ final class LayerIIIDecoder implements FrameDecoder {
     /**
      *
      */
-    private void dequantize_sample(float[][] xr, int ch, int gr) {
+    private void dequantize_sample(float[] xr, int ch, int gr) {
         GrInfoS gr_info = (si.ch[ch].gr[gr]);
         int cb = 0;
         int next_cb_boundary;
         int cb_begin = 0;
         int cb_width = 0;
         int index = 0, t_index, j;
-        float g_gain;
-        float[][] xr_1d = xr;
+        float g_gain, factor;
+        float[] xr_1d = xr;
 
         // choose correct scalefactor band per block type, initalize boundary
 
@@ -836,35 +815,10 @@ final class LayerIIIDecoder implements FrameDecoder {
 
         // Compute overall (global) scaling.
 
-        g_gain = (float) Math.pow(2.0, (0.25 * (gr_info.globalGain - 210.0)));
-
-        for (j = 0; j < nonzero[ch]; j++) {
-            // Modif E.B 02/22/99
-            int reste = j % SSLIMIT;
-            int quotien = (j - reste) / SSLIMIT;
-            if (is1d[j] == 0) xr_1d[quotien][reste] = 0.0f;
-            else {
-                int abv = is1d[j];
-                // Pow Array fix (11/17/04)
-                if (abv < t_43.length) {
-                    if (is1d[j] > 0) xr_1d[quotien][reste] = g_gain * t_43[abv];
-                    else {
-                        if (-abv < t_43.length) xr_1d[quotien][reste] = -g_gain * t_43[-abv];
-                        else xr_1d[quotien][reste] = -g_gain * (float) Math.pow(-abv, d43);
-                    }
-                } else {
-                    if (is1d[j] > 0) xr_1d[quotien][reste] = g_gain * (float) Math.pow(abv, d43);
-                    else xr_1d[quotien][reste] = -g_gain * (float) Math.pow(-abv, d43);
-                }
-            }
-        }
+        g_gain = globalGains[gr_info.globalGain];
 
         // apply formula per block type
         for (j = 0; j < nonzero[ch]; j++) {
-            // Modif E.B 02/22/99
-            int reste = j % SSLIMIT;
-            int quotien = (j - reste) / SSLIMIT;
-
             if (index == next_cb_boundary) { /* Adjust critical band boundary */
                 if ((gr_info.windowSwitchingFlag != 0) && (gr_info.blockType == 2)) {
                     if (gr_info.mixedBlockFlag != 0) {
@@ -925,7 +879,7 @@ final class LayerIIIDecoder implements FrameDecoder {
                         << gr_info.scalefacScale;
                 idx += (gr_info.subblockGain[t_index] << 2);
 
-                xr_1d[quotien][reste] *= two_to_negative_half_pow[idx];
+                factor = two_to_negative_half_pow[idx];
 
             } else {   // LONG block types 0,1,3 & 1st 2 subbands of switched blocks
                 int idx = scalefac[ch].l[cb];
@@ -934,93 +888,74 @@ final class LayerIIIDecoder implements FrameDecoder {
                     idx += preTab[cb];
 
                 idx = idx << gr_info.scalefacScale;
-                xr_1d[quotien][reste] *= two_to_negative_half_pow[idx];
+                factor = two_to_negative_half_pow[idx];
             }
+
+            // the table covers all the values of the huffman codes
+            int abv = is1d[j];
+            if (abv == 0) xr_1d[j] = 0.0f;
+            else if (abv > 0) xr_1d[j] = (g_gain * t_43[abv]) * factor;
+            else xr_1d[j] = (-g_gain * t_43[-abv]) * factor;
             index++;
         }
 
-        for (j = nonzero[ch]; j < 576; j++) {
-            // Modif E.B 02/22/99
-            int reste = j % SSLIMIT;
-            int quotien = (j - reste) / SSLIMIT;
-            if (reste < 0) reste = 0;
-            if (quotien < 0) quotien = 0;
-            xr_1d[quotien][reste] = 0.0f;
-        }
+        Arrays.fill(xr_1d, nonzero[ch], 576, 0.0f);
     }
 
     /**
      *
      */
-    private void reorder(float[][] xr, int ch, int gr) {
+    private void reorder(float[] xr, int ch, int gr) {
         GrInfoS gr_info = (si.ch[ch].gr[gr]);
         int freq, freq3;
         int index;
         int sfb, sfb_start, sfb_lines;
         int src_line, des_line;
-        float[][] xr_1d = xr;
+        float[] xr_1d = xr;
+        int lines = nonzeroBound(ch, gr);
 
         if ((gr_info.windowSwitchingFlag != 0) && (gr_info.blockType == 2)) {
 
-            for (index = 0; index < 576; index++)
-                out1d[index] = 0.0f;
-
             if (gr_info.mixedBlockFlag != 0) {
+                Arrays.fill(out1d, 0.0f);
+
                 // NO REORDER FOR LOW 2 SUBBANDS
-                for (index = 0; index < 36; index++) {
-                    // Modif E.B 02/22/99
-                    int reste = index % SSLIMIT;
-                    int quotien = (index - reste) / SSLIMIT;
-                    out1d[index] = xr_1d[quotien][reste];
-                }
+                System.arraycopy(xr_1d, 0, out1d, 0, 36);
                 for (sfb = 3; sfb < 13; sfb++) {
                     sfb_start = sfBandIndex[sfreq].s[sfb];
                     sfb_lines = sfBandIndex[sfreq].s[sfb + 1] - sfb_start;
 
                     int sfb_start3 = (sfb_start << 2) - sfb_start;
+                    if (sfb_start3 >= lines)
+                        break;
 
                     for (freq = 0, freq3 = 0; freq < sfb_lines;
                          freq++, freq3 += 3) {
 
                         src_line = sfb_start3 + freq;
                         des_line = sfb_start3 + freq3;
-                        // Modif E.B 02/22/99
-                        int reste = src_line % SSLIMIT;
-                        int quotien = (src_line - reste) / SSLIMIT;
 
-                        out1d[des_line] = xr_1d[quotien][reste];
+                        out1d[des_line] = xr_1d[src_line];
                         src_line += sfb_lines;
                         des_line++;
 
-                        reste = src_line % SSLIMIT;
-                        quotien = (src_line - reste) / SSLIMIT;
-
-                        out1d[des_line] = xr_1d[quotien][reste];
+                        out1d[des_line] = xr_1d[src_line];
                         src_line += sfb_lines;
                         des_line++;
 
-                        reste = src_line % SSLIMIT;
-                        quotien = (src_line - reste) / SSLIMIT;
-
-                        out1d[des_line] = xr_1d[quotien][reste];
+                        out1d[des_line] = xr_1d[src_line];
                     }
                 }
 
             } else { // pure short
-                for (index = 0; index < 576; index++) {
-                    int j = reorderTable[sfreq][index];
-                    int reste = j % SSLIMIT;
-                    int quotien = (j - reste) / SSLIMIT;
-                    out1d[index] = xr_1d[quotien][reste];
-                }
+                int[] reorder = reorderTable[sfreq];
+                for (index = 0; index < lines; index++)
+                    out1d[index] = xr_1d[reorder[index]];
+                Arrays.fill(out1d, lines, 576, 0.0f);
             }
         } else { // long blocks
-            for (index = 0; index < 576; index++) {
-                // Modif E.B 02/22/99
-                int reste = index % SSLIMIT;
-                int quotien = (index - reste) / SSLIMIT;
-                out1d[index] = xr_1d[quotien][reste];
-            }
+            System.arraycopy(xr_1d, 0, out1d, 0, lines);
+            Arrays.fill(out1d, lines, 576, 0.0f);
         }
     }
 
@@ -1031,16 +966,11 @@ final class LayerIIIDecoder implements FrameDecoder {
      *
      */
     private void stereo(int gr) {
-        int sb, ss;
+        int sb;
 
-        if (channels == 1) { // mono , bypass xr[0][][] to lr[0][][]
+        if (channels == 1) { // mono , bypass xr[0][] to lr[0][]
 
-            for (sb = 0; sb < SBLIMIT; sb++)
-                for (ss = 0; ss < SSLIMIT; ss += 3) {
-                    lr[0][sb][ss] = ro[0][sb][ss];
-                    lr[0][sb][ss + 1] = ro[0][sb][ss + 1];
-                    lr[0][sb][ss + 2] = ro[0][sb][ss + 2];
-                }
+            System.arraycopy(ro[0], 0, lr[0], 0, 576);
 
         } else {
 
@@ -1058,11 +988,8 @@ final class LayerIIIDecoder implements FrameDecoder {
 
             // initialization
 
-            for (i = 0; i < 576; i++) {
-                is_pos[i] = 7;
-
-                is_ratio[i] = 0.0f;
-            }
+            Arrays.fill(is_pos, 7);
+            Arrays.fill(is_ratio, 0.0f);
 
             if (i_stereo) {
                 if ((gr_info.windowSwitchingFlag != 0) && (gr_info.blockType == 2)) {
@@ -1079,10 +1006,7 @@ final class LayerIIIDecoder implements FrameDecoder {
                                 i = (i << 2) - i + (j + 1) * lines - 1;
 
                                 while (lines > 0) {
-                                    if (ro[1][i / 18][i % 18] != 0.0f) {
-                                        // MDM: in java, array access is very slow.
-                                        // Is quicker to compute div and mod values.
-                                        //if (ro[1][ss_div[i]][ss_mod[i]] != 0.0f) {
+                                    if (ro[1][i] != 0.0f) {
                                         sfbcnt = sfb;
                                         sfb = -10;
                                         lines = -10;
@@ -1136,21 +1060,9 @@ final class LayerIIIDecoder implements FrameDecoder {
                             } // for (; sb > 0 ...
                         }
                         if (max_sfb <= 3) {
-                            i = 2;
-                            ss = 17;
-                            sb = -1;
-                            while (i >= 0) {
-                                if (ro[1][i][ss] != 0.0f) {
-                                    sb = (i << 4) + (i << 1) + ss;
-                                    i = -1;
-                                } else {
-                                    ss--;
-                                    if (ss < 0) {
-                                        i--;
-                                        ss = 17;
-                                    }
-                                } // if (ro ...
-                            } // while (i>=0)
+                            sb = Math.min(nonzero[1], 54) - 1;
+                            while (sb >= 0 && ro[1][sb] == 0.0f)
+                                sb--;
                             i = 0;
                             while (sfBandIndex[sfreq].l[i] <= sb)
                                 i++;
@@ -1179,9 +1091,7 @@ final class LayerIIIDecoder implements FrameDecoder {
                                 i = (temp << 2) - temp + (j + 1) * lines - 1;
 
                                 while (lines > 0) {
-                                    if (ro[1][i / 18][i % 18] != 0.0f) {
-                                        // MDM: in java, array access is very slow.
-                                        // Is quicker to compute div and mod values.
+                                    if (ro[1][i] != 0.0f) {
                                         sfbcnt = sfb;
                                         sfb = -10;
                                         lines = -10;
@@ -1229,21 +1139,11 @@ final class LayerIIIDecoder implements FrameDecoder {
                         } // for (sfb=12
                     } // for (j=0 ...
                 } else { // if (gr_info.windowSwitchingFlag ...
-                    i = 31;
-                    ss = 17;
-                    sb = 0;
-                    while (i >= 0) {
-                        if (ro[1][i][ss] != 0.0f) {
-                            sb = (i << 4) + (i << 1) + ss;
-                            i = -1;
-                        } else {
-                            ss--;
-                            if (ss < 0) {
-                                i--;
-                                ss = 17;
-                            }
-                        }
-                    }
+                    // the lines of the right channel end at nonzero[1]
+                    sb = nonzero[1] - 1;
+                    while (sb > 0 && ro[1][sb] == 0.0f)
+                        sb--;
+                    sb = Math.max(sb, 0);
                     i = 0;
                     while (sfBandIndex[sfreq].l[i] <= sb)
                         i++;
@@ -1277,29 +1177,30 @@ final class LayerIIIDecoder implements FrameDecoder {
                 } // if (gr_info.windowSwitchingFlag ...
             } // if (i_stereo)
 
-            i = 0;
-            for (sb = 0; sb < SBLIMIT; sb++)
-                for (ss = 0; ss < SSLIMIT; ss++) {
-                    if (is_pos[i] == 7) {
-                        if (ms_stereo) {
-                            lr[0][sb][ss] = (ro[0][sb][ss] + ro[1][sb][ss]) * 0.707106781f;
-                            lr[1][sb][ss] = (ro[0][sb][ss] - ro[1][sb][ss]) * 0.707106781f;
-                        } else {
-                            lr[0][sb][ss] = ro[0][sb][ss];
-                            lr[1][sb][ss] = ro[1][sb][ss];
-                        }
-                    } else if (i_stereo) {
+            // both channels are zero from the nonzero lines
+            lines = nonzeroLines();
+            for (i = 0; i < lines; i++) {
+                if (is_pos[i] == 7) {
+                    if (ms_stereo) {
+                        lr[0][i] = (ro[0][i] + ro[1][i]) * 0.707106781f;
+                        lr[1][i] = (ro[0][i] - ro[1][i]) * 0.707106781f;
+                    } else {
+                        lr[0][i] = ro[0][i];
+                        lr[1][i] = ro[1][i];
+                    }
+                } else if (i_stereo) {
 
-                        if (lsf) {
-                            lr[0][sb][ss] = ro[0][sb][ss] * k[0][i];
-                            lr[1][sb][ss] = ro[0][sb][ss] * k[1][i];
-                        } else {
-                            lr[1][sb][ss] = ro[0][sb][ss] / (1 + is_ratio[i]);
-                            lr[0][sb][ss] = lr[1][sb][ss] * is_ratio[i];
-                        }
+                    if (lsf) {
+                        lr[0][i] = ro[0][i] * k[0][i];
+                        lr[1][i] = ro[0][i] * k[1][i];
+                    } else {
+                        lr[1][i] = ro[0][i] / (1 + is_ratio[i]);
+                        lr[0][i] = lr[1][i] * is_ratio[i];
                     }
-                    i++;
                 }
+            }
+            Arrays.fill(lr[0], lines, 576, 0.0f);
+            Arrays.fill(lr[1], lines, 576, 0.0f);
         } // channels == 2
     }
 
@@ -1322,6 +1223,8 @@ final class LayerIIIDecoder implements FrameDecoder {
         } else {
             sb18lim = 558;
         }
+        // the butterflies of zero subbands are zero
+        sb18lim = Math.min(sb18lim, (nonzeroBound(ch, gr) + SSLIMIT - 1) / SSLIMIT * SSLIMIT);
 
         for (sb18 = 0; sb18 < sb18lim; sb18 += 18) {
             for (ss = 0; ss < 8; ss++) {
@@ -1347,77 +1250,81 @@ final class LayerIIIDecoder implements FrameDecoder {
         int bt;
         int sb18;
         GrInfoS gr_info = (si.ch[ch].gr[gr]);
-        float[] tsOut;
+        float[] prvblk = prevBlock[ch];
+        int sb18lim = subbandLimit(ch, gr) * SSLIMIT;
 
-        float[][] prvblk;
-
-        for (sb18 = 0; sb18 < 576; sb18 += 18) {
+        for (sb18 = 0; sb18 < sb18lim; sb18 += 18) {
             bt = ((gr_info.windowSwitchingFlag != 0) && (gr_info.mixedBlockFlag != 0) &&
                     (sb18 < 36)) ? 0 : gr_info.blockType;
 
-            tsOut = out1d;
             // Modif E.B 02/22/99
-            System.arraycopy(tsOut, 0 + sb18, tsOutCopy, 0, 18);
+            System.arraycopy(out1d, sb18, tsOutCopy, 0, 18);
 
             inv_mdct(tsOutCopy, rawout, bt);
 
+            // overlap addition
+            for (int i = 0; i < 18; i++) {
+                out1d[sb18 + i] = rawout[i] + prvblk[sb18 + i];
+                prvblk[sb18 + i] = rawout[18 + i];
+            }
+        }
 
-            System.arraycopy(tsOutCopy, 0, tsOut, 0 + sb18, 18);
-            // Fin Modif
+        // the inverse mdct of zero lines is zero, only the overlap remains
+        if (sb18lim < 576) {
+            System.arraycopy(prvblk, sb18lim, out1d, sb18lim, 576 - sb18lim);
+            Arrays.fill(prvblk, sb18lim, 576, 0.0f);
+        }
+    }
 
-            // overlap addition
-            prvblk = prevBlock;
-
-            tsOut[0 + sb18] = rawout[0] + prvblk[ch][sb18 + 0];
-            prvblk[ch][sb18 + 0] = rawout[18];
-            tsOut[1 + sb18] = rawout[1] + prvblk[ch][sb18 + 1];
-            prvblk[ch][sb18 + 1] = rawout[19];
-            tsOut[2 + sb18] = rawout[2] + prvblk[ch][sb18 + 2];
-            prvblk[ch][sb18 + 2] = rawout[20];
-            tsOut[3 + sb18] = rawout[3] + prvblk[ch][sb18 + 3];
-            prvblk[ch][sb18 + 3] = rawout[21];
-            tsOut[4 + sb18] = rawout[4] + prvblk[ch][sb18 + 4];
-            prvblk[ch][sb18 + 4] = rawout[22];
-            tsOut[5 + sb18] = rawout[5] + prvblk[ch][sb18 + 5];
-            prvblk[ch][sb18 + 5] = rawout[23];
-            tsOut[6 + sb18] = rawout[6] + prvblk[ch][sb18 + 6];
-            prvblk[ch][sb18 + 6] = rawout[24];
-            tsOut[7 + sb18] = rawout[7] + prvblk[ch][sb18 + 7];
-            prvblk[ch][sb18 + 7] = rawout[25];
-            tsOut[8 + sb18] = rawout[8] + prvblk[ch][sb18 + 8];
-            prvblk[ch][sb18 + 8] = rawout[26];
-            tsOut[9 + sb18] = rawout[9] + prvblk[ch][sb18 + 9];
-            prvblk[ch][sb18 + 9] = rawout[27];
-            tsOut[10 + sb18] = rawout[10] + prvblk[ch][sb18 + 10];
-            prvblk[ch][sb18 + 10] = rawout[28];
-            tsOut[11 + sb18] = rawout[11] + prvblk[ch][sb18 + 11];
-            prvblk[ch][sb18 + 11] = rawout[29];
-            tsOut[12 + sb18] = rawout[12] + prvblk[ch][sb18 + 12];
-            prvblk[ch][sb18 + 12] = rawout[30];
-            tsOut[13 + sb18] = rawout[13] + prvblk[ch][sb18 + 13];
-            prvblk[ch][sb18 + 13] = rawout[31];
-            tsOut[14 + sb18] = rawout[14] + prvblk[ch][sb18 + 14];
-            prvblk[ch][sb18 + 14] = rawout[32];
-            tsOut[15 + sb18] = rawout[15] + prvblk[ch][sb18 + 15];
-            prvblk[ch][sb18 + 15] = rawout[33];
-            tsOut[16 + sb18] = rawout[16] + prvblk[ch][sb18 + 16];
-            prvblk[ch][sb18 + 16] = rawout[34];
-            tsOut[17 + sb18] = rawout[17] + prvblk[ch][sb18 + 17];
-            prvblk[ch][sb18 + 17] = rawout[35];
+    /**
+     * Returns the number of the subbands having nonzero lines after the alias reduction,
+     * the rest of the subbands are zero.
+     */
+    private int subbandLimit(int ch, int gr) {
+        int lines = nonzeroBound(ch, gr);
+        if (lines == 0)
+            return 0;
+
+        // the alias reduction spreads the lines to the next subband
+        return Math.min((lines + SSLIMIT - 1) / SSLIMIT + 1, SBLIMIT);
+    }
+
+    /**
+     * Returns the number of the lines of {@link #lr} after the stereo processing,
+     * the rest of the lines are zero.
+     */
+    private int nonzeroLines() {
+        // the stereo processing and the downmix mix the channels
+        return channels == 2 ? Math.max(nonzero[0], nonzero[1]) : nonzero[0];
+    }
+
+    /**
+     * Returns the number of the lines of {@link #out1d} after the reordering,
+     * the rest of the lines are zero.
+     */
+    private int nonzeroBound(int ch, int gr) {
+        int lines = nonzeroLines();
+
+        // short blocks are reordered within the scale factor bands
+        GrInfoS gr_info = (si.ch[ch].gr[gr]);
+        if ((gr_info.windowSwitchingFlag != 0) && (gr_info.blockType == 2)) {
+            int[] s = sfBandIndex[sfreq].s;
+            int sfb = 0;
+            while (3 * s[sfb] < lines)
+                sfb++;
+            lines = 3 * s[sfb];
         }
+        return lines;
     }
 
     /**
      *
      */
     private void do_downmix() {
-        for (int sb = 0; sb < SSLIMIT; sb++) {
-            for (int ss = 0; ss < SSLIMIT; ss += 3) {
-                lr[0][sb][ss] = (lr[0][sb][ss] + lr[1][sb][ss]) * 0.5f;
-                lr[0][sb][ss + 1] = (lr[0][sb][ss + 1] + lr[1][sb][ss + 1]) * 0.5f;
-                lr[0][sb][ss + 2] = (lr[0][sb][ss + 2] + lr[1][sb][ss + 2]) * 0.5f;
-            }
-        }
+        // only the lower 18 subbands are mixed, as it has been
+        int lines = Math.min(nonzeroLines(), SSLIMIT * SSLIMIT);
+        for (int i = 0; i < lines; i++)
+            lr[0][i] = (lr[0][i] + lr[1][i]) * 0.5f;
     }
 
     /**
@@ -1841,7 +1748,45 @@ final class LayerIIIDecoder implements FrameDecoder {
             0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 1, 1, 1, 1, 2, 2, 3, 3, 3, 2, 0
     };
 
-    private SBI[] sfBandIndex; // Init in the constructor.
+    /** L3TABLE, shared by all instances, never modified */
+    private static final SBI[] sfBandIndex = createSfBandIndex();
+
+    private static SBI[] createSfBandIndex() {
+        SBI[] sfBandIndex = new SBI[9]; // SZD: MPEG2.5 +3 indices
+        int[] l0 = {0, 6, 12, 18, 24, 30, 36, 44, 54, 66, 80, 96, 116, 140, 168, 200, 238, 284, 336, 396, 464, 522, 576};
+        int[] s0 = {0, 4, 8, 12, 18, 24, 32, 42, 56, 74, 100, 132, 174, 192};
+        int[] l1 = {0, 6, 12, 18, 24, 30, 36, 44, 54, 66, 80, 96, 114, 136, 162, 194, 232, 278, 330, 394, 464, 540, 576};
+        int[] s1 = {0, 4, 8, 12, 18, 26, 36, 48, 62, 80, 104, 136, 180, 192};
+        int[] l2 = {0, 6, 12, 18, 24, 30, 36, 44, 54, 66, 80, 96, 116, 140, 168, 200, 238, 284, 336, 396, 464, 522, 576};
+        int[] s2 = {0, 4, 8, 12, 18, 26, 36, 48, 62, 80, 104, 134, 174, 192};
+
+        int[] l3 = {0, 4, 8, 12, 16, 20, 24, 30, 36, 44, 52, 62, 74, 90, 110, 134, 162, 196, 238, 288, 342, 418, 576};
+        int[] s3 = {0, 4, 8, 12, 16, 22, 30, 40, 52, 66, 84, 106, 136, 192};
+        int[] l4 = {0, 4, 8, 12, 16, 20, 24, 30, 36, 42, 50, 60, 72, 88, 106, 128, 156, 190, 230, 276, 330, 384, 576};
+        int[] s4 = {0, 4, 8, 12, 16, 22, 28, 38, 50, 64, 80, 100, 126, 192};
+        int[] l5 = {0, 4, 8, 12, 16, 20, 24, 30, 36, 44, 54, 66, 82, 102, 126, 156, 194, 240, 296, 364, 448, 550, 576};
+        int[] s5 = {0, 4, 8, 12, 16, 22, 30, 42, 58, 78, 104, 138, 180, 192};
+        // SZD: MPEG2.5
+        int[] l6 = {0, 6, 12, 18, 24, 30, 36, 44, 54, 66, 80, 96, 116, 140, 168, 200, 238, 284, 336, 396, 464, 522, 576};
+        int[] s6 = {0, 4, 8, 12, 18, 26, 36, 48, 62, 80, 104, 134, 174, 192};
+        int[] l7 = {0, 6, 12, 18, 24, 30, 36, 44, 54, 66, 80, 96, 116, 140, 168, 200, 238, 284, 336, 396, 464, 522, 576};
+        int[] s7 = {0, 4, 8, 12, 18, 26, 36, 48, 62, 80, 104, 134, 174, 192};
+        int[] l8 = {0, 12, 24, 36, 48, 60, 72, 88, 108, 132, 160, 192, 232, 280, 336, 400, 476, 566, 568, 570, 572, 574, 576};
+        int[] s8 = {0, 8, 16, 24, 36, 52, 72, 96, 124, 160, 162, 164, 166, 192};
+
+        sfBandIndex[0] = new SBI(l0, s0);
+        sfBandIndex[1] = new SBI(l1, s1);
+        sfBandIndex[2] = new SBI(l2, s2);
+
+        sfBandIndex[3] = new SBI(l3, s3);
+        sfBandIndex[4] = new SBI(l4, s4);
+        sfBandIndex[5] = new SBI(l5, s5);
+        // SZD: MPEG2.5
+        sfBandIndex[6] = new SBI(l6, s6);
+        sfBandIndex[7] = new SBI(l7, s7);
+        sfBandIndex[8] = new SBI(l8, s8);
+        return sfBandIndex;
+    }
 
     public static final float[] two_to_negative_half_pow = {
             1.0000000000E+00f, 7.0710678119E-01f, 5.0000000000E-01f, 3.5355339059E-01f,
@@ -1863,18 +1808,30 @@ final class LayerIIIDecoder implements FrameDecoder {
     };
 
 
+    /** i^(4/3) for all the values of the huffman codes, 15 and 13 linbits at most */
     public static final float[] t_43 = createT43();
 
     static private float[] createT43() {
-        float[] t43 = new float[8192];
+        float[] t43 = new float[15 + (1 << 13)];
         final double d43 = (4.0 / 3.0);
 
-        for (int i = 0; i < 8192; i++) {
+        for (int i = 0; i < t43.length; i++) {
             t43[i] = (float) Math.pow(i, d43);
         }
         return t43;
     }
 
+    /** 2^((global_gain - 210) / 4) for all the 8 bit global gains */
+    private static final float[] globalGains = createGlobalGains();
+
+    private static float[] createGlobalGains() {
+        float[] globalGains = new float[256];
+        for (int i = 0; i < 256; i++) {
+            globalGains[i] = (float) Math.pow(2.0, (0.25 * (i - 210.0)));
+        }
+        return globalGains;
+    }
+
     public static final float[][] io = {
             {
                 1.0000000000E+00f, 8.4089641526E-01f, 7.0710678119E-01f, 5.9460355751E-01f,
@@ -1907,7 +1864,14 @@ final class LayerIIIDecoder implements FrameDecoder {
     // REVIEW: in java, the array lookup may well be slower than
     // the actual calculation
     // 576 / 18
-    private static int[][] reorderTable; // SZD: will be generated on demand
+    private static final int[][] reorderTable = createReorderTable();
+
+    private static int[][] createReorderTable() { // SZD: generate LUT
+        int[][] reorderTable = new int[9][];
+        for (int i = 0; i < 9; i++)
+            reorderTable[i] = reorder(sfBandIndex[i].s);
+        return reorderTable;
+    }
 
     /**
      * Loads the data for the reorder
@@ -52,10 +52,25 @@ public abstract class Obuffer {
 
     /**
      * Accepts 32 new PCM samples.
+     * <p>
+     * The samples are floats scaled to 16 bits and not clipped yet, the block
+     * of the {@link SynthesisFilter} is passed as is. Subclasses override this
+     * to store them in another format, e.g. {@link FloatSampleBuffer}.
      */
     public void appendSamples(int channel, float[] f) {
+        appendSamples(channel, f, 0);
+    }
+
+    /**
+     * Accepts the PCM samples of a block from the offset, the samples before
+     * it are dropped. It is used to start the output at a sample after a seek.
+     *
+     * @param offset the first sample in the block to take, 0 to 31
+     * @since 1.0.4
+     */
+    public void appendSamples(int channel, float[] f, int offset) {
         short s;
-        for (int i = 0; i < 32; ) {
+        for (int i = offset; i < 32; ) {
             s = clip(f[i++]);
             append(channel, s);
         }
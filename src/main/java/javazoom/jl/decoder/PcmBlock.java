@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package javazoom.jl.decoder;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+
+/**
+ * The PCM of a frame published by a {@link PcmPublisher}.
+ * <p>
+ * The samples are in a buffer of a pool, so a block is not copied for
+ * a subscriber consuming it asynchronously. The subscriber calls
+ * {@link #release()} when it is done with the samples, then the buffer
+ * is reused for another frame.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026/10/18 nsano initial version <br>
+ * @since 1.0.4
+ */
+public final class PcmBlock {
+
+    private final SampleBuffer buffer;
+
+    private final Consumer<SampleBuffer> recycler;
+
+    private final int frame;
+
+    private final long sample;
+
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    PcmBlock(SampleBuffer buffer, Consumer<SampleBuffer> recycler, int frame, long sample) {
+        this.buffer = buffer;
+        this.recycler = recycler;
+        this.frame = frame;
+        this.sample = sample;
+    }
+
+    /**
+     * Returns the 16 bit samples, interleaved if stereo.
+     *
+     * @throws IllegalStateException the block is released
+     */
+    public short[] samples() {
+        if (released.get())
+            throw new IllegalStateException("released");
+        return buffer.getBuffer();
+    }
+
+    /** Returns the number of samples in {@link #samples()}, of all the channels. */
+    public int length() {
+        return buffer.getBufferLength();
+    }
+
+    /** Returns the number of channels. */
+    public int channels() {
+        return buffer.getChannelCount();
+    }
+
+    /** Returns the sample frequency in Hz. */
+    public int frequency() {
+        return buffer.getSampleFrequency();
+    }
+
+    /** Returns the frame number from 0. */
+    public int frame() {
+        return frame;
+    }
+
+    /** Returns the first sample of the block per channel from the beginning of the stream. */
+    public long sample() {
+        return sample;
+    }
+
+    /**
+     * Returns the buffer to the pool, the samples must not be used after this.
+     *
+     * @throws IllegalStateException the block is released already
+     */
+    public void release() {
+        if (!released.compareAndSet(false, true))
+            throw new IllegalStateException("released already");
+        recycler.accept(buffer);
+    }
+}
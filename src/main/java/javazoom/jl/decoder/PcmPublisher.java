@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package javazoom.jl.decoder;
+
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Publishes the decoded frames of a bitstream as {@link PcmBlock}s.
+ * <p>
+ * A frame is decoded only when the subscriber has requested it, so nothing
+ * is buffered ahead of the demand. The frames are decoded on the executor,
+ * one at a time. The blocks are decoded into the buffers of a pool, the
+ * subscriber {@link PcmBlock#release() releases} a block to return its buffer
+ * to the pool. A block not released is just garbage collected, a new buffer
+ * is allocated when the pool is empty.
+ * <p>
+ * There is one subscriber, the bitstream is read once. It is closed when
+ * the stream ends, on an error or when the subscription is cancelled.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026/10/18 nsano initial version <br>
+ * @since 1.0.4
+ */
+public final class PcmPublisher implements Flow.Publisher<PcmBlock> {
+
+    /** buffers kept by default */
+    private static final int POOL_SIZE = 16;
+
+    private final Bitstream stream;
+
+    private final Decoder decoder;
+
+    private final Executor executor;
+
+    private final BlockingQueue<SampleBuffer> pool;
+
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    /**
+     * Creates a publisher decoding on the common pool.
+     *
+     * @param stream  the bitstream to decode
+     * @param decoder the decoder used by this publisher only, its output buffer is replaced
+     */
+    public PcmPublisher(Bitstream stream, Decoder decoder) {
+        this(stream, decoder, ForkJoinPool.commonPool(), POOL_SIZE);
+    }
+
+    /**
+     * Creates a publisher.
+     *
+     * @param stream   the bitstream to decode
+     * @param decoder  the decoder used by this publisher only, its output buffer is replaced
+     * @param executor decodes the frames
+     * @param poolSize the number of the buffers kept for the blocks released
+     */
+    public PcmPublisher(Bitstream stream, Decoder decoder, Executor executor, int poolSize) {
+        if (poolSize < 1)
+            throw new IllegalArgumentException("poolSize: " + poolSize);
+        this.stream = Objects.requireNonNull(stream, "stream");
+        this.decoder = Objects.requireNonNull(decoder, "decoder");
+        this.executor = Objects.requireNonNull(executor, "executor");
+        this.pool = new ArrayBlockingQueue<>(poolSize);
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super PcmBlock> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override public void request(long n) {}
+                @Override public void cancel() {}
+            });
+            subscriber.onError(new IllegalStateException("subscribed already"));
+            return;
+        }
+        BlockSubscription subscription = new BlockSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+    }
+
+    /**
+     * Decodes the frames requested, a drain loop run on the executor
+     * by one thread at a time.
+     */
+    private final class BlockSubscription implements Flow.Subscription, Runnable {
+
+        private final Flow.Subscriber<? super PcmBlock> subscriber;
+
+        /** the blocks requested and not published yet */
+        private final AtomicLong demand = new AtomicLong();
+
+        /** the signals not drained yet, the loop is running if not 0 */
+        private final AtomicInteger wip = new AtomicInteger();
+
+        private volatile boolean cancelled;
+
+        /** an illegal request, signalled by the loop */
+        private volatile Throwable error;
+
+        /** accessed by the loop only */
+        private boolean done;
+
+        private int frame;
+
+        private long sample;
+
+        private int frequency;
+
+        private int channels;
+
+        BlockSubscription(Flow.Subscriber<? super PcmBlock> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0)
+                error = new IllegalArgumentException("non-positive request: " + n);
+            else
+                demand.getAndAccumulate(n, (d, m) -> d + m < 0 ? Long.MAX_VALUE : d + m);
+            signal();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            signal();
+        }
+
+        private void signal() {
+            if (wip.getAndIncrement() == 0) {
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException ex) {
+                    cancelled = true;
+                    subscriber.onError(ex);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            do {
+                while (!done) {
+                    if (cancelled) {
+                        finish();
+                        break;
+                    }
+                    Throwable e = error;
+                    if (e != null) {
+                        finish();
+                        subscriber.onError(e);
+                        break;
+                    }
+                    if (demand.get() == 0)
+                        break;
+
+                    PcmBlock block;
+                    try {
+                        block = decodeFrame();
+                    } catch (JavaLayerException | RuntimeException ex) {
+                        finish();
+                        subscriber.onError(ex);
+                        break;
+                    }
+                    if (block == null) {
+                        finish();
+                        subscriber.onComplete();
+                        break;
+                    }
+
+                    if (demand.get() != Long.MAX_VALUE)
+                        demand.decrementAndGet();
+                    try {
+                        subscriber.onNext(block);
+                    } catch (RuntimeException ex) {
+                        finish();
+                        subscriber.onError(ex);
+                        break;
+                    }
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        /** Decodes the next frame, null at the end of the stream. */
+        private PcmBlock decodeFrame() throws JavaLayerException {
+            Header header = stream.readFrame();
+            if (header == null)
+                return null;
+
+            if (channels == 0) {
+                frequency = header.frequency();
+                channels = header.mode() == Header.SINGLE_CHANNEL ? 1 : 2;
+            }
+            SampleBuffer buffer = pool.poll();
+            if (buffer == null)
+                buffer = new SampleBuffer(frequency, channels);
+
+            decoder.setOutputBuffer(buffer);
+            decoder.decodeFrame(header, stream);
+            stream.closeFrame();
+
+            PcmBlock block = new PcmBlock(buffer, pool::offer, frame++, sample);
+            sample += buffer.getBufferLength() / channels;
+            return block;
+        }
+
+        private void finish() {
+            done = true;
+            try {
+                stream.close();
+            } catch (BitstreamException ex) {
+            }
+        }
+    }
+}
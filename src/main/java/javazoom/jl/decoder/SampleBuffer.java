@@ -75,12 +75,12 @@ public class SampleBuffer extends Obuffer {
     }
 
     @Override
-    public void appendSamples(int channel, float[] f) {
+    public void appendSamples(int channel, float[] f, int offset) {
         int pos = bufferP[channel];
 
         short s;
         float fs;
-        for (int i = 0; i < 32; ) {
+        for (int i = offset; i < 32; ) {
             fs = f[i++];
             fs = (fs > 32767.0f ? 32767.0f
                     : (Math.max(fs, -32767.0f)));
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package javazoom.jl.decoder;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+
+/**
+ * Buffered stream reading a {@link Source}, bytes can be pushed back.
+ * <p>
+ * Unlike {@link java.io.BufferedInputStream} and {@link java.io.PushbackInputStream}
+ * no monitor is held while reading, so a virtual thread blocked in the source
+ * does not pin its carrier thread. It is not thread safe, only {@link #close()}
+ * may be called by another thread to abort a blocking read, if the source is
+ * {@link Closeable}.
+ * <p>
+ * The buffers are reused for another source by {@link #setSource(Source)}.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026/10/18 nsano initial version <br>
+ */
+final class SourceInputStream extends InputStream {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private Source source;
+
+    private final byte[] buf = new byte[BUFFER_SIZE];
+
+    /** next byte to read in the buffer */
+    private int pos;
+
+    /** end of the bytes read in the buffer */
+    private int count;
+
+    /** the bytes pushed back, filled from the end */
+    private final byte[] back;
+
+    /** next byte to read in the bytes pushed back, the size of it if none */
+    private int backPos;
+
+    /**
+     * @param pushback the number of bytes can be pushed back
+     */
+    SourceInputStream(Source source, int pushback) {
+        if (source == null)
+            throw new NullPointerException("source");
+        back = new byte[pushback];
+        setSource(source);
+    }
+
+    /**
+     * Starts reading another source, the bytes buffered are discarded.
+     *
+     * @param source null to release the source read before
+     */
+    void setSource(Source source) {
+        this.source = source;
+        pos = count = 0;
+        backPos = back.length;
+    }
+
+    /**
+     * Repositions the source, the bytes buffered and pushed back are discarded.
+     *
+     * @param position the position in the source
+     * @return false if the source cannot seek to the position
+     */
+    boolean seek(long position) {
+        pos = count = 0;
+        backPos = back.length;
+        return source.isSeekable() && source.seek(position) == position;
+    }
+
+    /** Returns the source being read, null if released. */
+    Source source() {
+        return source;
+    }
+
+    /**
+     * Reads more bytes to the buffer.
+     *
+     * @return false at the end of the source
+     */
+    private boolean fill() throws IOException {
+        pos = count = 0;
+        int n = source.read(buf, 0, buf.length);
+        if (n <= 0)
+            return false;
+        count = n;
+        return true;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (backPos < back.length)
+            return back[backPos++] & 0xff;
+        if (pos == count && !fill())
+            return -1;
+        return buf[pos++] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0)
+            return 0;
+        if (backPos < back.length) {
+            int n = Math.min(back.length - backPos, len);
+            System.arraycopy(back, backPos, b, off, n);
+            backPos += n;
+            return n;
+        }
+        int n = count - pos;
+        if (n <= 0) {
+            if (len >= buf.length)
+                return source.read(b, off, len); // no need to copy
+            if (!fill())
+                return -1;
+            n = count;
+        }
+        n = Math.min(n, len);
+        System.arraycopy(buf, pos, b, off, n);
+        pos += n;
+        return n;
+    }
+
+    /**
+     * Pushes back the bytes, they are read next.
+     *
+     * @throws IOException there is not enough room
+     */
+    void unread(byte[] b, int off, int len) throws IOException {
+        if (len > backPos)
+            throw new IOException("Push back buffer is full");
+        backPos -= len;
+        System.arraycopy(b, off, back, backPos, len);
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = 0;
+        while (skipped < n) {
+            if (backPos < back.length) {
+                int k = (int) Math.min(back.length - backPos, n - skipped);
+                backPos += k;
+                skipped += k;
+                continue;
+            }
+            if (pos == count && !fill())
+                break;
+            int k = (int) Math.min(count - pos, n - skipped);
+            pos += k;
+            skipped += k;
+        }
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        return back.length - backPos + count - pos;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (source instanceof Closeable closeable)
+            closeable.close();
+    }
+}
@@ -31,7 +31,8 @@
 
 package javazoom.jl.decoder;
 
-import java.io.IOException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 
 /**
@@ -40,6 +41,58 @@ import java.io.IOException;
  * Frequencies above 4 kHz are removed by ignoring higher subbands.
  */
 final class SynthesisFilter {
+
+    /**
+     * The windowing of the transposed v buffers, i.e. {@code VectorSynthesis}.
+     */
+    interface Windowing {
+        /**
+         * Computes 32 PCM samples, same as {@code computePcmSamples0..15()}.
+         *
+         * @param v      the actual v, transposed
+         * @param pos    the write position
+         * @param factor the scale factor
+         * @param out    32 PCM samples
+         */
+        void computePcmSamples(float[] v, int pos, float factor, float[] out);
+    }
+
+    /**
+     * {@code VectorSynthesis} is used when the module {@code jdk.incubator.vector} is present,
+     * e.g. {@code --add-modules jdk.incubator.vector}, unless the system property
+     * {@code javazoom.jl.decoder.vector} is false.
+     * It is loaded by reflection, it is compiled apart from this class with the module.
+     * It is initialized after this class, VectorSynthesis uses the table of this class.
+     * The static fields of this class are the tables only, they can be initialized at build time
+     * of a native image.
+     */
+    private static final class Vector {
+        private static final Logger logger = Logger.getLogger(SynthesisFilter.class.getName());
+
+        /** null if not available */
+        static final Windowing windowing = load();
+
+        private static Windowing load() {
+            if (!Boolean.parseBoolean(System.getProperty("javazoom.jl.decoder.vector", "true")) ||
+                    ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty())
+                return null;
+            try {
+                Windowing windowing = (Windowing) Class.forName(SynthesisFilter.class.getPackageName() + ".VectorSynthesis")
+                        .getDeclaredConstructor().newInstance();
+                logger.fine("synthesis is vectorized");
+                return windowing;
+            } catch (ReflectiveOperationException | LinkageError e) {
+                logger.log(Level.WARNING, "vector synthesis is not available", e);
+                return null;
+            }
+        }
+    }
+
+    /** Returns true if {@code VectorSynthesis} is used by default. */
+    static boolean isVectorAvailable() {
+        return Vector.windowing != null;
+    }
+
     private final float[] v1;
     private final float[] v2;
     private float[] actualV;            // v1 or v2
@@ -48,6 +101,8 @@ final class SynthesisFilter {
     private final int channel;
     private final float scaleFactor;
     private float[] eq;
+    /** the v buffers are transposed for {@code VectorSynthesis} */
+    private final boolean vectorized;
 
     /**
      * Contractor.
@@ -55,11 +110,14 @@ final class SynthesisFilter {
      * (raw pcm samples are in [-1.0, 1.0], if no violations occur).
      */
     public SynthesisFilter(int channelNumber, float factor, float[] eq0) {
-        if (d == null) {
-            d = load_d();
-            d16 = splitArray(d, 16);
-        }
+        this(channelNumber, factor, eq0, isVectorAvailable());
+    }
 
+    /**
+     * @param vectorized use {@code VectorSynthesis}, it must be available.
+     */
+    SynthesisFilter(int channelNumber, float factor, float[] eq0, boolean vectorized) {
+        this.vectorized = vectorized;
         v1 = new float[512];
         v2 = new float[512];
         samples = new float[32];
@@ -106,6 +164,19 @@ final class SynthesisFilter {
         actualWritePos = 15;
     }
 
+    /**
+     * Resets the filter as if the number of blocks had been calculated.
+     * The ring buffer is at the same place as when decoding from the
+     * beginning, so the output after a seek is the same after 16 blocks.
+     *
+     * @param blocks the number of blocks of 32 samples before
+     */
+    void reset(long blocks) {
+        reset();
+        actualV = (blocks & 1) == 0 ? v1 : v2;
+        actualWritePos = (int) ((15 + blocks) & 0xf);
+    }
+
 
     /**
      * Inject Sample.
@@ -377,83 +448,85 @@ final class SynthesisFilter {
         // float[] x2 = actualV + actualWritePos;
         float[] dest = actualV;
 
-        int pos = actualWritePos;
-
-        dest[0 + pos] = new_v0;
-        dest[16 + pos] = new_v1;
-        dest[32 + pos] = new_v2;
-        dest[48 + pos] = new_v3;
-        dest[64 + pos] = new_v4;
-        dest[80 + pos] = new_v5;
-        dest[96 + pos] = new_v6;
-        dest[112 + pos] = new_v7;
-        dest[128 + pos] = new_v8;
-        dest[144 + pos] = new_v9;
-        dest[160 + pos] = new_v10;
-        dest[176 + pos] = new_v11;
-        dest[192 + pos] = new_v12;
-        dest[208 + pos] = new_v13;
-        dest[224 + pos] = new_v14;
-        dest[240 + pos] = new_v15;
+        // v[16 * i + pos] is v[32 * pos + i] when the v buffers are transposed for VectorSynthesis
+        int pos = vectorized ? 32 * actualWritePos : actualWritePos;
+        int inc = vectorized ? 1 : 16;
+
+        dest[pos] = new_v0;
+        dest[inc + pos] = new_v1;
+        dest[2 * inc + pos] = new_v2;
+        dest[3 * inc + pos] = new_v3;
+        dest[4 * inc + pos] = new_v4;
+        dest[5 * inc + pos] = new_v5;
+        dest[6 * inc + pos] = new_v6;
+        dest[7 * inc + pos] = new_v7;
+        dest[8 * inc + pos] = new_v8;
+        dest[9 * inc + pos] = new_v9;
+        dest[10 * inc + pos] = new_v10;
+        dest[11 * inc + pos] = new_v11;
+        dest[12 * inc + pos] = new_v12;
+        dest[13 * inc + pos] = new_v13;
+        dest[14 * inc + pos] = new_v14;
+        dest[15 * inc + pos] = new_v15;
 
         // V[16] is always 0.0:
-        dest[256 + pos] = 0.0f;
+        dest[16 * inc + pos] = 0.0f;
 
         // insert V[17-31] (== -new_v[15-1]) into actual v:
-        dest[272 + pos] = -new_v15;
-        dest[288 + pos] = -new_v14;
-        dest[304 + pos] = -new_v13;
-        dest[320 + pos] = -new_v12;
-        dest[336 + pos] = -new_v11;
-        dest[352 + pos] = -new_v10;
-        dest[368 + pos] = -new_v9;
-        dest[384 + pos] = -new_v8;
-        dest[400 + pos] = -new_v7;
-        dest[416 + pos] = -new_v6;
-        dest[432 + pos] = -new_v5;
-        dest[448 + pos] = -new_v4;
-        dest[464 + pos] = -new_v3;
-        dest[480 + pos] = -new_v2;
-        dest[496 + pos] = -new_v1;
+        dest[17 * inc + pos] = -new_v15;
+        dest[18 * inc + pos] = -new_v14;
+        dest[19 * inc + pos] = -new_v13;
+        dest[20 * inc + pos] = -new_v12;
+        dest[21 * inc + pos] = -new_v11;
+        dest[22 * inc + pos] = -new_v10;
+        dest[23 * inc + pos] = -new_v9;
+        dest[24 * inc + pos] = -new_v8;
+        dest[25 * inc + pos] = -new_v7;
+        dest[26 * inc + pos] = -new_v6;
+        dest[27 * inc + pos] = -new_v5;
+        dest[28 * inc + pos] = -new_v4;
+        dest[29 * inc + pos] = -new_v3;
+        dest[30 * inc + pos] = -new_v2;
+        dest[31 * inc + pos] = -new_v1;
 
         // insert V[32] (== -new_v[0]) into other v:
         dest = (actualV == v1) ? v2 : v1;
 
-        dest[0 + pos] = -new_v0;
+        dest[pos] = -new_v0;
         // insert V[33-48] (== new_v[16-31]) into other v:
-        dest[16 + pos] = new_v16;
-        dest[32 + pos] = new_v17;
-        dest[48 + pos] = new_v18;
-        dest[64 + pos] = new_v19;
-        dest[80 + pos] = new_v20;
-        dest[96 + pos] = new_v21;
-        dest[112 + pos] = new_v22;
-        dest[128 + pos] = new_v23;
-        dest[144 + pos] = new_v24;
-        dest[160 + pos] = new_v25;
-        dest[176 + pos] = new_v26;
-        dest[192 + pos] = new_v27;
-        dest[208 + pos] = new_v28;
-        dest[224 + pos] = new_v29;
-        dest[240 + pos] = new_v30;
-        dest[256 + pos] = new_v31;
+        dest[inc + pos] = new_v16;
+        dest[2 * inc + pos] = new_v17;
+        dest[3 * inc + pos] = new_v18;
+        dest[4 * inc + pos] = new_v19;
+        dest[5 * inc + pos] = new_v20;
+        dest[6 * inc + pos] = new_v21;
+        dest[7 * inc + pos] = new_v22;
+        dest[8 * inc + pos] = new_v23;
+        dest[9 * inc + pos] = new_v24;
+        dest[10 * inc + pos] = new_v25;
+        dest[11 * inc + pos] = new_v26;
+        dest[12 * inc + pos] = new_v27;
+        dest[13 * inc + pos] = new_v28;
+        dest[14 * inc + pos] = new_v29;
+        dest[15 * inc + pos] = new_v30;
+        dest[16 * inc + pos] = new_v31;
 
         // insert V[49-63] (== new_v[30-16]) into other v:
-        dest[272 + pos] = new_v30;
-        dest[288 + pos] = new_v29;
-        dest[304 + pos] = new_v28;
-        dest[320 + pos] = new_v27;
-        dest[336 + pos] = new_v26;
-        dest[352 + pos] = new_v25;
-        dest[368 + pos] = new_v24;
-        dest[384 + pos] = new_v23;
-        dest[400 + pos] = new_v22;
-        dest[416 + pos] = new_v21;
-        dest[432 + pos] = new_v20;
-        dest[448 + pos] = new_v19;
-        dest[464 + pos] = new_v18;
-        dest[480 + pos] = new_v17;
-        dest[496 + pos] = new_v16;
+        dest[17 * inc + pos] = new_v30;
+        dest[18 * inc + pos] = new_v29;
+        dest[19 * inc + pos] = new_v28;
+        dest[20 * inc + pos] = new_v27;
+        dest[21 * inc + pos] = new_v26;
+        dest[22 * inc + pos] = new_v25;
+        dest[23 * inc + pos] = new_v24;
+        dest[24 * inc + pos] = new_v23;
+        dest[25 * inc + pos] = new_v22;
+        dest[26 * inc + pos] = new_v21;
+        dest[27 * inc + pos] = new_v20;
+        dest[28 * inc + pos] = new_v19;
+        dest[29 * inc + pos] = new_v18;
+        dest[30 * inc + pos] = new_v17;
+        dest[31 * inc + pos] = new_v16;
 /*
     }
     else
@@ -1410,7 +1483,14 @@ final class SynthesisFilter {
 
     public void calculate_pcm_samples(Obuffer buffer) {
         computeNewV();
-        computePcmSamples(buffer);
+        if (vectorized) {
+            Vector.windowing.computePcmSamples(actualV, actualWritePos, scaleFactor, _tmpOut);
+            if (buffer != null) {
+                buffer.appendSamples(channel, _tmpOut);
+            }
+        } else {
+            computePcmSamples(buffer);
+        }
 
         actualWritePos = (actualWritePos + 1) & 0xf;
         actualV = (actualV == v1) ? v2 : v1;
@@ -1461,31 +1541,143 @@ final class SynthesisFilter {
 
     // Note: These values are not in the same order
     // as in Annex 3-B.3 of the ISO/IEC DIS 11172-3
-    // private float d[] = {0.000000000, -4.000442505};
-
-    private static float[] d = null;
+    private static final float[] d = {
+            0.000000000f, -0.000442505f, 0.003250122f, -0.007003784f,
+            0.031082153f, -0.078628540f, 0.100311279f, -0.572036743f,
+            1.144989014f, 0.572036743f, 0.100311279f, 0.078628540f,
+            0.031082153f, 0.007003784f, 0.003250122f, 0.000442505f,
+            -0.000015259f, -0.000473022f, 0.003326416f, -0.007919312f,
+            0.030517578f, -0.084182739f, 0.090927124f, -0.600219727f,
+            1.144287109f, 0.543823242f, 0.108856201f, 0.073059082f,
+            0.031478882f, 0.006118774f, 0.003173828f, 0.000396729f,
+            -0.000015259f, -0.000534058f, 0.003387451f, -0.008865356f,
+            0.029785156f, -0.089706421f, 0.080688477f, -0.628295898f,
+            1.142211914f, 0.515609741f, 0.116577148f, 0.067520142f,
+            0.031738281f, 0.005294800f, 0.003082275f, 0.000366211f,
+            -0.000015259f, -0.000579834f, 0.003433228f, -0.009841919f,
+            0.028884888f, -0.095169067f, 0.069595337f, -0.656219482f,
+            1.138763428f, 0.487472534f, 0.123474121f, 0.061996460f,
+            0.031845093f, 0.004486084f, 0.002990723f, 0.000320435f,
+            -0.000015259f, -0.000625610f, 0.003463745f, -0.010848999f,
+            0.027801514f, -0.100540161f, 0.057617188f, -0.683914185f,
+            1.133926392f, 0.459472656f, 0.129577637f, 0.056533813f,
+            0.031814575f, 0.003723145f, 0.002899170f, 0.000289917f,
+            -0.000015259f, -0.000686646f, 0.003479004f, -0.011886597f,
+            0.026535034f, -0.105819702f, 0.044784546f, -0.711318970f,
+            1.127746582f, 0.431655884f, 0.134887695f, 0.051132202f,
+            0.031661987f, 0.003005981f, 0.002792358f, 0.000259399f,
+            -0.000015259f, -0.000747681f, 0.003479004f, -0.012939453f,
+            0.025085449f, -0.110946655f, 0.031082153f, -0.738372803f,
+            1.120223999f, 0.404083252f, 0.139450073f, 0.045837402f,
+            0.031387329f, 0.002334595f, 0.002685547f, 0.000244141f,
+            -0.000030518f, -0.000808716f, 0.003463745f, -0.014022827f,
+            0.023422241f, -0.115921021f, 0.016510010f, -0.765029907f,
+            1.111373901f, 0.376800537f, 0.143264771f, 0.040634155f,
+            0.031005859f, 0.001693726f, 0.002578735f, 0.000213623f,
+            -0.000030518f, -0.000885010f, 0.003417969f, -0.015121460f,
+            0.021575928f, -0.120697021f, 0.001068115f, -0.791213989f,
+            1.101211548f, 0.349868774f, 0.146362305f, 0.035552979f,
+            0.030532837f, 0.001098633f, 0.002456665f, 0.000198364f,
+            -0.000030518f, -0.000961304f, 0.003372192f, -0.016235352f,
+            0.019531250f, -0.125259399f, -0.015228271f, -0.816864014f,
+            1.089782715f, 0.323318481f, 0.148773193f, 0.030609131f,
+            0.029937744f, 0.000549316f, 0.002349854f, 0.000167847f,
+            -0.000030518f, -0.001037598f, 0.003280640f, -0.017349243f,
+            0.017257690f, -0.129562378f, -0.032379150f, -0.841949463f,
+            1.077117920f, 0.297210693f, 0.150497437f, 0.025817871f,
+            0.029281616f, 0.000030518f, 0.002243042f, 0.000152588f,
+            -0.000045776f, -0.001113892f, 0.003173828f, -0.018463135f,
+            0.014801025f, -0.133590698f, -0.050354004f, -0.866363525f,
+            1.063217163f, 0.271591187f, 0.151596069f, 0.021179199f,
+            0.028533936f, -0.000442505f, 0.002120972f, 0.000137329f,
+            -0.000045776f, -0.001205444f, 0.003051758f, -0.019577026f,
+            0.012115479f, -0.137298584f, -0.069168091f, -0.890090942f,
+            1.048156738f, 0.246505737f, 0.152069092f, 0.016708374f,
+            0.027725220f, -0.000869751f, 0.002014160f, 0.000122070f,
+            -0.000061035f, -0.001296997f, 0.002883911f, -0.020690918f,
+            0.009231567f, -0.140670776f, -0.088775635f, -0.913055420f,
+            1.031936646f, 0.221984863f, 0.151962280f, 0.012420654f,
+            0.026840210f, -0.001266479f, 0.001907349f, 0.000106812f,
+            -0.000061035f, -0.001388550f, 0.002700806f, -0.021789551f,
+            0.006134033f, -0.143676758f, -0.109161377f, -0.935195923f,
+            1.014617920f, 0.198059082f, 0.151306152f, 0.008316040f,
+            0.025909424f, -0.001617432f, 0.001785278f, 0.000106812f,
+            -0.000076294f, -0.001480103f, 0.002487183f, -0.022857666f,
+            0.002822876f, -0.146255493f, -0.130310059f, -0.956481934f,
+            0.996246338f, 0.174789429f, 0.150115967f, 0.004394531f,
+            0.024932861f, -0.001937866f, 0.001693726f, 0.000091553f,
+            -0.000076294f, -0.001586914f, 0.002227783f, -0.023910522f,
+            -0.000686646f, -0.148422241f, -0.152206421f, -0.976852417f,
+            0.976852417f, 0.152206421f, 0.148422241f, 0.000686646f,
+            0.023910522f, -0.002227783f, 0.001586914f, 0.000076294f,
+            -0.000091553f, -0.001693726f, 0.001937866f, -0.024932861f,
+            -0.004394531f, -0.150115967f, -0.174789429f, -0.996246338f,
+            0.956481934f, 0.130310059f, 0.146255493f, -0.002822876f,
+            0.022857666f, -0.002487183f, 0.001480103f, 0.000076294f,
+            -0.000106812f, -0.001785278f, 0.001617432f, -0.025909424f,
+            -0.008316040f, -0.151306152f, -0.198059082f, -1.014617920f,
+            0.935195923f, 0.109161377f, 0.143676758f, -0.006134033f,
+            0.021789551f, -0.002700806f, 0.001388550f, 0.000061035f,
+            -0.000106812f, -0.001907349f, 0.001266479f, -0.026840210f,
+            -0.012420654f, -0.151962280f, -0.221984863f, -1.031936646f,
+            0.913055420f, 0.088775635f, 0.140670776f, -0.009231567f,
+            0.020690918f, -0.002883911f, 0.001296997f, 0.000061035f,
+            -0.000122070f, -0.002014160f, 0.000869751f, -0.027725220f,
+            -0.016708374f, -0.152069092f, -0.246505737f, -1.048156738f,
+            0.890090942f, 0.069168091f, 0.137298584f, -0.012115479f,
+            0.019577026f, -0.003051758f, 0.001205444f, 0.000045776f,
+            -0.000137329f, -0.002120972f, 0.000442505f, -0.028533936f,
+            -0.021179199f, -0.151596069f, -0.271591187f, -1.063217163f,
+            0.866363525f, 0.050354004f, 0.133590698f, -0.014801025f,
+            0.018463135f, -0.003173828f, 0.001113892f, 0.000045776f,
+            -0.000152588f, -0.002243042f, -0.000030518f, -0.029281616f,
+            -0.025817871f, -0.150497437f, -0.297210693f, -1.077117920f,
+            0.841949463f, 0.032379150f, 0.129562378f, -0.017257690f,
+            0.017349243f, -0.003280640f, 0.001037598f, 0.000030518f,
+            -0.000167847f, -0.002349854f, -0.000549316f, -0.029937744f,
+            -0.030609131f, -0.148773193f, -0.323318481f, -1.089782715f,
+            0.816864014f, 0.015228271f, 0.125259399f, -0.019531250f,
+            0.016235352f, -0.003372192f, 0.000961304f, 0.000030518f,
+            -0.000198364f, -0.002456665f, -0.001098633f, -0.030532837f,
+            -0.035552979f, -0.146362305f, -0.349868774f, -1.101211548f,
+            0.791213989f, -0.001068115f, 0.120697021f, -0.021575928f,
+            0.015121460f, -0.003417969f, 0.000885010f, 0.000030518f,
+            -0.000213623f, -0.002578735f, -0.001693726f, -0.031005859f,
+            -0.040634155f, -0.143264771f, -0.376800537f, -1.111373901f,
+            0.765029907f, -0.016510010f, 0.115921021f, -0.023422241f,
+            0.014022827f, -0.003463745f, 0.000808716f, 0.000030518f,
+            -0.000244141f, -0.002685547f, -0.002334595f, -0.031387329f,
+            -0.045837402f, -0.139450073f, -0.404083252f, -1.120223999f,
+            0.738372803f, -0.031082153f, 0.110946655f, -0.025085449f,
+            0.012939453f, -0.003479004f, 0.000747681f, 0.000015259f,
+            -0.000259399f, -0.002792358f, -0.003005981f, -0.031661987f,
+            -0.051132202f, -0.134887695f, -0.431655884f, -1.127746582f,
+            0.711318970f, -0.044784546f, 0.105819702f, -0.026535034f,
+            0.011886597f, -0.003479004f, 0.000686646f, 0.000015259f,
+            -0.000289917f, -0.002899170f, -0.003723145f, -0.031814575f,
+            -0.056533813f, -0.129577637f, -0.459472656f, -1.133926392f,
+            0.683914185f, -0.057617188f, 0.100540161f, -0.027801514f,
+            0.010848999f, -0.003463745f, 0.000625610f, 0.000015259f,
+            -0.000320435f, -0.002990723f, -0.004486084f, -0.031845093f,
+            -0.061996460f, -0.123474121f, -0.487472534f, -1.138763428f,
+            0.656219482f, -0.069595337f, 0.095169067f, -0.028884888f,
+            0.009841919f, -0.003433228f, 0.000579834f, 0.000015259f,
+            -0.000366211f, -0.003082275f, -0.005294800f, -0.031738281f,
+            -0.067520142f, -0.116577148f, -0.515609741f, -1.142211914f,
+            0.628295898f, -0.080688477f, 0.089706421f, -0.029785156f,
+            0.008865356f, -0.003387451f, 0.000534058f, 0.000015259f,
+            -0.000396729f, -0.003173828f, -0.006118774f, -0.031478882f,
+            -0.073059082f, -0.108856201f, -0.543823242f, -1.144287109f,
+            0.600219727f, -0.090927124f, 0.084182739f, -0.030517578f,
+            0.007919312f, -0.003326416f, 0.000473022f, 0.000015259f
+    };
 
     /**
      * d[] split into subarrays of length 16. This provides for
      * more faster access by allowing a block of 16 to be addressed
      * with constant offset.
      **/
-    private static float[][] d16 = null;
-
-    /**
-     * Loads the data for the d[] from the resource SFd.ser.
-     *
-     * @return the loaded values for d[].
-     */
-    static private float[] load_d() {
-        try {
-            Class<?> elemType = Float.TYPE;
-            Object o = JavaLayerUtils.deserializeArrayResource("sfd.ser", elemType, 512);
-            return (float[]) o;
-        } catch (IOException ex) {
-            throw new ExceptionInInitializerError(ex);
-        }
-    }
+    static final float[][] d16 = splitArray(d, 16);
 
     /**
      * Converts a 1D array into a number of smaller arrays. This is used
@@ -1531,137 +1723,4 @@ final class SynthesisFilter {
 
         return subarray;
     }
-
-    // The original data for d[]. This data is loaded from a file
-    // to reduce the overall package size and to improve performance.
-//    static final float[] d_data = {
-//            0.000000000f, -0.000442505f, 0.003250122f, -0.007003784f,
-//            0.031082153f, -0.078628540f, 0.100311279f, -0.572036743f,
-//            1.144989014f, 0.572036743f, 0.100311279f, 0.078628540f,
-//            0.031082153f, 0.007003784f, 0.003250122f, 0.000442505f,
-//            -0.000015259f, -0.000473022f, 0.003326416f, -0.007919312f,
-//            0.030517578f, -0.084182739f, 0.090927124f, -0.600219727f,
-//            1.144287109f, 0.543823242f, 0.108856201f, 0.073059082f,
-//            0.031478882f, 0.006118774f, 0.003173828f, 0.000396729f,
-//            -0.000015259f, -0.000534058f, 0.003387451f, -0.008865356f,
-//            0.029785156f, -0.089706421f, 0.080688477f, -0.628295898f,
-//            1.142211914f, 0.515609741f, 0.116577148f, 0.067520142f,
-//            0.031738281f, 0.005294800f, 0.003082275f, 0.000366211f,
-//            -0.000015259f, -0.000579834f, 0.003433228f, -0.009841919f,
-//            0.028884888f, -0.095169067f, 0.069595337f, -0.656219482f,
-//            1.138763428f, 0.487472534f, 0.123474121f, 0.061996460f,
-//            0.031845093f, 0.004486084f, 0.002990723f, 0.000320435f,
-//            -0.000015259f, -0.000625610f, 0.003463745f, -0.010848999f,
-//            0.027801514f, -0.100540161f, 0.057617188f, -0.683914185f,
-//            1.133926392f, 0.459472656f, 0.129577637f, 0.056533813f,
-//            0.031814575f, 0.003723145f, 0.002899170f, 0.000289917f,
-//            -0.000015259f, -0.000686646f, 0.003479004f, -0.011886597f,
-//            0.026535034f, -0.105819702f, 0.044784546f, -0.711318970f,
-//            1.127746582f, 0.431655884f, 0.134887695f, 0.051132202f,
-//            0.031661987f, 0.003005981f, 0.002792358f, 0.000259399f,
-//            -0.000015259f, -0.000747681f, 0.003479004f, -0.012939453f,
-//            0.025085449f, -0.110946655f, 0.031082153f, -0.738372803f,
-//            1.120223999f, 0.404083252f, 0.139450073f, 0.045837402f,
-//            0.031387329f, 0.002334595f, 0.002685547f, 0.000244141f,
-//            -0.000030518f, -0.000808716f, 0.003463745f, -0.014022827f,
-//            0.023422241f, -0.115921021f, 0.016510010f, -0.765029907f,
-//            1.111373901f, 0.376800537f, 0.143264771f, 0.040634155f,
-//            0.031005859f, 0.001693726f, 0.002578735f, 0.000213623f,
-//            -0.000030518f, -0.000885010f, 0.003417969f, -0.015121460f,
-//            0.021575928f, -0.120697021f, 0.001068115f, -0.791213989f,
-//            1.101211548f, 0.349868774f, 0.146362305f, 0.035552979f,
-//            0.030532837f, 0.001098633f, 0.002456665f, 0.000198364f,
-//            -0.000030518f, -0.000961304f, 0.003372192f, -0.016235352f,
-//            0.019531250f, -0.125259399f, -0.015228271f, -0.816864014f,
-//            1.089782715f, 0.323318481f, 0.148773193f, 0.030609131f,
-//            0.029937744f, 0.000549316f, 0.002349854f, 0.000167847f,
-//            -0.000030518f, -0.001037598f, 0.003280640f, -0.017349243f,
-//            0.017257690f, -0.129562378f, -0.032379150f, -0.841949463f,
-//            1.077117920f, 0.297210693f, 0.150497437f, 0.025817871f,
-//            0.029281616f, 0.000030518f, 0.002243042f, 0.000152588f,
-//            -0.000045776f, -0.001113892f, 0.003173828f, -0.018463135f,
-//            0.014801025f, -0.133590698f, -0.050354004f, -0.866363525f,
-//            1.063217163f, 0.271591187f, 0.151596069f, 0.021179199f,
-//            0.028533936f, -0.000442505f, 0.002120972f, 0.000137329f,
-//            -0.000045776f, -0.001205444f, 0.003051758f, -0.019577026f,
-//            0.012115479f, -0.137298584f, -0.069168091f, -0.890090942f,
-//            1.048156738f, 0.246505737f, 0.152069092f, 0.016708374f,
-//            0.027725220f, -0.000869751f, 0.002014160f, 0.000122070f,
-//            -0.000061035f, -0.001296997f, 0.002883911f, -0.020690918f,
-//            0.009231567f, -0.140670776f, -0.088775635f, -0.913055420f,
-//            1.031936646f, 0.221984863f, 0.151962280f, 0.012420654f,
-//            0.026840210f, -0.001266479f, 0.001907349f, 0.000106812f,
-//            -0.000061035f, -0.001388550f, 0.002700806f, -0.021789551f,
-//            0.006134033f, -0.143676758f, -0.109161377f, -0.935195923f,
-//            1.014617920f, 0.198059082f, 0.151306152f, 0.008316040f,
-//            0.025909424f, -0.001617432f, 0.001785278f, 0.000106812f,
-//            -0.000076294f, -0.001480103f, 0.002487183f, -0.022857666f,
-//            0.002822876f, -0.146255493f, -0.130310059f, -0.956481934f,
-//            0.996246338f, 0.174789429f, 0.150115967f, 0.004394531f,
-//            0.024932861f, -0.001937866f, 0.001693726f, 0.000091553f,
-//            -0.000076294f, -0.001586914f, 0.002227783f, -0.023910522f,
-//            -0.000686646f, -0.148422241f, -0.152206421f, -0.976852417f,
-//            0.976852417f, 0.152206421f, 0.148422241f, 0.000686646f,
-//            0.023910522f, -0.002227783f, 0.001586914f, 0.000076294f,
-//            -0.000091553f, -0.001693726f, 0.001937866f, -0.024932861f,
-//            -0.004394531f, -0.150115967f, -0.174789429f, -0.996246338f,
-//            0.956481934f, 0.130310059f, 0.146255493f, -0.002822876f,
-//            0.022857666f, -0.002487183f, 0.001480103f, 0.000076294f,
-//            -0.000106812f, -0.001785278f, 0.001617432f, -0.025909424f,
-//            -0.008316040f, -0.151306152f, -0.198059082f, -1.014617920f,
-//            0.935195923f, 0.109161377f, 0.143676758f, -0.006134033f,
-//            0.021789551f, -0.002700806f, 0.001388550f, 0.000061035f,
-//            -0.000106812f, -0.001907349f, 0.001266479f, -0.026840210f,
-//            -0.012420654f, -0.151962280f, -0.221984863f, -1.031936646f,
-//            0.913055420f, 0.088775635f, 0.140670776f, -0.009231567f,
-//            0.020690918f, -0.002883911f, 0.001296997f, 0.000061035f,
-//            -0.000122070f, -0.002014160f, 0.000869751f, -0.027725220f,
-//            -0.016708374f, -0.152069092f, -0.246505737f, -1.048156738f,
-//            0.890090942f, 0.069168091f, 0.137298584f, -0.012115479f,
-//            0.019577026f, -0.003051758f, 0.001205444f, 0.000045776f,
-//            -0.000137329f, -0.002120972f, 0.000442505f, -0.028533936f,
-//            -0.021179199f, -0.151596069f, -0.271591187f, -1.063217163f,
-//            0.866363525f, 0.050354004f, 0.133590698f, -0.014801025f,
-//            0.018463135f, -0.003173828f, 0.001113892f, 0.000045776f,
-//            -0.000152588f, -0.002243042f, -0.000030518f, -0.029281616f,
-//            -0.025817871f, -0.150497437f, -0.297210693f, -1.077117920f,
-//            0.841949463f, 0.032379150f, 0.129562378f, -0.017257690f,
-//            0.017349243f, -0.003280640f, 0.001037598f, 0.000030518f,
-//            -0.000167847f, -0.002349854f, -0.000549316f, -0.029937744f,
-//            -0.030609131f, -0.148773193f, -0.323318481f, -1.089782715f,
-//            0.816864014f, 0.015228271f, 0.125259399f, -0.019531250f,
-//            0.016235352f, -0.003372192f, 0.000961304f, 0.000030518f,
-//            -0.000198364f, -0.002456665f, -0.001098633f, -0.030532837f,
-//            -0.035552979f, -0.146362305f, -0.349868774f, -1.101211548f,
-//            0.791213989f, -0.001068115f, 0.120697021f, -0.021575928f,
-//            0.015121460f, -0.003417969f, 0.000885010f, 0.000030518f,
-//            -0.000213623f, -0.002578735f, -0.001693726f, -0.031005859f,
-//            -0.040634155f, -0.143264771f, -0.376800537f, -1.111373901f,
-//            0.765029907f, -0.016510010f, 0.115921021f, -0.023422241f,
-//            0.014022827f, -0.003463745f, 0.000808716f, 0.000030518f,
-//            -0.000244141f, -0.002685547f, -0.002334595f, -0.031387329f,
-//            -0.045837402f, -0.139450073f, -0.404083252f, -1.120223999f,
-//            0.738372803f, -0.031082153f, 0.110946655f, -0.025085449f,
-//            0.012939453f, -0.003479004f, 0.000747681f, 0.000015259f,
-//            -0.000259399f, -0.002792358f, -0.003005981f, -0.031661987f,
-//            -0.051132202f, -0.134887695f, -0.431655884f, -1.127746582f,
-//            0.711318970f, -0.044784546f, 0.105819702f, -0.026535034f,
-//            0.011886597f, -0.003479004f, 0.000686646f, 0.000015259f,
-//            -0.000289917f, -0.002899170f, -0.003723145f, -0.031814575f,
-//            -0.056533813f, -0.129577637f, -0.459472656f, -1.133926392f,
-//            0.683914185f, -0.057617188f, 0.100540161f, -0.027801514f,
-//            0.010848999f, -0.003463745f, 0.000625610f, 0.000015259f,
-//            -0.000320435f, -0.002990723f, -0.004486084f, -0.031845093f,
-//            -0.061996460f, -0.123474121f, -0.487472534f, -1.138763428f,
-//            0.656219482f, -0.069595337f, 0.095169067f, -0.028884888f,
-//            0.009841919f, -0.003433228f, 0.000579834f, 0.000015259f,
-//            -0.000366211f, -0.003082275f, -0.005294800f, -0.031738281f,
-//            -0.067520142f, -0.116577148f, -0.515609741f, -1.142211914f,
-//            0.628295898f, -0.080688477f, 0.089706421f, -0.029785156f,
-//            0.008865356f, -0.003387451f, 0.000534058f, 0.000015259f,
-//            -0.000396729f, -0.003173828f, -0.006118774f, -0.031478882f,
-//            -0.073059082f, -0.108856201f, -0.543823242f, -1.144287109f,
-//            0.600219727f, -0.090927124f, 0.084182739f, -0.030517578f,
-//            0.007919312f, -0.003326416f, 0.000473022f, 0.000015259f
-//    };
 }
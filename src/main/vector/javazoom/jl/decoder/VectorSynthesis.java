@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package javazoom.jl.decoder;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+
+/**
+ * The windowing of {@link SynthesisFilter} by the Vector API.
+ * <p>
+ * This class is loaded only when the module {@code jdk.incubator.vector} is present,
+ * by reflection, it is compiled apart from the other classes with the module, see pom.xml.
+ * The v buffers are transposed, {@code v[16 * i + j]} of the scalar code is {@code v[32 * j + i]},
+ * so the 32 PCM samples are computed in the lanes, each lane adds the 16 taps in the same
+ * order as the scalar code, the results are bit exact.
+ * <p>
+ * The DCT is not vectorized, its butterflies within blocks of 16 to 2 values need lane
+ * shuffles, they are slower than the scalar code.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026/10/18 nsano initial version <br>
+ */
+final class VectorSynthesis implements SynthesisFilter.Windowing {
+
+    /** created by {@code SynthesisFilter.Vector} */
+    VectorSynthesis() {
+    }
+
+    /** 32 floats are 1, 2 or more vectors */
+    private static final VectorSpecies<Float> SPECIES = species(FloatVector.SPECIES_PREFERRED);
+
+    /**
+     * Returns the species whose lanes divide 32, the preferred one unless it is
+     * longer than 32 floats or e.g. 12 floats of 384 bit SVE.
+     */
+    static VectorSpecies<Float> species(VectorSpecies<Float> preferred) {
+        int bits = bitSize(preferred.vectorBitSize());
+        return bits == preferred.vectorBitSize() ? preferred : VectorSpecies.of(float.class, VectorShape.forBitSize(bits));
+    }
+
+    /**
+     * Returns the bit size of the species of {@link #species}.
+     *
+     * @param preferred the bit size of the preferred species
+     */
+    static int bitSize(int preferred) {
+        int lanes = preferred / Float.SIZE;
+        if (lanes > 32)
+            return 512;
+        if (32 % lanes != 0)
+            return preferred >= 256 ? 256 : 128;
+        return preferred;
+    }
+
+    /**
+     * d of the scalar code transposed, {@code d16[i][k]} is {@code D[32 * k + i]}.
+     */
+    private static final float[] D = new float[512];
+
+    static {
+        for (int i = 0; i < 32; i++)
+            for (int k = 0; k < 16; k++)
+                D[32 * k + i] = SynthesisFilter.d16[i][k];
+    }
+
+    /**
+     * Computes 32 PCM samples, same as {@code SynthesisFilter#computePcmSamples0..15()}.
+     *
+     * @param v      the actual v, transposed
+     * @param pos    the write position
+     * @param factor the scale factor
+     * @param out    32 PCM samples
+     */
+    @Override
+    public void computePcmSamples(float[] v, int pos, float factor, float[] out) {
+        for (int o = 0; o < 32; o += SPECIES.length()) {
+            FloatVector pcm = FloatVector.fromArray(SPECIES, v, 32 * pos + o)
+                    .mul(FloatVector.fromArray(SPECIES, D, o));
+            for (int k = 1; k < 16; k++) {
+                pcm = pcm.add(FloatVector.fromArray(SPECIES, v, 32 * ((pos - k) & 0xf) + o)
+                        .mul(FloatVector.fromArray(SPECIES, D, 32 * k + o)));
+            }
+            pcm.mul(factor).intoArray(out, o);
+        }
+    }
+}
@@ -0,0 +1,347 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package javazoom.jl.converter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.ShortBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javazoom.jl.decoder.Bitstream;
+import javazoom.jl.decoder.Decoder;
+import javazoom.jl.decoder.Fixture;
+import javazoom.jl.decoder.FrameIndex;
+import javazoom.jl.decoder.Header;
+import javazoom.jl.decoder.Obuffer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Converter unit test.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026/10/18 nsano initial version <br>
+ */
+class ConverterTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testMappedFile() throws Exception {
+        Fixture fixture = Fixture.MP3_44K_VBR_JOINT;
+        Path in = dir.resolve("in.mp3");
+        Files.write(in, fixture.data());
+        Path mapped = dir.resolve("mapped.wav");
+        Path streamed = dir.resolve("streamed.wav");
+
+        int[] frames = new int[1];
+        Converter.ProgressListener listener = new Converter.PrintWriterProgressListener(null, Converter.PrintWriterProgressListener.NO_DETAIL) {
+            @Override
+            public void converterUpdate(int updateID, int param1, int param2) {
+                if (updateID == UPDATE_FRAME_COUNT)
+                    frames[0] = param1;
+            }
+        };
+
+        Converter converter = new Converter();
+        converter.convert(in.toString(), mapped.toString(), listener, null);
+        assertEquals(Fixture.FRAMES + 1, frames[0]); // with the xing frame
+        converter.convert(new ByteArrayInputStream(fixture.data()), streamed.toString(), listener, null);
+
+        assertArrayEquals(Files.readAllBytes(streamed), Files.readAllBytes(mapped));
+    }
+
+    @Test
+    void testParallel() throws Exception {
+        Converter.ProgressListener listener = new Converter.PrintWriterProgressListener(null, Converter.PrintWriterProgressListener.NO_DETAIL);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (Fixture fixture : Fixture.values()) {
+                Path in = dir.resolve(fixture.name() + ".mp3");
+                Files.write(in, fixture.data());
+                Path sequential = dir.resolve(fixture.name() + ".wav");
+                Path parallel = dir.resolve(fixture.name() + ".parallel.wav");
+
+                new Converter().convert(in.toString(), sequential.toString(), listener, null);
+                // segments smaller than the bit reservoir of low bitrates
+                new Converter(pool, 3).convert(in.toString(), parallel.toString(), listener, null);
+
+                assertArrayEquals(Files.readAllBytes(sequential), Files.readAllBytes(parallel), fixture.name());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testBatch() throws Exception {
+        Path src = dir.resolve("src");
+        Path out = dir.resolve("out");
+        Converter.ProgressListener listener = new Converter.PrintWriterProgressListener(null, Converter.PrintWriterProgressListener.NO_DETAIL);
+        for (Fixture fixture : Fixture.values()) {
+            Path in = src.resolve(fixture.name().toLowerCase().replace('_', '/') + ".mp3");
+            Files.createDirectories(in.getParent());
+            Files.write(in, fixture.data());
+        }
+        Files.write(src.resolve("broken.mp3"), new byte[0]); // no frames is not a failure
+        Files.write(src.resolve("readme.txt"), new byte[1]);
+
+        List<Path> sources;
+        try (Stream<Path> s = BatchConverter.find(src, "*.mp3")) {
+            sources = s.collect(Collectors.toList());
+        }
+        assertEquals(Fixture.values().length + 1, sources.size());
+
+        BatchConverter.Stats stats = new BatchConverter(3).convert(sources,
+                BatchConverter.destinations(src, out), p -> listener, null);
+
+        assertEquals(sources.size(), stats.files());
+        assertEquals(0, stats.failed());
+        assertTrue(stats.frames() >= (long) Fixture.values().length * Fixture.FRAMES);
+        for (Fixture fixture : Fixture.values()) {
+            String name = fixture.name().toLowerCase().replace('_', '/');
+            Path in = src.resolve(name + ".mp3");
+            Path expected = dir.resolve(fixture.name() + ".wav");
+            new Converter().convert(in.toString(), expected.toString(), listener, null);
+
+            assertArrayEquals(Files.readAllBytes(expected), Files.readAllBytes(out.resolve(name + ".wav")), fixture.name());
+        }
+    }
+
+    @Test
+    void testFormats() throws Exception {
+        Converter.ProgressListener listener = new Converter.PrintWriterProgressListener(null, Converter.PrintWriterProgressListener.NO_DETAIL);
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            for (Fixture fixture : new Fixture[] {Fixture.MP3_44K_128_JOINT, Fixture.MP2_44K_96_MONO}) {
+                Path in = dir.resolve(fixture.name() + ".mp3");
+                Files.write(in, fixture.data());
+                Path wav = dir.resolve(fixture.name() + ".wav");
+                Path s16 = dir.resolve(fixture.name() + ".s16");
+                Path f32 = dir.resolve(fixture.name() + ".f32");
+
+                new Converter().convert(in.toString(), wav.toString(), listener, null);
+                // raw PCM is converted sequentially
+                Converter converter = new Converter(pool);
+                converter.setFormat(Converter.Format.S16LE);
+                converter.convert(in.toString(), s16.toString(), listener, null);
+                converter.setFormat(Converter.Format.F32LE);
+                converter.convert(in.toString(), f32.toString(), listener, null);
+
+                byte[] wavBytes = Files.readAllBytes(wav);
+                byte[] s16Bytes = Files.readAllBytes(s16);
+                assertArrayEquals(Arrays.copyOfRange(wavBytes, WaveFileWriter.HEADER_SIZE, wavBytes.length), s16Bytes, fixture.name());
+
+                // the floats are not clipped, they are the shorts scaled by a power of two before clipping
+                ShortBuffer shorts = ByteBuffer.wrap(s16Bytes).order(ByteOrder.LITTLE_ENDIAN).asShortBuffer();
+                FloatBuffer floats = ByteBuffer.wrap(Files.readAllBytes(f32)).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+                assertEquals(shorts.remaining(), floats.remaining(), fixture.name());
+                while (shorts.hasRemaining()) {
+                    float sample = floats.get() * 32768.0f;
+                    short expected = sample > 32767.0f ? 32767 : sample < -32768.0f ? -32768 : (short) sample;
+                    assertEquals(expected, shorts.get(), fixture.name());
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testOutputStream() throws Exception {
+        Fixture fixture = Fixture.MP3_44K_128_JOINT;
+        Converter.ProgressListener listener = new Converter.PrintWriterProgressListener(null, Converter.PrintWriterProgressListener.NO_DETAIL);
+        Path in = dir.resolve("in.mp3");
+        Files.write(in, fixture.data());
+        Path s16 = dir.resolve("out.s16");
+        Converter converter = new Converter();
+        converter.setFormat(Converter.Format.S16LE);
+        converter.convert(in.toString(), s16.toString(), listener, null);
+
+        // a buffer smaller than a frame
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RawPcmObuffer output = new RawPcmObuffer(2, out, RawPcmObuffer.Encoding.S16LE, 1000);
+        Decoder decoder = new Decoder();
+        decoder.setOutputBuffer(output);
+        Bitstream stream = new Bitstream(new ByteArrayInputStream(fixture.data()));
+        Header header;
+        while ((header = stream.readFrame()) != null) {
+            decoder.decodeFrame(header, stream);
+            stream.closeFrame();
+        }
+        output.close();
+
+        assertArrayEquals(Files.readAllBytes(s16), out.toByteArray());
+    }
+
+    @Test
+    void testBatchRoots() throws Exception {
+        Path music = dir.resolve("music");
+        Path out = dir.resolve("out");
+        Converter.ProgressListener listener = new Converter.PrintWriterProgressListener(null, Converter.PrintWriterProgressListener.NO_DETAIL);
+        byte[] data = Fixture.MP2_44K_96_MONO.data();
+        for (String name : new String[] {"a/x/1.mp3", "b/2.mp3", "c.mp3"}) {
+            Path in = music.resolve(name);
+            Files.createDirectories(in.getParent());
+            Files.write(in, data);
+        }
+
+        // as jlc, the sources are mirrored relative to their own roots, a file is put directly in the output
+        List<Map.Entry<Path, Path>> jobs = new ArrayList<>();
+        for (Path root : new Path[] {music.resolve("a"), music.resolve("b")}) {
+            try (Stream<Path> s = BatchConverter.find(root, "*.mp3")) {
+                s.forEach(p -> jobs.add(Map.entry(root, p)));
+            }
+        }
+        jobs.add(Map.entry(music, music.resolve("c.mp3")));
+        // not in its root
+        jobs.add(Map.entry(music.resolve("a"), music.resolve("c.mp3")));
+
+        BatchConverter.Stats stats = new BatchConverter(2).convert(jobs, Map.Entry::getValue,
+                e -> BatchConverter.destinations(e.getKey(), out).apply(e.getValue()), p -> listener, null);
+
+        assertEquals(3, stats.files());
+        assertEquals(1, stats.failed());
+        assertTrue(Files.isRegularFile(out.resolve("x/1.wav")));
+        assertTrue(Files.isRegularFile(out.resolve("2.wav")));
+        assertTrue(Files.isRegularFile(out.resolve("c.wav")));
+        try (Stream<Path> s = Files.list(dir)) {
+            assertEquals(Set.of(music, out), s.collect(Collectors.toSet()));
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> BatchConverter.destinations(music.resolve("a"), out).apply(music.resolve("b/2.mp3")));
+
+        // a failing listener is counted
+        stats = new BatchConverter(1).convert(List.of(music.resolve("c.mp3")), BatchConverter.destinations(null, null),
+                p -> { throw new IllegalStateException(p.toString()); }, null);
+        assertEquals(0, stats.files());
+        assertEquals(1, stats.failed());
+    }
+
+    @Test
+    void testBatchInterrupted() throws Exception {
+        Path in = dir.resolve("in.mp3");
+        Files.write(in, Fixture.MP2_44K_96_MONO.data());
+        Converter.ProgressListener listener = new Converter.PrintWriterProgressListener(null, Converter.PrintWriterProgressListener.NO_DETAIL);
+
+        // interrupted while waiting for the queue
+        Iterable<Path> sources = () -> Stream.generate(() -> {
+            Thread.currentThread().interrupt();
+            return in;
+        }).iterator();
+        assertThrows(InterruptedException.class, () -> new BatchConverter(1).convert(sources,
+                BatchConverter.destinations(null, null), p -> listener, null));
+        assertFalse(Thread.interrupted());
+    }
+
+    @Test
+    void testBatchUnreadable() throws Exception {
+        Path music = dir.resolve("music");
+        Converter.ProgressListener listener = new Converter.PrintWriterProgressListener(null, Converter.PrintWriterProgressListener.NO_DETAIL);
+        byte[] data = Fixture.MP2_44K_96_MONO.data();
+        for (String name : new String[] {"a/1.mp3", "b/2.mp3", "locked/3.mp3", "z/4.mp3"}) {
+            Path in = music.resolve(name);
+            Files.createDirectories(in.getParent());
+            Files.write(in, data);
+        }
+        // a directory not permitted, it is readable still by the root
+        Path locked = music.resolve("locked");
+        Files.setPosixFilePermissions(locked, Set.of());
+        boolean readable = Files.isReadable(locked);
+        // a directory which cannot be walked by any user, a link to an ancestor
+        Files.createSymbolicLink(music.resolve("b/loop"), music);
+
+        try (Stream<Path> sources = BatchConverter.find(music, "*.mp3")) {
+            BatchConverter.Stats stats = new BatchConverter(2).convert(sources::iterator,
+                    BatchConverter.destinations(null, null), p -> listener, null);
+
+            assertEquals(readable ? 4 : 3, stats.files());
+            assertEquals(readable ? 1 : 2, stats.failed());
+            assertTrue(Files.isRegularFile(music.resolve("a/1.wav")));
+            assertTrue(Files.isRegularFile(music.resolve("z/4.wav")));
+        } finally {
+            Files.setPosixFilePermissions(locked, PosixFilePermissions.fromString("rwx------"));
+        }
+    }
+
+    @Test
+    void testParallelFailure() throws Exception {
+        Fixture fixture = Fixture.MP1_44K_384_STEREO;
+        Path clean = dir.resolve("clean.mp3");
+        Files.write(clean, fixture.data());
+        // a copy, the data of the fixture is shared by the tests
+        byte[] data = fixture.data().clone();
+        // the bit allocations of frames 10 to 19 are invalid, the segments of frames 8 to 23 fail
+        FrameIndex index = FrameIndex.build(ByteBuffer.wrap(data));
+        for (int frame = 10; frame < 20; frame++)
+            Arrays.fill(data, (int) index.position(frame) + 4, (int) index.position(frame) + 20, (byte) 0xff);
+        Path broken = dir.resolve("broken.mp3");
+        Files.write(broken, data);
+
+        int[] counts = new int[3];
+        Converter.ProgressListener listener = new Converter.PrintWriterProgressListener(null, Converter.PrintWriterProgressListener.NO_DETAIL) {
+            @Override
+            public void readFrame(int frameNo, Header header) {
+                assertEquals(counts[0]++, frameNo);
+            }
+
+            @Override
+            public void decodedFrame(int frameNo, Header header, Obuffer o) {
+                counts[1]++;
+            }
+
+            @Override
+            public boolean converterException(Throwable t) {
+                counts[2]++;
+                return true;
+            }
+        };
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            Path expected = dir.resolve("clean.wav");
+            Path actual = dir.resolve("broken.wav");
+            new Converter(pool, 8).convert(clean.toString(), expected.toString(), listener, null);
+            assertArrayEquals(new int[] {index.size(), index.size(), 0}, counts);
+            Arrays.fill(counts, 0);
+            new Converter(pool, 8).convert(broken.toString(), actual.toString(), listener, null);
+            assertArrayEquals(new int[] {index.size(), index.size() - 16, 2}, counts);
+
+            // the failed segments are silence, the others are not shifted
+            byte[] expectedBytes = Files.readAllBytes(expected);
+            byte[] actualBytes = Files.readAllBytes(actual);
+            assertEquals(expectedBytes.length, actualBytes.length);
+            int start = WaveFileWriter.HEADER_SIZE + (int) index.sample(8) * 2 * 2;
+            int end = WaveFileWriter.HEADER_SIZE + (int) index.sample(24) * 2 * 2;
+            assertArrayEquals(Arrays.copyOf(expectedBytes, start), Arrays.copyOf(actualBytes, start));
+            assertArrayEquals(new byte[end - start], Arrays.copyOfRange(actualBytes, start, end));
+            assertArrayEquals(Arrays.copyOfRange(expectedBytes, end, expectedBytes.length), Arrays.copyOfRange(actualBytes, end, actualBytes.length));
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
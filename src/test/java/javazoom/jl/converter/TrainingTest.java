@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package javazoom.jl.converter;
+
+import java.io.ByteArrayInputStream;
+
+import javazoom.jl.decoder.Bitstream;
+import javazoom.jl.decoder.Decoder;
+import javazoom.jl.decoder.Header;
+import javazoom.jl.decoder.SampleBuffer;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+
+/**
+ * Training unit test.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026/10/18 nsano initial version <br>
+ */
+class TrainingTest {
+
+    @Test
+    void testSilence() throws Exception {
+        for (int layer = 1; layer <= 3; layer++) {
+            Bitstream bitstream = new Bitstream(new ByteArrayInputStream(Training.silence(layer, Training.FRAMES)));
+            Decoder decoder = new Decoder();
+            int frames = 0;
+            Header header;
+            while ((header = bitstream.readFrame()) != null) {
+                assertEquals(layer, header.layer());
+                assertEquals(Training.FRAME_SIZES[layer - 1], header.calculateFrameSize() + 4);
+                SampleBuffer output = (SampleBuffer) decoder.decodeFrame(header, bitstream);
+                for (int i = 0; i < output.getBufferLength(); i++)
+                    assertEquals(0, output.getBuffer()[i], "layer " + layer);
+                bitstream.closeFrame();
+                frames++;
+            }
+            assertEquals(Training.FRAMES, frames, "layer " + layer);
+        }
+    }
+
+    @Test
+    void testMain() throws Exception {
+        Training.main(new String[0]);
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package javazoom.jl.converter;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * WaveFileWriter unit test.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026/10/18 nsano initial version <br>
+ */
+class WaveFileWriterTest {
+
+    @TempDir
+    Path dir;
+
+    /** frames of random samples, 1152 samples per channel */
+    static short[] samples(int channels) {
+        short[] samples = new short[1152 * channels * 10];
+        Random random = new Random(channels);
+        for (int i = 0; i < samples.length; i++)
+            samples[i] = (short) random.nextInt();
+        return samples;
+    }
+
+    /** Writes the samples as WaveFileObuffer did, a frame at a time. */
+    static void write(WaveFileWriter writer, short[] samples, int channels) throws Exception {
+        for (int i = 0; i < samples.length; i += 1152 * channels)
+            writer.write(samples, i, 1152 * channels);
+    }
+
+    @Test
+    void testSameAsWaveFile() throws Exception {
+        for (int channels = 1; channels <= 2; channels++) {
+            short[] samples = samples(channels);
+            Path expected = dir.resolve("expected" + channels + ".wav");
+            WaveFile wave = new WaveFile();
+            assertEquals(RiffFile.DDC_SUCCESS, wave.openForWrite(expected.toString(), 22050, (short) 16, (short) channels));
+            for (int i = 0; i < samples.length; i += 1152 * channels)
+                wave.writeData(Arrays.copyOfRange(samples, i, i + 1152 * channels), 1152 * channels);
+            assertEquals(RiffFile.DDC_SUCCESS, wave.close());
+
+            // the default, a buffer smaller than a frame and an odd size
+            for (int bufferSize : new int[] {WaveFileWriter.DEFAULT_BUFFER_SIZE, 1000, WaveFileWriter.HEADER_SIZE + 1}) {
+                Path actual = dir.resolve("actual" + channels + "_" + bufferSize + ".wav");
+                try (WaveFileWriter writer = new WaveFileWriter(actual, 22050, channels, bufferSize)) {
+                    assertFalse(writer.isStreaming());
+                    write(writer, samples, channels);
+                    assertEquals(samples.length * 2L, writer.dataSize());
+                }
+                assertArrayEquals(Files.readAllBytes(expected), Files.readAllBytes(actual), channels + ": " + bufferSize);
+            }
+        }
+    }
+
+    @Test
+    void testStreaming() throws Exception {
+        short[] samples = samples(2);
+        Path file = dir.resolve("file.wav");
+        try (WaveFileWriter writer = new WaveFileWriter(file, 44100, 2)) {
+            write(writer, samples, 2);
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (WaveFileWriter writer = new WaveFileWriter(Channels.newChannel(out), 44100, 2, 4096)) {
+            assertTrue(writer.isStreaming());
+            write(writer, samples, 2);
+        }
+
+        byte[] expected = Files.readAllBytes(file);
+        byte[] actual = out.toByteArray();
+        assertEquals(expected.length, actual.length);
+        ByteBuffer header = ByteBuffer.wrap(actual).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(WaveFileWriter.UNKNOWN_SIZE, header.getInt(4));
+        assertEquals(WaveFileWriter.UNKNOWN_SIZE, header.getInt(40));
+        ByteBuffer.wrap(expected).order(ByteOrder.LITTLE_ENDIAN).putInt(4, WaveFileWriter.UNKNOWN_SIZE).putInt(40, WaveFileWriter.UNKNOWN_SIZE);
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    void testPosition() throws Exception {
+        short[] samples = samples(1);
+        Path file = dir.resolve("file.wav");
+        try (WaveFileWriter writer = new WaveFileWriter(file, 8000, 1)) {
+            write(writer, samples, 1);
+        }
+
+        Path appended = dir.resolve("appended.wav");
+        byte[] prefix = {1, 2, 3};
+        Files.write(appended, prefix);
+        FileChannel channel = FileChannel.open(appended, StandardOpenOption.WRITE);
+        channel.position(prefix.length);
+        try (WaveFileWriter writer = new WaveFileWriter(channel, 8000, 1, 1024)) {
+            write(writer, samples, 1);
+        }
+
+        byte[] actual = Files.readAllBytes(appended);
+        assertArrayEquals(prefix, Arrays.copyOf(actual, prefix.length));
+        assertArrayEquals(Files.readAllBytes(file), Arrays.copyOfRange(actual, prefix.length, actual.length));
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package javazoom.jl.decoder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * DecodeSession unit test.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026/10/18 nsano initial version <br>
+ */
+class DecodeSessionTest {
+
+    /** Decodes the whole session, returns the digest of the pcm. */
+    static String decode(DecodeSession session) throws Exception {
+        MessageDigest md = MessageDigest.getInstance("MD5");
+        session.run((pcm, length, header) -> {
+            for (int i = 0; i < length; i++) {
+                md.update((byte) pcm[i]);
+                md.update((byte) (pcm[i] >> 8));
+            }
+        });
+        return HexFormat.of().formatHex(md.digest());
+    }
+
+    @Test
+    void testDecode() throws Exception {
+        for (Fixture fixture : Fixture.values()) {
+            String expected = DecoderTest.decode(fixture);
+            try (DecodeSession session = new DecodeSession(new InputStreamSource(fixture.open()))) {
+                assertEquals(expected, decode(session), fixture.name());
+                assertTrue(session.frames() >= Fixture.FRAMES, fixture.name());
+            }
+            try (DecodeSession session = new DecodeSession(ByteBuffer.wrap(fixture.data()), null)) {
+                assertEquals(expected, decode(session), fixture.name());
+            }
+        }
+    }
+
+    @Test
+    void testConsumerException() throws Exception {
+        try (DecodeSession session = new DecodeSession(new InputStreamSource(Fixture.MP3_44K_320_STEREO.open()))) {
+            IOException e = new IOException("disconnected");
+            try {
+                session.run((pcm, length, header) -> {
+                    throw e;
+                });
+            } catch (IOException ex) {
+                assertEquals(e, ex);
+            }
+            assertEquals(1, session.frames());
+        }
+    }
+
+    @Test
+    void testCloseWhileReading() throws Exception {
+        byte[] data = Fixture.MP3_44K_320_STEREO.data();
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch closed = new CountDownLatch(1);
+        // a network stream, half of the data arrives then it stalls
+        InputStream in = new InputStream() {
+            int p;
+
+            @Override
+            public int read() throws IOException {
+                byte[] b = new byte[1];
+                return read(b, 0, 1) < 0 ? -1 : b[0] & 0xff;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                if (p >= data.length / 2) {
+                    blocked.countDown();
+                    try {
+                        closed.await();
+                    } catch (InterruptedException ex) {
+                        throw new IOException(ex);
+                    }
+                    throw new IOException("closed");
+                }
+                int l = Math.min(len, data.length / 2 - p);
+                System.arraycopy(data, p, b, off, l);
+                p += l;
+                return l;
+            }
+
+            @Override
+            public void close() {
+                closed.countDown();
+            }
+        };
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            DecodeSession session = new DecodeSession(new InputStreamSource(in));
+            Future<Integer> future = executor.submit(() -> session.run((pcm, length, header) -> {}));
+            assertTrue(blocked.await(10, TimeUnit.SECONDS));
+            session.close();
+
+            int frames = future.get(10, TimeUnit.SECONDS);
+            assertTrue(frames > 0 && frames < Fixture.FRAMES, String.valueOf(frames));
+            assertTrue(session.isClosed());
+            assertFalse(session.next((pcm, length, header) -> {}));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
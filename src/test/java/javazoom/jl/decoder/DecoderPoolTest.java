@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package javazoom.jl.decoder;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+
+/**
+ * DecoderPool unit test.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026/10/18 nsano initial version <br>
+ */
+class DecoderPoolTest {
+
+    /** Decodes the frames of the stream by the decoder, returns the digest of the pcm. */
+    static String decode(Decoder decoder, Bitstream bitstream, int frames) throws Exception {
+        MessageDigest md = MessageDigest.getInstance("MD5");
+        Header header;
+        while (frames-- > 0 && (header = bitstream.readFrame()) != null) {
+            SampleBuffer output = (SampleBuffer) decoder.decodeFrame(header, bitstream);
+            short[] buffer = output.getBuffer();
+            for (int i = 0; i < output.getBufferLength(); i++) {
+                md.update((byte) buffer[i]);
+                md.update((byte) (buffer[i] >> 8));
+            }
+            bitstream.closeFrame();
+        }
+        return HexFormat.of().formatHex(md.digest());
+    }
+
+    @Test
+    void testReset() throws Exception {
+        Fixture[] fixtures = Fixture.values();
+        Decoder decoder = new Decoder();
+        Bitstream bitstream = new Bitstream(Fixture.MP3_44K_VBR_JOINT.open());
+        // half of a stream is left in the state, the formats change every time
+        decode(decoder, bitstream, Fixture.FRAMES / 2);
+        for (int i = 0; i < fixtures.length * 2; i++) {
+            Fixture fixture = fixtures[(i * 7) % fixtures.length];
+            if (i % 2 == 0)
+                bitstream.reset(fixture.open());
+            else
+                bitstream.reset(ByteBuffer.wrap(fixture.data()));
+            decoder.reset();
+
+            assertEquals(DecoderTest.decode(fixture), decode(decoder, bitstream, Integer.MAX_VALUE), fixture.name());
+        }
+    }
+
+    @Test
+    void testPool() throws Exception {
+        DecoderPool pool = new DecoderPool(2);
+        Decoder decoder;
+        Bitstream bitstream;
+        try (DecoderPool.Lease lease = pool.acquire(Fixture.MP3_44K_128_JOINT.open())) {
+            decoder = lease.decoder();
+            bitstream = lease.bitstream();
+            assertEquals(DecoderTest.decode(Fixture.MP3_44K_128_JOINT), decode(decoder, bitstream, Integer.MAX_VALUE));
+        }
+        assertEquals(1, pool.idle());
+
+        for (Fixture fixture : Fixture.values()) {
+            try (DecoderPool.Lease lease = pool.acquire(new InputStreamSource(fixture.open()))) {
+                assertSame(decoder, lease.decoder());
+                assertSame(bitstream, lease.bitstream());
+                assertEquals(DecoderTest.decode(fixture), decode(decoder, bitstream, Integer.MAX_VALUE), fixture.name());
+            }
+        }
+
+        // the pool keeps two at most
+        DecoderPool.Lease lease1 = pool.acquire(Fixture.MP3_44K_128_JOINT.open());
+        DecoderPool.Lease lease2 = pool.acquire(Fixture.MP3_44K_128_JOINT.open());
+        DecoderPool.Lease lease3 = pool.acquire(Fixture.MP3_44K_128_JOINT.open());
+        assertEquals(0, pool.idle());
+        lease1.close();
+        lease2.close();
+        lease3.close();
+        lease3.close();
+        assertEquals(2, pool.idle());
+    }
+}
@@ -0,0 +1,359 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package javazoom.jl.decoder;
+
+import java.io.ByteArrayInputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * Decoder unit test.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026/10/18 nsano initial version <br>
+ */
+class DecoderTest {
+
+    @TempDir
+    Path dir;
+
+    /** Decodes the whole fixture, returns the digest of the pcm. */
+    static String decode(Fixture fixture) throws Exception {
+        return decode(new Bitstream(fixture.open()));
+    }
+
+    /** Decodes the whole stream, returns the digest of the pcm. */
+    static String decode(Bitstream bitstream) throws Exception {
+        MessageDigest md = MessageDigest.getInstance("MD5");
+        Decoder decoder = new Decoder();
+        Header header;
+        while ((header = bitstream.readFrame()) != null) {
+            SampleBuffer output = (SampleBuffer) decoder.decodeFrame(header, bitstream);
+            short[] buffer = output.getBuffer();
+            for (int i = 0; i < output.getBufferLength(); i++) {
+                md.update((byte) buffer[i]);
+                md.update((byte) (buffer[i] >> 8));
+            }
+            bitstream.closeFrame();
+        }
+        bitstream.close();
+        return HexFormat.of().formatHex(md.digest());
+    }
+
+    @Test
+    void testConcurrentDecoders() throws Exception {
+        Fixture[] fixtures = Fixture.values();
+        for (Fixture fixture : fixtures)
+            fixture.data(); // generation is not what is tested
+
+        int threads = 16;
+        int rounds = 2;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> futures = new ArrayList<>();
+        try {
+            // every thread starts at once, decoders are created and used concurrently
+            for (int i = 0; i < fixtures.length * rounds; i++) {
+                Fixture fixture = fixtures[i % fixtures.length];
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return decode(fixture);
+                }));
+            }
+            start.countDown();
+
+            Map<Fixture, String> expected = new EnumMap<>(Fixture.class);
+            for (int i = 0; i < futures.size(); i++) {
+                Fixture fixture = fixtures[i % fixtures.length];
+                String digest = futures.get(i).get(60, TimeUnit.SECONDS);
+                String first = expected.putIfAbsent(fixture, digest);
+                if (first != null)
+                    assertEquals(first, digest, fixture.name());
+            }
+
+            // and the same as decoded alone
+            for (Fixture fixture : fixtures)
+                assertEquals(decode(fixture), expected.get(fixture), fixture.name());
+        } finally {
+            executor.shutdownNow();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void testByteBuffer() throws Exception {
+        for (Fixture fixture : Fixture.values()) {
+            // a position not at 0, with an ID3v2 tag
+            byte[] id3 = {'I', 'D', '3', 4, 0, 0, 0, 0, 0, 6, 1, 2, 3, 4, 5, 6};
+            ByteBuffer buffer = ByteBuffer.allocateDirect(3 + id3.length + fixture.data().length);
+            buffer.put(new byte[3]).put(id3).put(fixture.data()).position(3);
+            Bitstream bitstream = new Bitstream(buffer);
+            assertEquals(id3.length, bitstream.header_pos(), fixture.name());
+            assertEquals(decode(fixture), decode(bitstream), fixture.name());
+            assertEquals(3, buffer.position());
+        }
+    }
+
+    @Test
+    void testFloatAndIntSampleBuffers() throws Exception {
+        Fixture fixture = Fixture.MP3_44K_128_JOINT;
+        int channels = fixture.mode == Header.SINGLE_CHANNEL ? 1 : 2;
+        Bitstream bitstream = new Bitstream(fixture.open());
+        Decoder decoder = new Decoder();
+        Bitstream floatBitstream = new Bitstream(fixture.open());
+        Decoder floatDecoder = new Decoder();
+        FloatSampleBuffer floatBuffer = new FloatSampleBuffer(fixture.frequency, channels);
+        floatDecoder.setOutputBuffer(floatBuffer);
+        Bitstream intBitstream = new Bitstream(fixture.open());
+        Decoder intDecoder = new Decoder();
+        IntSampleBuffer intBuffer = new IntSampleBuffer(fixture.frequency, channels, 24);
+        intDecoder.setOutputBuffer(intBuffer);
+
+        Header header;
+        while ((header = bitstream.readFrame()) != null) {
+            SampleBuffer shortBuffer = (SampleBuffer) decoder.decodeFrame(header, bitstream);
+            floatDecoder.decodeFrame(floatBitstream.readFrame(), floatBitstream);
+            intDecoder.decodeFrame(intBitstream.readFrame(), intBitstream);
+
+            assertEquals(shortBuffer.getBufferLength(), floatBuffer.getBufferLength());
+            assertEquals(shortBuffer.getBufferLength(), intBuffer.getBufferLength());
+            short[] s = shortBuffer.getBuffer();
+            float[] f = floatBuffer.getBuffer();
+            int[] i24 = intBuffer.getBuffer();
+            for (int i = 0; i < shortBuffer.getBufferLength(); i++) {
+                if (Math.abs(s[i]) >= 32767) continue; // clipped
+                assertEquals(s[i] / 32768f, f[i], 1 / 32768f);
+                assertEquals(s[i] * 256f, i24[i], 256f);
+            }
+            bitstream.closeFrame();
+            floatBitstream.closeFrame();
+            intBitstream.closeFrame();
+        }
+    }
+
+    /** Decodes the stream into the pcm from the offset until it is full, returns the end. */
+    private static int decode(Decoder decoder, Bitstream bitstream, short[] pcm, int offset) throws Exception {
+        Header header;
+        while (offset < pcm.length && (header = bitstream.readFrame()) != null) {
+            SampleBuffer output = (SampleBuffer) decoder.decodeFrame(header, bitstream);
+            int length = Math.min(output.getBufferLength(), pcm.length - offset);
+            System.arraycopy(output.getBuffer(), 0, pcm, offset, length);
+            offset += length;
+            bitstream.closeFrame();
+        }
+        return offset;
+    }
+
+    @Test
+    void testSeek() throws Exception {
+        for (Fixture fixture : Fixture.values()) {
+            int channels = fixture.mode == Header.SINGLE_CHANNEL ? 1 : 2;
+            ByteBuffer buffer = ByteBuffer.wrap(fixture.data());
+            FrameIndex index = FrameIndex.build(buffer);
+            short[] expected = new short[(int) index.totalSamples() * channels];
+            assertEquals(expected.length, decode(new Decoder(), new Bitstream(buffer), expected, 0), fixture.name());
+
+            // backward and forward with one decoder, the middle of a frame, the boundaries and the last sample
+            Bitstream bitstream = new Bitstream(buffer);
+            Decoder decoder = new Decoder();
+            long[] samples = {index.totalSamples() / 2 + 123, 0, index.sample(3), index.sample(index.size() / 3) - 1,
+                    index.sample(index.size() - 1) + 7, index.totalSamples() - 1, 1};
+            for (long sample : samples) {
+                decoder.seek(bitstream, index, sample);
+                // a few frames
+                short[] actual = new short[Math.min(expected.length - (int) sample * channels, 4 * 1152 * channels)];
+                assertEquals(actual.length, decode(decoder, bitstream, actual, 0), fixture.name() + ": " + sample);
+                for (int i = 0; i < actual.length; i++)
+                    assertEquals(expected[(int) sample * channels + i], actual[i], fixture.name() + ": " + sample + ", " + i);
+            }
+        }
+    }
+
+    @Test
+    void testSeekSource() throws Exception {
+        for (Fixture fixture : new Fixture[] {Fixture.MP3_44K_VBR_JOINT, Fixture.MP2_44K_128_JOINT, Fixture.MP1_32K_128_MONO}) {
+            int channels = fixture.mode == Header.SINGLE_CHANNEL ? 1 : 2;
+            byte[] data = fixture.data();
+            FrameIndex index = FrameIndex.build(ByteBuffer.wrap(data));
+            short[] expected = new short[(int) index.totalSamples() * channels];
+            decode(new Decoder(), new Bitstream(ByteBuffer.wrap(data)), expected, 0);
+
+            // the source starts after other bytes in the file
+            Path file = dir.resolve(fixture.name() + ".mp3");
+            byte[] prefix = {1, 2, 3, 4, 5};
+            Files.write(file, prefix);
+            Files.write(file, data, StandardOpenOption.APPEND);
+            FileChannel channel = FileChannel.open(file);
+            channel.position(prefix.length);
+            Bitstream bitstream = new Bitstream(new ChannelSource(channel));
+            try {
+                assertTrue(bitstream.isSeekable(), fixture.name());
+                assertEquals(data.length, bitstream.length(), fixture.name());
+                // to the end, and back
+                FrameIndex sourceIndex = FrameIndex.build(bitstream);
+                assertEquals(index.size(), sourceIndex.size(), fixture.name());
+                assertEquals(index.position(index.size() - 1), sourceIndex.position(index.size() - 1), fixture.name());
+
+                Decoder decoder = new Decoder();
+                for (long sample : new long[] {index.totalSamples() / 2 + 123, 0, index.sample(index.size() - 1) + 7, index.sample(3)}) {
+                    decoder.seek(bitstream, index, sample);
+                    short[] actual = new short[Math.min(expected.length - (int) sample * channels, 4 * 1152 * channels)];
+                    assertEquals(actual.length, decode(decoder, bitstream, actual, 0), fixture.name() + ": " + sample);
+                    for (int i = 0; i < actual.length; i++)
+                        assertEquals(expected[(int) sample * channels + i], actual[i], fixture.name() + ": " + sample + ", " + i);
+                }
+            } finally {
+                bitstream.close();
+            }
+            assertFalse(channel.isOpen());
+
+            Bitstream stream = new Bitstream(new ByteArrayInputStream(data));
+            assertFalse(stream.isSeekable());
+            assertThrows(UnsupportedOperationException.class, () -> stream.seek(0));
+        }
+    }
+
+    /** Returns the frame at the position in the index. */
+    private static int frameAt(FrameIndex index, long position) {
+        for (int i = 0; i < index.size(); i++)
+            if (index.position(i) == position)
+                return i;
+        return -1;
+    }
+
+    @Test
+    void testSeekMillis() throws Exception {
+        for (Fixture fixture : new Fixture[] {Fixture.MP3_44K_VBR_JOINT, Fixture.MP3_48K_VBR_STEREO, Fixture.MP2_44K_128_JOINT}) {
+            ByteBuffer buffer = ByteBuffer.wrap(fixture.data());
+            FrameIndex index = FrameIndex.build(buffer);
+            // the frame holding the vbr header is not audio
+            int tag = fixture.vbr == Fixture.Vbr.NONE ? 0 : 1;
+            Bitstream bitstream = new Bitstream(buffer);
+            Header header = bitstream.readFrame();
+            float msPerFrame = header.samplesPerFrame() * 1000f / fixture.frequency;
+            int streamSize = fixture.data().length;
+            assertEquals(header.vbr(), tag == 1, fixture.name());
+            assertEquals(index.size() - tag, header.maxNumberOfFrames(streamSize), fixture.name());
+            assertEquals((index.size() - tag) * msPerFrame, header.totalMs(streamSize), 1f, fixture.name());
+            bitstream.closeFrame();
+
+            Decoder decoder = new Decoder();
+            for (int frame : new int[] {index.size() / 2, 1, index.size() - 3, index.size() / 5}) {
+                decoder.seek(bitstream, header, frame * msPerFrame + 1);
+                header = bitstream.readFrame();
+                // a toc entry is more than a frame
+                assertEquals(tag + frame, frameAt(index, bitstream.framePosition()), 2, fixture.name() + ": " + frame);
+                decoder.decodeFrame(header, bitstream);
+                bitstream.closeFrame();
+            }
+        }
+    }
+
+    @Test
+    void testSeekMillisTruncated() throws Exception {
+        for (Fixture fixture : new Fixture[] {Fixture.MP3_44K_VBR_JOINT, Fixture.MP3_48K_VBR_STEREO, Fixture.MP2_44K_128_JOINT}) {
+            // the vbr header tells the size of the whole stream
+            byte[] data = fixture.data();
+            ByteBuffer buffer = ByteBuffer.wrap(data, 0, data.length / 3).slice();
+            Bitstream bitstream = new Bitstream(buffer);
+            Header header = bitstream.readFrame();
+            int first = bitstream.header_pos();
+            int streamSize = buffer.limit() - first;
+            float total = header.totalMs(data.length - first);
+            bitstream.closeFrame();
+
+            Decoder decoder = new Decoder();
+            for (float ms : new float[] {total / 2, total * 0.99f, total, total * 2}) {
+                long position = header.positionAt(ms, streamSize);
+                assertTrue(position >= 0 && position <= streamSize, fixture.name() + ": " + ms + ", " + position);
+                decoder.seek(bitstream, header, ms);
+                // the end, or a frame at the end
+                while (bitstream.readFrame() != null)
+                    bitstream.closeFrame();
+            }
+        }
+    }
+
+    @Test
+    void testSeekMillisInvalidVbri() throws Exception {
+        // the entry size of the VBRI table is 0, a copy, the data of the fixture is shared by the tests
+        byte[] data = Fixture.MP3_48K_VBR_STEREO.data().clone();
+        int vbri = new String(data, 0, 64, StandardCharsets.ISO_8859_1).indexOf("VBRI");
+        data[vbri + 22] = 0;
+        data[vbri + 23] = 0;
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        FrameIndex index = FrameIndex.build(buffer);
+        Bitstream bitstream = new Bitstream(buffer);
+        Header header = bitstream.readFrame();
+        int streamSize = data.length;
+        float total = header.totalMs(streamSize);
+        assertTrue(header.vbr());
+        bitstream.closeFrame();
+
+        // proportional to the size, not the start by an empty toc
+        long position = header.positionAt(total / 2, streamSize);
+        assertEquals(streamSize / 2f, position, streamSize / 100f);
+        new Decoder().seek(bitstream, header, total / 2);
+        bitstream.readFrame();
+        assertEquals(index.size() / 2f, frameAt(index, bitstream.framePosition()), index.size() / 4f);
+        bitstream.closeFrame();
+    }
+
+    @Test
+    void testDefaultParamsAreNotShared() {
+        Decoder.Params params = Decoder.getDefaultParams();
+        params.getInitialEqualizerSettings().setBand(0, 0.5f);
+        assertEquals(0f, Decoder.getDefaultParams().getInitialEqualizerSettings().getBand(0));
+    }
+
+    @Test
+    void testLayerIAndIIAllocateNothing() throws Exception {
+        com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (Fixture fixture : Fixture.values()) {
+            if (fixture.name().startsWith("MP3"))
+                continue;
+            Bitstream bitstream = new Bitstream(fixture.openLoop());
+            Decoder decoder = new Decoder();
+            // the subbands of every mode are created by the first frames
+            for (int i = 0; i < Fixture.FRAMES; i++) {
+                decoder.decodeFrame(bitstream.readFrame(), bitstream);
+                bitstream.closeFrame();
+            }
+            long allocated = mx.getCurrentThreadAllocatedBytes();
+            for (int i = 0; i < Fixture.FRAMES; i++) {
+                decoder.decodeFrame(bitstream.readFrame(), bitstream);
+                bitstream.closeFrame();
+            }
+            assertEquals(0, mx.getCurrentThreadAllocatedBytes() - allocated, fixture.name());
+        }
+    }
+}
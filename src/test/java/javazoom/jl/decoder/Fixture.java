@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package javazoom.jl.decoder;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+
+/**
+ * Test and benchmark fixtures.
+ * <p>
+ * MPEG audio streams are synthesized by {@link FixtureGenerator} on first use,
+ * so no audio files have to be shipped with the sources. Every stream is
+ * generated from a fixed seed, results are comparable between runs.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026/10/18 nsano initial version <br>
+ */
+public enum Fixture {
+
+    MP1_44K_384_STEREO(Header.MPEG1, 1, 44100, 384, Header.STEREO, true, Vbr.NONE),
+    MP1_48K_256_JOINT(Header.MPEG1, 1, 48000, 256, Header.JOINT_STEREO, false, Vbr.NONE),
+    MP1_32K_128_MONO(Header.MPEG1, 1, 32000, 128, Header.SINGLE_CHANNEL, false, Vbr.NONE),
+
+    MP2_48K_192_STEREO(Header.MPEG1, 2, 48000, 192, Header.STEREO, false, Vbr.NONE),
+    MP2_44K_128_JOINT(Header.MPEG1, 2, 44100, 128, Header.JOINT_STEREO, true, Vbr.NONE),
+    MP2_32K_64_STEREO(Header.MPEG1, 2, 32000, 64, Header.STEREO, false, Vbr.NONE),
+    MP2_44K_96_MONO(Header.MPEG1, 2, 44100, 96, Header.SINGLE_CHANNEL, false, Vbr.NONE),
+
+    MP3_44K_320_STEREO(Header.MPEG1, 3, 44100, 320, Header.STEREO, false, Vbr.NONE),
+    MP3_44K_128_JOINT(Header.MPEG1, 3, 44100, 128, Header.JOINT_STEREO, false, Vbr.NONE),
+    MP3_32K_96_DUAL(Header.MPEG1, 3, 32000, 96, Header.DUAL_CHANNEL, true, Vbr.NONE),
+    MP3_48K_64_MONO(Header.MPEG1, 3, 48000, 64, Header.SINGLE_CHANNEL, false, Vbr.NONE),
+    MP3_22K_64_JOINT(Header.MPEG2_LSF, 3, 22050, 64, Header.JOINT_STEREO, false, Vbr.NONE),
+    MP3_16K_32_MONO(Header.MPEG2_LSF, 3, 16000, 32, Header.SINGLE_CHANNEL, true, Vbr.NONE),
+    MP3_8K_16_MONO(Header.MPEG25_LSF, 3, 8000, 16, Header.SINGLE_CHANNEL, false, Vbr.NONE),
+    MP3_44K_VBR_JOINT(Header.MPEG1, 3, 44100, 0, Header.JOINT_STEREO, false, Vbr.XING),
+    MP3_48K_VBR_STEREO(Header.MPEG1, 3, 48000, 0, Header.STEREO, false, Vbr.VBRI);
+
+    /** VBR tag written into the first frame */
+    enum Vbr {
+        NONE,
+        XING,
+        VBRI
+    }
+
+    /** number of audio frames, without a VBR tag frame */
+    public static final int FRAMES = 128;
+
+    /** {@link Header#MPEG1}, {@link Header#MPEG2_LSF} or {@link Header#MPEG25_LSF} */
+    final int version;
+    final int layer;
+    /** in Hz */
+    final int frequency;
+    /** in kbps, 0 means variable bitrate */
+    final int bitrate;
+    /** {@link Header#STEREO}, {@link Header#JOINT_STEREO}, {@link Header#DUAL_CHANNEL} or {@link Header#SINGLE_CHANNEL} */
+    final int mode;
+    final boolean crc;
+    final Vbr vbr;
+
+    private byte[] data;
+
+    Fixture(int version, int layer, int frequency, int bitrate, int mode, boolean crc, Vbr vbr) {
+        this.version = version;
+        this.layer = layer;
+        this.frequency = frequency;
+        this.bitrate = bitrate;
+        this.mode = mode;
+        this.crc = crc;
+        this.vbr = vbr;
+    }
+
+    /** Returns the whole stream, generated at the first call. */
+    public synchronized byte[] data() {
+        if (data == null)
+            data = new FixtureGenerator(this).generate();
+        return data;
+    }
+
+    /** Opens the stream. */
+    public InputStream open() {
+        return new ByteArrayInputStream(data());
+    }
+
+    /**
+     * Opens the stream endlessly, it starts over from the first frame at the end.
+     * Benchmarks can read frames from one {@link Bitstream} without any rewinding.
+     */
+    InputStream openLoop() {
+        byte[] data = data();
+        return new InputStream() {
+            int p;
+
+            @Override
+            public int read() {
+                int b = data[p++] & 0xff;
+                if (p == data.length)
+                    p = 0;
+                return b;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                int l = Math.min(len, data.length - p);
+                System.arraycopy(data, p, b, off, l);
+                p += l;
+                if (p == data.length)
+                    p = 0;
+                return l;
+            }
+        };
+    }
+}
@@ -0,0 +1,898 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package javazoom.jl.decoder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import javazoom.jl.decoder.LayerIIDecoder.SubbandLayer2;
+
+
+/**
+ * Synthesizes valid MPEG audio bitstreams.
+ * <p>
+ * This is not an encoder, there is no psychoacoustic model. Allocation, scale factors
+ * and spectral values are random but shaped like music (energy decays with frequency,
+ * bandwidth depends on the bitrate, rare large escape values), and every field obeys
+ * the syntax this decoder reads. Layer III streams use the bit reservoir, all block
+ * types, region/table selection, both count1 tables and intensity/ms stereo.
+ * <p>
+ * Huffman codes are not copied from the standard, they are recovered from
+ * {@link HuffCodeTab} by walking its trees through {@link HuffCodeTab#huffman_decoder}.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026/10/18 nsano initial version <br>
+ */
+final class FixtureGenerator {
+
+    /** x, y range of Huffman tables, escape tables are 16 */
+    private static final int[] XLEN = {
+            0, 2, 3, 3, 0, 4, 4, 6, 6, 6, 8, 8, 8, 16, 0, 16,
+            16, 16, 16, 16, 16, 16, 16, 16, 16, 16, 16, 16, 16, 16, 16, 16
+    };
+
+    private static final int[] LINBITS = {
+            0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
+            1, 2, 3, 4, 6, 8, 10, 13, 4, 5, 6, 7, 8, 9, 11, 13
+    };
+
+    /** same as LayerIIIDecoder#sLen */
+    private static final int[][] SLEN = {
+            {0, 0, 0, 0, 3, 1, 1, 1, 2, 2, 2, 3, 3, 3, 4, 4},
+            {0, 1, 2, 3, 0, 1, 2, 3, 1, 2, 3, 1, 2, 3, 2, 3}
+    };
+
+    /** long block scale factor band boundaries, same order as LayerIIIDecoder#sfBandIndex */
+    private static final int[][] SFB_LONG = {
+            {0, 6, 12, 18, 24, 30, 36, 44, 54, 66, 80, 96, 116, 140, 168, 200, 238, 284, 336, 396, 464, 522, 576},
+            {0, 6, 12, 18, 24, 30, 36, 44, 54, 66, 80, 96, 114, 136, 162, 194, 232, 278, 330, 394, 464, 540, 576},
+            {0, 6, 12, 18, 24, 30, 36, 44, 54, 66, 80, 96, 116, 140, 168, 200, 238, 284, 336, 396, 464, 522, 576},
+            {0, 4, 8, 12, 16, 20, 24, 30, 36, 44, 52, 62, 74, 90, 110, 134, 162, 196, 238, 288, 342, 418, 576},
+            {0, 4, 8, 12, 16, 20, 24, 30, 36, 42, 50, 60, 72, 88, 106, 128, 156, 190, 230, 276, 330, 384, 576},
+            {0, 4, 8, 12, 16, 20, 24, 30, 36, 44, 54, 66, 82, 102, 126, 156, 194, 240, 296, 364, 448, 550, 576},
+            {0, 6, 12, 18, 24, 30, 36, 44, 54, 66, 80, 96, 116, 140, 168, 200, 238, 284, 336, 396, 464, 522, 576},
+            {0, 6, 12, 18, 24, 30, 36, 44, 54, 66, 80, 96, 116, 140, 168, 200, 238, 284, 336, 396, 464, 522, 576},
+            {0, 12, 24, 36, 48, 60, 72, 88, 108, 132, 160, 192, 232, 280, 336, 400, 476, 566, 568, 570, 572, 574, 576}
+    };
+
+    /** Huffman tables in the order they are tried for a region */
+    private static final int[] TABLES = {
+            1, 2, 3, 5, 6, 7, 8, 9, 10, 11, 12, 13, 15,
+            16, 24, 17, 25, 18, 26, 19, 27, 20, 28, 21, 29, 22, 30, 23, 31
+    };
+
+    /** codes[table][symbol], code length in the upper 8 bits */
+    private static final int[][] codes = new int[34][];
+
+    static {
+        for (int t = 0; t < 34; t++) {
+            if (t == 0 || t == 4 || t == 14)
+                continue;
+            codes[t] = new int[256];
+            explore(t, 0, 0);
+        }
+    }
+
+    /**
+     * Recovers the codes of the subtree below the prefix. The prefix padded with zeros
+     * decodes to the leftmost leaf, every zero on that path has a sibling to visit.
+     */
+    private static void explore(int t, long prefix, int prefixLength) {
+        BitReserve br = new BitReserve();
+        long bits = prefixLength == 0 ? 0 : prefix << (64 - prefixLength);
+        for (int i = 0; i < 8; i++)
+            br.hputbuf((int) (bits >>> (56 - i * 8)) & 0xff);
+        int[] x = {0}, y = {0}, v = {0}, w = {0};
+        HuffCodeTab.huffman_decoder(HuffCodeTab.ht[t], x, y, v, w, br);
+        int symbol;
+        int extra;
+        if (t >= 32) {
+            symbol = (v[0] << 3) | (w[0] << 2) | (x[0] << 1) | y[0];
+            extra = Integer.bitCount(symbol);
+        } else {
+            symbol = (x[0] << 4) | y[0];
+            extra = (x[0] != 0 ? 1 : 0) + (y[0] != 0 ? 1 : 0);
+            if (LINBITS[t] != 0) {
+                if (x[0] == 15) extra += LINBITS[t];
+                if (y[0] == 15) extra += LINBITS[t];
+            }
+        }
+        int length = br.hsstell() - extra;
+        if (codes[t][symbol] == 0)
+            codes[t][symbol] = (length << 24) | (int) (prefix << (length - prefixLength));
+        for (int j = prefixLength; j < length; j++)
+            explore(t, (prefix << (j - prefixLength + 1)) | 1, j + 1);
+    }
+
+    /** Writes a pair of spectral values with table t. */
+    static void writePair(BitWriter out, int t, int x, int y) {
+        int linbits = LINBITS[t];
+        int ax = Math.abs(x), ay = Math.abs(y);
+        int sx = linbits != 0 && ax >= 15 ? 15 : ax;
+        int sy = linbits != 0 && ay >= 15 ? 15 : ay;
+        int code = codes[t][(sx << 4) | sy];
+        out.write(code & 0xffffff, code >>> 24);
+        if (sx == 15 && linbits != 0) out.write(ax - 15, linbits);
+        if (ax != 0) out.write(x < 0 ? 1 : 0, 1);
+        if (sy == 15 && linbits != 0) out.write(ay - 15, linbits);
+        if (ay != 0) out.write(y < 0 ? 1 : 0, 1);
+    }
+
+    /** Writes a quadruple of -1, 0, 1 values with count1 table t (32 or 33). */
+    static void writeQuad(BitWriter out, int t, int v, int w, int x, int y) {
+        int code = codes[t][(Math.abs(v) << 3) | (Math.abs(w) << 2) | (Math.abs(x) << 1) | Math.abs(y)];
+        out.write(code & 0xffffff, code >>> 24);
+        if (v != 0) out.write(v < 0 ? 1 : 0, 1);
+        if (w != 0) out.write(w < 0 ? 1 : 0, 1);
+        if (x != 0) out.write(x < 0 ? 1 : 0, 1);
+        if (y != 0) out.write(y < 0 ? 1 : 0, 1);
+    }
+
+    /** The largest absolute value table t can code. */
+    static int maxValue(int t) {
+        return LINBITS[t] != 0 ? 15 + (1 << LINBITS[t]) - 1 : XLEN[t] - 1;
+    }
+
+    /** Growable big endian bit sink. */
+    static final class BitWriter {
+        private byte[] buf = new byte[1024];
+        private int position;
+
+        void write(int value, int n) {
+            for (int i = n - 1; i >= 0; i--) {
+                int p = position++;
+                if ((p >> 3) >= buf.length)
+                    buf = Arrays.copyOf(buf, buf.length * 2);
+                if (((value >>> i) & 1) != 0)
+                    buf[p >> 3] |= (byte) (0x80 >>> (p & 7));
+            }
+        }
+
+        /** in bits */
+        int position() {
+            return position;
+        }
+
+        /** Moves the position, bits after the new position are cleared. */
+        void position(int position) {
+            if ((position >> 3) >= buf.length)
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, (position >> 3) + 1));
+            for (int p = position; p < this.position; p++)
+                buf[p >> 3] &= (byte) ~(0x80 >>> (p & 7));
+            this.position = position;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, (position + 7) >> 3);
+        }
+
+        void copyTo(int offset, byte[] dst, int dstOffset, int length) {
+            int l = Math.max(0, Math.min(length, buf.length - offset));
+            System.arraycopy(buf, offset, dst, dstOffset, l);
+        }
+    }
+
+    /** side info of one granule of one channel */
+    private static final class Granule {
+        int part23Length;
+        int bigValues;
+        int globalGain;
+        int scalefacCompress;
+        int windowSwitching;
+        int blockType;
+        int mixedBlock;
+        final int[] tableSelect = new int[3];
+        final int[] subblockGain = new int[3];
+        int region0Count;
+        int region1Count;
+        int preflag;
+        int scalefacScale;
+        int count1Table;
+    }
+
+    /** one frame before the Layer III main data is distributed into the slots */
+    private static final class Frame {
+        byte[] bytes;
+        int slotOffset;
+        int slots;
+        int slotStart;
+    }
+
+    private final Fixture fixture;
+    private final Random random;
+    private final int channels;
+
+    FixtureGenerator(Fixture fixture) {
+        this.fixture = fixture;
+        this.random = new Random(0x6a6c6179L ^ fixture.ordinal());
+        this.channels = fixture.mode == Header.SINGLE_CHANNEL ? 1 : 2;
+    }
+
+    /** Generates the whole stream. */
+    byte[] generate() {
+        List<Frame> frames = new ArrayList<>();
+        BitWriter mainData = new BitWriter();
+        int slotTotal = 0;
+        int padding = 0;
+
+        int total = Fixture.FRAMES + (fixture.vbr != Fixture.Vbr.NONE ? 1 : 0);
+        for (int i = 0; i < total; i++) {
+            boolean tag = i == 0 && fixture.vbr != Fixture.Vbr.NONE;
+            int bitrateIndex = bitrateIndex(tag);
+            int bitrate = Header.bitrates[fixture.version][fixture.layer - 1][bitrateIndex];
+            // same accumulation as encoders do, a slot is added when the remainder overflows
+            int unit = fixture.layer == 1 ? 12 : fixture.version == Header.MPEG1 ? 144 : 72;
+            padding += (unit * bitrate) % fixture.frequency;
+            boolean pad = padding >= fixture.frequency;
+            if (pad)
+                padding -= fixture.frequency;
+            int modeExtension = modeExtension();
+
+            int headerString = headerString(bitrateIndex, pad, modeExtension, !tag && fixture.crc);
+            Header header = parse(headerString);
+
+            Frame frame = new Frame();
+            frame.bytes = new byte[header.framesize + 4];
+            for (int b = 0; b < 4; b++)
+                frame.bytes[b] = (byte) (headerString >>> (24 - b * 8));
+            BitWriter body = new BitWriter();
+            if (header.checksums())
+                body.write(0, 16);
+
+            switch (fixture.layer) {
+            case 1 -> layer1(body, header, modeExtension);
+            case 2 -> layer2(body, header, modeExtension);
+            case 3 -> {
+                frame.slots = header.slots();
+                frame.slotStart = slotTotal;
+                frame.slotOffset = frame.bytes.length - frame.slots;
+                if (tag) {
+                    // the tag occupies the slots, nothing is referred to from there
+                    mainData.position((slotTotal + frame.slots) * 8);
+                    frame.slots = 0;
+                } else {
+                    layer3(body, mainData, header, slotTotal, modeExtension);
+                }
+                slotTotal += header.slots();
+            }
+            }
+            byte[] b = body.toByteArray();
+            System.arraycopy(b, 0, frame.bytes, 4, Math.min(b.length, frame.bytes.length - 4));
+            frames.add(frame);
+        }
+
+        for (Frame frame : frames) {
+            if (frame.slots > 0)
+                mainData.copyTo(frame.slotStart, frame.bytes, frame.slotOffset, frame.slots);
+        }
+        if (fixture.vbr != Fixture.Vbr.NONE)
+            writeTag(frames);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (Frame frame : frames)
+            out.writeBytes(frame.bytes);
+        return out.toByteArray();
+    }
+
+    private int bitrateIndex(boolean tag) {
+        int[] bitrates = Header.bitrates[fixture.version][fixture.layer - 1];
+        if (fixture.bitrate != 0) {
+            for (int i = 1; i < 15; i++)
+                if (bitrates[i] == fixture.bitrate * 1000)
+                    return i;
+            throw new IllegalArgumentException(fixture + ": bitrate");
+        }
+        // vbr, around 160 kbps with some loud peaks, the tag frame must hold a toc
+        if (tag)
+            return 9;
+        int index = 8 + random.nextInt(4) + (random.nextInt(8) == 0 ? 3 : 0);
+        return Math.min(index, 14);
+    }
+
+    private int modeExtension() {
+        if (fixture.mode != Header.JOINT_STEREO)
+            return 0;
+        if (fixture.layer == 3)
+            return random.nextInt(4) == 0 ? 3 : 2; // mostly ms, sometimes ms + intensity
+        return random.nextInt(4);
+    }
+
+    private int headerString(int bitrateIndex, boolean pad, int modeExtension, boolean crc) {
+        int version = switch (fixture.version) {
+            case Header.MPEG1 -> 3;
+            case Header.MPEG2_LSF -> 2;
+            default -> 0;
+        };
+        int frequencyIndex = -1;
+        for (int i = 0; i < 3; i++)
+            if (Header.frequencies[fixture.version][i] == fixture.frequency)
+                frequencyIndex = i;
+        if (frequencyIndex < 0)
+            throw new IllegalArgumentException(fixture + ": frequency");
+        return 0xffe00000 |
+                (version << 19) |
+                ((4 - fixture.layer) << 17) |
+                ((crc ? 0 : 1) << 16) |
+                (bitrateIndex << 12) |
+                (frequencyIndex << 10) |
+                ((pad ? 1 : 0) << 9) |
+                (fixture.mode << 6) |
+                (modeExtension << 4) |
+                (1 << 2); // original
+    }
+
+    /** Lets the decoder parse the header, so frame size and subband limits are the ones it uses. */
+    private static Header parse(int headerString) {
+        byte[] frame = new byte[4 + sizeOf(headerString)];
+        for (int b = 0; b < 4; b++)
+            frame[b] = (byte) (headerString >>> (24 - b * 8));
+        try {
+            Header header = new Bitstream(new ByteArrayInputStream(frame)).readFrame();
+            if (header == null || header.framesize != frame.length - 4)
+                throw new IllegalStateException("unexpected frame size: " + Integer.toHexString(headerString));
+            return header;
+        } catch (BitstreamException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** frame size without the header, same as {@link Header#calculateFrameSize()} */
+    private static int sizeOf(int headerString) {
+        int version = (headerString >>> 19) & 1;
+        if (((headerString >>> 20) & 1) == 0)
+            version = Header.MPEG25_LSF;
+        int layer = 4 - ((headerString >>> 17) & 3);
+        int bitrate = Header.bitrates[version][layer - 1][(headerString >>> 12) & 0xf];
+        int frequency = Header.frequencies[version][(headerString >>> 10) & 3];
+        int pad = (headerString >>> 9) & 1;
+        int size;
+        if (layer == 1) {
+            size = ((12 * bitrate) / frequency + pad) << 2;
+        } else {
+            size = (144 * bitrate) / frequency;
+            if (version != Header.MPEG1)
+                size >>= 1;
+            size += pad;
+        }
+        return size - 4;
+    }
+
+    private static byte[] concat(byte[] a, byte[] b) {
+        byte[] c = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, c, a.length, b.length);
+        return c;
+    }
+
+    /** a scale factor index, louder in lower subbands */
+    private int scaleFactorIndex(int sb) {
+        return Math.min(62, 12 + sb / 2 + random.nextInt(12));
+    }
+
+    //
+    // Layer I
+    //
+
+    private void layer1(BitWriter out, Header header, int modeExtension) {
+        int bound = fixture.mode == Header.JOINT_STEREO ? header.intensityStereoBound() : 32;
+        int[][] allocation = new int[2][32];
+        int budget = header.framesize * 8 - (header.checksums() ? 16 : 0);
+
+        for (int sb = 0; sb < 32; sb++) {
+            int max = Math.max(0, 14 - sb * 14 / (20 + random.nextInt(12)));
+            for (int ch = 0; ch < channels; ch++)
+                allocation[ch][sb] = max == 0 ? 0 : 1 + random.nextInt(max);
+            if (sb >= bound)
+                allocation[1][sb] = allocation[0][sb];
+        }
+        while (layer1Bits(allocation, bound) > budget) {
+            int sb = random.nextInt(32), ch = random.nextInt(channels);
+            if (allocation[ch][sb] > 0) {
+                allocation[ch][sb]--;
+                if (sb >= bound)
+                    allocation[1 - ch][sb] = allocation[ch][sb];
+            }
+        }
+
+        for (int sb = 0; sb < 32; sb++) {
+            out.write(allocation[0][sb], 4);
+            if (channels == 2 && sb < bound)
+                out.write(allocation[1][sb], 4);
+        }
+        for (int sb = 0; sb < 32; sb++)
+            for (int ch = 0; ch < channels; ch++)
+                if (allocation[ch][sb] != 0)
+                    out.write(scaleFactorIndex(sb), 6);
+        for (int s = 0; s < 12; s++)
+            for (int sb = 0; sb < 32; sb++)
+                for (int ch = 0; ch < (sb < bound ? channels : 1); ch++) {
+                    int bits = allocation[ch][sb] + 1;
+                    if (allocation[ch][sb] != 0)
+                        out.write(random.nextInt((1 << bits) - 1), bits);
+                }
+    }
+
+    private int layer1Bits(int[][] allocation, int bound) {
+        int bits = 0;
+        for (int sb = 0; sb < 32; sb++) {
+            bits += 4 * (sb < bound ? channels : 1);
+            for (int ch = 0; ch < channels; ch++)
+                if (allocation[ch][sb] != 0) {
+                    bits += 6;
+                    if (ch == 0 || sb < bound)
+                        bits += 12 * (allocation[ch][sb] + 1);
+                }
+        }
+        return bits;
+    }
+
+    //
+    // Layer II
+    //
+
+    /** same as SubbandLayer2#getAllocationLength */
+    private static int allocationLength(Header header, int sb) {
+        if (header.version() == Header.MPEG1) {
+            int channelBitrate = channelBitrate(header);
+            if (channelBitrate == 1 || channelBitrate == 2)
+                return sb <= 1 ? 4 : 3;
+            else
+                return sb <= 10 ? 4 : sb <= 22 ? 3 : 2;
+        } else {
+            return sb <= 3 ? 4 : sb <= 10 ? 3 : 2;
+        }
+    }
+
+    private static int channelBitrate(Header header) {
+        int channelBitrate = header.bitrateIndex();
+        if (header.mode() != Header.SINGLE_CHANNEL)
+            channelBitrate = channelBitrate == 4 ? 1 : channelBitrate - 4;
+        return channelBitrate;
+    }
+
+    /** same as SubbandLayer2#prepare_sample_reading */
+    private static int[] codeLengths(Header header, int sb) {
+        int channelBitrate = channelBitrate(header);
+        if (channelBitrate == 1 || channelBitrate == 2)
+            return SubbandLayer2.table_cd_codelength;
+        return sb <= 2 ? SubbandLayer2.table_ab1_codelength :
+                sb <= 10 ? SubbandLayer2.table_ab2_codelength :
+                sb <= 22 ? SubbandLayer2.table_ab3_codelength : SubbandLayer2.table_ab4_codelength;
+    }
+
+    /** same as SubbandLayer2#prepare_sample_reading */
+    private static float[][] groupingTables(Header header, int sb) {
+        int channelBitrate = channelBitrate(header);
+        if (channelBitrate == 1 || channelBitrate == 2)
+            return SubbandLayer2.table_cd_groupingtables;
+        return sb <= 2 ? SubbandLayer2.table_ab1_groupingtables : SubbandLayer2.table_ab234_groupingtables;
+    }
+
+    private static final int[] SCALE_FACTORS_PER_SCFSI = {3, 2, 1, 2};
+
+    private void layer2(BitWriter out, Header header, int modeExtension) {
+        int subbands = header.numberOfSubbands();
+        int bound = fixture.mode == Header.JOINT_STEREO ? header.intensityStereoBound() : subbands;
+        int[][] allocation = new int[2][32];
+        int[][] scfsi = new int[2][32];
+        int budget = header.framesize * 8 - (header.checksums() ? 16 : 0);
+
+        for (int sb = 0; sb < subbands; sb++) {
+            int max = Math.min((1 << allocationLength(header, sb)) - 1, codeLengths(header, sb).length - 1);
+            int limit = max - sb * max / (16 + random.nextInt(16));
+            for (int ch = 0; ch < channels; ch++) {
+                allocation[ch][sb] = limit <= 0 ? 0 : 1 + random.nextInt(limit);
+                scfsi[ch][sb] = random.nextInt(4);
+            }
+            if (sb >= bound)
+                allocation[1][sb] = allocation[0][sb];
+        }
+        while (layer2Bits(header, allocation, scfsi, subbands, bound) > budget) {
+            int sb = random.nextInt(subbands), ch = random.nextInt(channels);
+            if (allocation[ch][sb] > 0) {
+                allocation[ch][sb]--;
+                if (sb >= bound)
+                    allocation[1 - ch][sb] = allocation[ch][sb];
+            }
+        }
+
+        for (int sb = 0; sb < subbands; sb++) {
+            int length = allocationLength(header, sb);
+            out.write(allocation[0][sb], length);
+            if (channels == 2 && sb < bound)
+                out.write(allocation[1][sb], length);
+        }
+        for (int sb = 0; sb < subbands; sb++)
+            for (int ch = 0; ch < channels; ch++)
+                if (allocation[ch][sb] != 0)
+                    out.write(scfsi[ch][sb], 2);
+        for (int sb = 0; sb < subbands; sb++)
+            for (int ch = 0; ch < channels; ch++)
+                if (allocation[ch][sb] != 0)
+                    for (int i = 0; i < SCALE_FACTORS_PER_SCFSI[scfsi[ch][sb]]; i++)
+                        out.write(scaleFactorIndex(sb), 6);
+        for (int g = 0; g < 12; g++)
+            for (int sb = 0; sb < subbands; sb++)
+                for (int ch = 0; ch < (sb < bound ? channels : 1); ch++) {
+                    int a = allocation[ch][sb];
+                    if (a == 0)
+                        continue;
+                    int codeLength = codeLengths(header, sb)[a];
+                    float[] grouping = groupingTables(header, sb)[a];
+                    if (grouping != null) {
+                        out.write(random.nextInt(grouping.length / 3), codeLength);
+                    } else {
+                        for (int s = 0; s < 3; s++)
+                            out.write(random.nextInt((1 << codeLength) - 1), codeLength);
+                    }
+                }
+    }
+
+    private int layer2Bits(Header header, int[][] allocation, int[][] scfsi, int subbands, int bound) {
+        int bits = 0;
+        for (int sb = 0; sb < subbands; sb++) {
+            bits += allocationLength(header, sb) * (sb < bound ? channels : 1);
+            for (int ch = 0; ch < channels; ch++) {
+                int a = allocation[ch][sb];
+                if (a == 0)
+                    continue;
+                bits += 2 + 6 * SCALE_FACTORS_PER_SCFSI[scfsi[ch][sb]];
+                if (ch == 0 || sb < bound) {
+                    int codeLength = codeLengths(header, sb)[a];
+                    bits += groupingTables(header, sb)[a] != null ? 12 * codeLength : 36 * codeLength;
+                }
+            }
+        }
+        return bits;
+    }
+
+    //
+    // Layer III
+    //
+
+    private void layer3(BitWriter out, BitWriter mainData, Header header, int slotStart, int modeExtension) {
+        boolean mpeg1 = header.version() == Header.MPEG1;
+        int granules = mpeg1 ? 2 : 1;
+        int sfreq = header.sampleFrequency() + (mpeg1 ? 3 : header.version() == Header.MPEG25_LSF ? 6 : 0);
+        int slots = header.slots();
+
+        // main data begins where the previous frame's one ended, as far back as the pointer reaches
+        int written = (mainData.position() + 7) >> 3;
+        int mainDataBegin = Math.min(slotStart - written, mpeg1 ? 511 : 255);
+        mainData.position((slotStart - mainDataBegin) * 8);
+        int capacity = (mainDataBegin + slots) * 8;
+        // use 70..100% of what is available, so the reservoir fills and drains
+        int budget = capacity * (70 + random.nextInt(31)) / 100 / (granules * channels);
+        budget = Math.min(budget, 4095);
+
+        Granule[][] gr = new Granule[granules][channels];
+        int[] scfsi = new int[channels];
+        for (int g = 0; g < granules; g++)
+            for (int ch = 0; ch < channels; ch++)
+                gr[g][ch] = blockType(mpeg1);
+        if (mpeg1)
+            for (int ch = 0; ch < channels; ch++)
+                if (gr[0][ch].blockType != 2 && gr[1][ch].blockType != 2)
+                    scfsi[ch] = random.nextInt(16);
+
+        int bandwidth = bandwidth(header);
+        for (int g = 0; g < granules; g++)
+            for (int ch = 0; ch < channels; ch++) {
+                int start = mainData.position();
+                float amplitude = 1.5f + header.bitrate() / 12000f;
+                int lines = bandwidth;
+                for (int retry = 0; ; retry++) {
+                    if (retry == 12) {
+                        amplitude = 0;
+                        lines = 0;
+                    }
+                    granule(mainData, gr[g][ch], g, ch, scfsi[ch], mpeg1, sfreq, modeExtension, amplitude, lines, retry >= 13);
+                    int length = mainData.position() - start;
+                    if (length <= budget || retry >= 13) {
+                        gr[g][ch].part23Length = length;
+                        break;
+                    }
+                    mainData.position(start);
+                    amplitude *= 0.7f;
+                    lines = lines * 9 / 10;
+                }
+            }
+
+        // side info
+        if (mpeg1) {
+            out.write(mainDataBegin, 9);
+            out.write(0, channels == 1 ? 5 : 3);
+            for (int ch = 0; ch < channels; ch++)
+                out.write(scfsi[ch], 4);
+        } else {
+            out.write(mainDataBegin, 8);
+            out.write(0, channels == 1 ? 1 : 2);
+        }
+        for (int g = 0; g < granules; g++)
+            for (int ch = 0; ch < channels; ch++) {
+                Granule i = gr[g][ch];
+                out.write(i.part23Length, 12);
+                out.write(i.bigValues, 9);
+                out.write(i.globalGain, 8);
+                out.write(i.scalefacCompress, mpeg1 ? 4 : 9);
+                out.write(i.windowSwitching, 1);
+                if (i.windowSwitching != 0) {
+                    out.write(i.blockType, 2);
+                    out.write(i.mixedBlock, 1);
+                    out.write(i.tableSelect[0], 5);
+                    out.write(i.tableSelect[1], 5);
+                    for (int w = 0; w < 3; w++)
+                        out.write(i.subblockGain[w], 3);
+                } else {
+                    for (int r = 0; r < 3; r++)
+                        out.write(i.tableSelect[r], 5);
+                    out.write(i.region0Count, 4);
+                    out.write(i.region1Count, 3);
+                }
+                if (mpeg1)
+                    out.write(i.preflag, 1);
+                out.write(i.scalefacScale, 1);
+                out.write(i.count1Table, 1);
+            }
+    }
+
+    /** Picks the block type, mostly long blocks like a real encoder. */
+    private Granule blockType(boolean mpeg1) {
+        Granule i = new Granule();
+        if (random.nextInt(7) == 0) {
+            i.windowSwitching = 1;
+            i.blockType = 1 + random.nextInt(3);
+            // mixed blocks only for MPEG-1, LSF ones make dequantize_sample divide by zero
+            i.mixedBlock = mpeg1 && i.blockType == 2 && random.nextInt(3) == 0 ? 1 : 0;
+            for (int w = 0; w < 3; w++)
+                i.subblockGain[w] = random.nextInt(3);
+        }
+        i.globalGain = 140 + random.nextInt(20);
+        i.scalefacScale = random.nextInt(4) == 0 ? 1 : 0;
+        i.preflag = mpeg1 && random.nextInt(4) == 0 ? 1 : 0;
+        i.count1Table = random.nextInt(2);
+        return i;
+    }
+
+    /** spectral lines in use, a lower bitrate means a narrower band */
+    private int bandwidth(Header header) {
+        int kbps = header.bitrate() / 1000 / channels;
+        double hz = Math.min(header.frequency() / 2.0, 4000 + kbps * 160);
+        return (int) Math.min(576, 576 * hz / (header.frequency() / 2.0));
+    }
+
+    /** Writes scale factors and Huffman data of a granule, and fills its side info. */
+    private void granule(BitWriter out, Granule i, int g, int ch, int scfsi, boolean mpeg1, int sfreq, int modeExtension,
+                         float amplitude, int lines, boolean empty) {
+        // part 2, scale factors
+        boolean shortBlock = i.windowSwitching != 0 && i.blockType == 2;
+        if (mpeg1) {
+            i.scalefacCompress = empty ? 0 : random.nextInt(16);
+            int s0 = SLEN[0][i.scalefacCompress], s1 = SLEN[1][i.scalefacCompress];
+            int n0, n1;
+            if (shortBlock) {
+                n0 = i.mixedBlock != 0 ? 8 + 9 : 18;
+                n1 = 18;
+            } else {
+                n0 = ((scfsi & 8) == 0 || g == 0 ? 6 : 0) + ((scfsi & 4) == 0 || g == 0 ? 5 : 0);
+                n1 = ((scfsi & 2) == 0 || g == 0 ? 5 : 0) + ((scfsi & 1) == 0 || g == 0 ? 5 : 0);
+            }
+            for (int n = 0; n < n0; n++) out.write(scaleFactor(s0), s0);
+            for (int n = 0; n < n1; n++) out.write(scaleFactor(s1), s1);
+        } else {
+            boolean intensity = (modeExtension == 1 || modeExtension == 3) && ch == 1;
+            i.scalefacCompress = empty ? 0 : intensity ? random.nextInt(510) : random.nextInt(512);
+            for (int length : lsfScaleFactorLengths(i, intensity))
+                out.write(scaleFactor(length), length);
+        }
+
+        // part 3, Huffman coded spectrum
+        int[] is = new int[576];
+        if (!empty) {
+            for (int l = 0; l < lines; l++) {
+                double envelope = amplitude * Math.exp(-2.5 * l / Math.max(lines, 1));
+                int v = (int) (Math.abs(random.nextGaussian()) * envelope);
+                if (l < 48 && random.nextInt(400) == 0)
+                    v += random.nextInt(Math.max(1, (int) (amplitude * 200))); // loud peaks use the escape tables
+                v = Math.min(v, maxValue(31));
+                is[l] = random.nextBoolean() ? -v : v;
+            }
+        }
+        int last = 576;
+        while (last > 0 && is[last - 1] == 0)
+            last--;
+        int bigEnd = last;
+        while (bigEnd > 0 && Math.abs(is[bigEnd - 1]) <= 1)
+            bigEnd--;
+        bigEnd = Math.min(576, (bigEnd + 1) & ~1);
+        int count1End = bigEnd + ((last - bigEnd + 3) & ~3);
+        while (count1End > 576) {
+            count1End -= 4;
+        }
+        for (int l = Math.max(count1End, bigEnd); l < 576; l++)
+            is[l] = 0;
+        i.bigValues = bigEnd / 2;
+
+        // regions, same boundaries as LayerIIIDecoder#huffman_decode
+        int region1Start, region2Start;
+        if (shortBlock) {
+            region1Start = sfreq == 8 ? 72 : 36;
+            region2Start = 576;
+        } else {
+            if (i.windowSwitching != 0) {
+                i.region0Count = 7;
+                i.region1Count = 13;
+            } else {
+                int sfb = 0;
+                while (sfb < 22 && SFB_LONG[sfreq][sfb] < bigEnd)
+                    sfb++;
+                i.region0Count = Math.min(15, random.nextInt(Math.max(1, sfb / 3 + 1)) + sfb / 4);
+                i.region1Count = Math.min(7, random.nextInt(Math.max(1, (sfb - i.region0Count) / 2 + 1)));
+            }
+            int buf = i.region0Count + 1;
+            int buf1 = Math.min(buf + i.region1Count + 1, SFB_LONG[sfreq].length - 1);
+            region1Start = SFB_LONG[sfreq][buf];
+            region2Start = SFB_LONG[sfreq][buf1];
+        }
+        int[] starts = {0, Math.min(region1Start, bigEnd), Math.min(region2Start, bigEnd), bigEnd};
+        for (int r = 0; r < 3; r++) {
+            int max = 0;
+            for (int l = starts[r]; l < Math.max(starts[r], starts[r + 1]); l++)
+                max = Math.max(max, Math.abs(is[l]));
+            i.tableSelect[r] = table(max);
+        }
+        for (int l = 0; l < bigEnd; l += 2) {
+            int t = l < region1Start ? i.tableSelect[0] : l < region2Start ? i.tableSelect[1] : i.tableSelect[2];
+            if (t != 0)
+                writePair(out, t, is[l], is[l + 1]);
+        }
+        for (int l = bigEnd; l < count1End; l += 4)
+            writeQuad(out, 32 + i.count1Table, is[l], is[l + 1], is[l + 2], is[l + 3]);
+    }
+
+    private int scaleFactor(int length) {
+        return length == 0 ? 0 : random.nextInt(1 << length);
+    }
+
+    /** Picks one of the smallest tables which can code the values. */
+    private int table(int max) {
+        if (max == 0)
+            return random.nextInt(3) == 0 ? 0 : 1;
+        int first = 0;
+        while (maxValue(TABLES[first]) < max)
+            first++;
+        int last = first;
+        while (last < TABLES.length - 1 && last - first < 2)
+            last++;
+        return TABLES[first + random.nextInt(last - first + 1)];
+    }
+
+    /** same as LayerIIIDecoder#getLSFScaleData */
+    private static int[] lsfScaleFactorLengths(Granule i, boolean intensity) {
+        int blockTypeNumber = i.blockType == 2 ? (i.mixedBlock == 0 ? 1 : 2) : 0;
+        int blockNumber;
+        int[] slen = new int[4];
+        int c = i.scalefacCompress;
+        if (!intensity) {
+            if (c < 400) {
+                slen[0] = (c >>> 4) / 5;
+                slen[1] = (c >>> 4) % 5;
+                slen[2] = (c & 0xf) >>> 2;
+                slen[3] = c & 3;
+                blockNumber = 0;
+            } else if (c < 500) {
+                slen[0] = ((c - 400) >>> 2) / 5;
+                slen[1] = ((c - 400) >>> 2) % 5;
+                slen[2] = (c - 400) & 3;
+                blockNumber = 1;
+            } else {
+                slen[0] = (c - 500) / 3;
+                slen[1] = (c - 500) % 3;
+                blockNumber = 2;
+            }
+        } else {
+            c >>>= 1;
+            if (c < 180) {
+                slen[0] = c / 36;
+                slen[1] = (c % 36) / 6;
+                slen[2] = (c % 36) % 6;
+                blockNumber = 3;
+            } else if (c < 244) {
+                slen[0] = ((c - 180) & 0x3f) >>> 4;
+                slen[1] = ((c - 180) & 0xf) >>> 2;
+                slen[2] = (c - 180) & 3;
+                blockNumber = 4;
+            } else {
+                slen[0] = (c - 244) / 3;
+                slen[1] = (c - 244) % 3;
+                blockNumber = 5;
+            }
+        }
+        List<Integer> lengths = new ArrayList<>();
+        for (int k = 0; k < 4; k++)
+            for (int j = 0; j < LayerIIIDecoder.nr_of_sfb_block[blockNumber][blockTypeNumber][k]; j++)
+                if (slen[k] != 0)
+                    lengths.add(slen[k]);
+        return lengths.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    //
+    // VBR tags
+    //
+
+    private void writeTag(List<Frame> frames) {
+        byte[] tag = frames.get(0).bytes;
+        int[] offsets = new int[frames.size() + 1];
+        for (int i = 0; i < frames.size(); i++)
+            offsets[i + 1] = offsets[i] + frames.get(i).bytes.length;
+        int bytes = offsets[frames.size()];
+        int audioFrames = frames.size() - 1;
+
+        if (fixture.vbr == Fixture.Vbr.XING) {
+            int p = fixture.version == Header.MPEG1 ? (channels == 1 ? 21 : 36) : (channels == 1 ? 13 : 21);
+            p = put(tag, p, "Xing".getBytes(), 4);
+            p = put(tag, p, 0x0f, 4); // frames, bytes, toc, scale
+            p = put(tag, p, audioFrames, 4);
+            p = put(tag, p, bytes, 4);
+            for (int i = 0; i < 100; i++) {
+                int frame = 1 + i * audioFrames / 100;
+                tag[p++] = (byte) Math.min(255, (long) offsets[frame] * 256 / bytes);
+            }
+            put(tag, p, 50, 4);
+        } else {
+            int entries = 32;
+            int framesPerEntry = (audioFrames + entries - 1) / entries;
+            int p = put(tag, 36, "VBRI".getBytes(), 4);
+            p = put(tag, p, 1, 2); // version
+            p = put(tag, p, 0, 2); // delay
+            p = put(tag, p, 75, 2); // quality
+            p = put(tag, p, bytes, 4);
+            p = put(tag, p, audioFrames, 4);
+            p = put(tag, p, entries, 2);
+            p = put(tag, p, 1, 2); // scale
+            p = put(tag, p, 2, 2); // entry size
+            p = put(tag, p, framesPerEntry, 2);
+            for (int i = 0; i < entries; i++) {
+                int from = Math.min(1 + i * framesPerEntry, frames.size());
+                int to = Math.min(from + framesPerEntry, frames.size());
+                p = put(tag, p, offsets[to] - offsets[from], 2);
+            }
+        }
+    }
+
+    private static int put(byte[] b, int p, int value, int length) {
+        for (int i = length - 1; i >= 0; i--)
+            b[p++] = (byte) (value >>> (i * 8));
+        return p;
+    }
+
+    private static int put(byte[] b, int p, byte[] value, int length) {
+        System.arraycopy(value, 0, b, p, length);
+        return p + length;
+    }
+
+    /** Writes all fixtures into a directory, e.g. for listening to them. */
+    public static void main(String[] args) throws IOException {
+        Path dir = Paths.get(args.length > 0 ? args[0] : "tmp");
+        Files.createDirectories(dir);
+        for (Fixture fixture : Fixture.values()) {
+            String ext = switch (fixture.layer) {
+                case 1 -> ".mp1";
+                case 2 -> ".mp2";
+                default -> ".mp3";
+            };
+            Files.write(dir.resolve(fixture.name().toLowerCase() + ext), fixture.data());
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package javazoom.jl.decoder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+
+/**
+ * FrameIndex unit test.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026/10/18 nsano initial version <br>
+ */
+class FrameIndexTest {
+
+    @Test
+    void testBuild() throws Exception {
+        for (Fixture fixture : Fixture.values()) {
+            byte[] data = fixture.data();
+            FrameIndex index = FrameIndex.build(new ByteArrayInputStream(data));
+            int frames = Fixture.FRAMES + (fixture.vbr != Fixture.Vbr.NONE ? 1 : 0);
+            assertEquals(frames, index.size(), fixture.name());
+            assertEquals(fixture.frequency, index.frequency(), fixture.name());
+
+            int samplesPerFrame = fixture.layer == 1 ? 384 : fixture.layer == 2 || fixture.version == Header.MPEG1 ? 1152 : 576;
+            assertEquals((long) frames * samplesPerFrame, index.totalSamples(), fixture.name());
+            for (int i = 0; i < frames; i++) {
+                assertEquals(0xff, data[(int) index.position(i)] & 0xff, fixture.name());
+                assertEquals((long) i * samplesPerFrame, index.sample(i), fixture.name());
+            }
+            assertEquals(0, index.position(0));
+            assertEquals(1, index.frameOf(samplesPerFrame));
+            assertEquals(1, index.frameOf(samplesPerFrame * 2L - 1));
+            assertEquals(frames, index.frameOf(index.totalSamples()));
+
+            // a buffer is the same
+            FrameIndex bufferIndex = FrameIndex.build(ByteBuffer.wrap(data));
+            for (int i = 0; i < frames; i++)
+                assertEquals(index.position(i), bufferIndex.position(i), fixture.name());
+        }
+    }
+
+    /** Serializes and deserializes the index. */
+    static FrameIndex copy(FrameIndex index) throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(baos)) {
+            oos.writeObject(index);
+        }
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray()))) {
+            return (FrameIndex) ois.readObject();
+        }
+    }
+
+    @Test
+    void testSerialize() throws Exception {
+        Fixture fixture = Fixture.MP3_48K_VBR_STEREO;
+        FrameIndex index = FrameIndex.build(fixture.open());
+
+        FrameIndex read = copy(index);
+        assertEquals(index.size(), read.size());
+        assertEquals(index.durationMillis(), read.durationMillis());
+        for (int i = 0; i < index.size(); i++)
+            assertEquals(index.position(i), read.position(i));
+    }
+
+    /** Returns a copy of the index with a field replaced, as a broken cache file. */
+    static FrameIndex broken(FrameIndex index, String name, Object value) throws Exception {
+        FrameIndex broken = copy(index);
+        Field field = FrameIndex.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(broken, value);
+        return broken;
+    }
+
+    @Test
+    void testSerializeBroken() throws Exception {
+        FrameIndex index = FrameIndex.build(Fixture.MP3_48K_VBR_STEREO.open());
+        long[] positions = new long[index.size()];
+        long[] samples = new long[index.size() + 1];
+        for (int i = 0; i < index.size(); i++)
+            positions[i] = index.position(i);
+        for (int i = 0; i <= index.size(); i++)
+            samples[i] = index.sample(i);
+
+        long[] swapped = positions.clone();
+        swapped[10] = positions[11];
+        swapped[11] = positions[10];
+        long[] decreasing = samples.clone();
+        decreasing[20] = samples[19];
+        FrameIndex[] brokens = {
+                broken(index, "size", index.size() + 1),
+                broken(index, "size", -1),
+                broken(index, "positions", Arrays.copyOf(positions, index.size() - 1)),
+                broken(index, "samples", Arrays.copyOf(samples, index.size())),
+                broken(index, "positions", swapped),
+                broken(index, "samples", decreasing),
+                broken(index, "frequency", -1),
+        };
+        for (FrameIndex broken : brokens)
+            assertThrows(InvalidObjectException.class, () -> copy(broken));
+    }
+}
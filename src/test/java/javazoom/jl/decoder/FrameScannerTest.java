@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package javazoom.jl.decoder;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * FrameScanner unit test.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026/10/18 nsano initial version <br>
+ */
+class FrameScannerTest {
+
+    /** Reads a byte at a time and cannot skip. */
+    static InputStream trickle(byte[] data) {
+        return new FilterInputStream(new ByteArrayInputStream(data)) {
+            @Override public int read(byte[] b, int off, int len) throws IOException {
+                return super.read(b, off, Math.min(len, 1));
+            }
+            @Override public long skip(long n) {
+                return 0;
+            }
+        };
+    }
+
+    /** Asserts the scanner finds the frames the bitstream reads. */
+    static void assertScan(byte[] data, FrameScanner scanner, String message) throws Exception {
+        Bitstream bitstream = new Bitstream(new ByteArrayInputStream(data));
+        Header header;
+        int frames = 0;
+        while ((header = bitstream.readFrame()) != null) {
+            assertTrue(scanner.next(), message);
+            assertEquals(bitstream.framePosition(), scanner.position(), message + ": " + frames);
+            assertEquals(Math.max(header.framesize, 0) + 4, scanner.frameSize(), message + ": " + frames);
+            assertEquals(header.bitrateInstant(), scanner.header().bitrateInstant(), message + ": " + frames);
+            assertEquals(header.mode(), scanner.header().mode(), message + ": " + frames);
+            assertEquals(header.padding(), scanner.header().padding(), message + ": " + frames);
+            assertEquals(header.checksums(), scanner.header().checksums(), message + ": " + frames);
+            assertEquals(header.vbr(), scanner.header().vbr(), message + ": " + frames);
+            frames++;
+            bitstream.closeFrame();
+        }
+        assertFalse(scanner.next(), message);
+        assertEquals(frames, scanner.frames(), message);
+    }
+
+    @Test
+    void testScan() throws Exception {
+        for (Fixture fixture : Fixture.values()) {
+            byte[] data = fixture.data();
+            assertScan(data, new FrameScanner(new ByteArrayInputStream(data)), fixture.name());
+            assertScan(data, new FrameScanner(trickle(data)), fixture.name());
+            assertScan(data, new FrameScanner(ByteBuffer.wrap(data)), fixture.name());
+
+            FrameScanner scanner = new FrameScanner(ByteBuffer.wrap(data));
+            int frames = Fixture.FRAMES + (fixture.vbr != Fixture.Vbr.NONE ? 1 : 0);
+            assertEquals(frames, scanner.scan(), fixture.name());
+            FrameIndex index = FrameIndex.build(new Bitstream(ByteBuffer.wrap(data)));
+            assertEquals(index.totalSamples(), scanner.samples(), fixture.name());
+            assertEquals(index.durationMillis(), scanner.durationMillis(), fixture.name());
+        }
+    }
+
+    @Test
+    void testBroken() throws Exception {
+        for (Fixture fixture : Fixture.values()) {
+            byte[] data = fixture.data();
+            // an ID3v2 tag larger than the buffer, garbage, a broken frame and a truncated frame
+            byte[] id3 = new byte[10 + 10000];
+            System.arraycopy(new byte[] {'I', 'D', '3', 4, 0, 0, 0, 0, 0x4e, 0x10}, 0, id3, 0, 10);
+            Arrays.fill(id3, 10, id3.length, (byte) 0xff);
+            byte[] garbage = {(byte) 0xff, (byte) 0xfb, 0x12, (byte) 0xff, (byte) 0xff, (byte) 0xe3, 0, 0};
+            int broken = (int) FrameIndex.build(ByteBuffer.wrap(data)).position(Fixture.FRAMES / 2);
+            byte[] broken1 = Arrays.copyOf(data, broken + 2);
+            byte[] rest = Arrays.copyOfRange(data, broken, data.length - 5);
+            ByteBuffer buffer = ByteBuffer.allocate(id3.length + garbage.length + broken1.length + rest.length);
+            buffer.put(id3).put(garbage).put(broken1).put(rest).flip();
+            byte[] stream = buffer.array();
+
+            assertScan(stream, new FrameScanner(new ByteArrayInputStream(stream)), fixture.name());
+            assertScan(stream, new FrameScanner(trickle(stream)), fixture.name());
+            assertScan(stream, new FrameScanner(buffer), fixture.name());
+        }
+    }
+}
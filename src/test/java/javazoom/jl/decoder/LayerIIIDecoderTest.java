@@ -0,0 +1,30 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package javazoom.jl.decoder;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+
+/**
+ * LayerIIIDecoder unit test.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026/10/18 nsano initial version <br>
+ */
+class LayerIIIDecoderTest {
+
+    @Test
+    void testT43() {
+        // the largest escape value is 15 with 13 linbits
+        int max = 15 + (1 << 13) - 1;
+        assertEquals(max + 1, LayerIIIDecoder.t_43.length);
+        for (int i = 0; i <= max; i++)
+            assertEquals((float) Math.pow(i, 4.0 / 3.0), LayerIIIDecoder.t_43[i], String.valueOf(i));
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package javazoom.jl.decoder;
+
+import java.security.MessageDigest;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+/**
+ * PcmPublisher unit test.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026/10/18 nsano initial version <br>
+ */
+class PcmPublisherTest {
+
+    /**
+     * Requests a block at a time, digests and releases it on another thread.
+     */
+    static class DigestSubscriber implements Flow.Subscriber<PcmBlock> {
+
+        final CompletableFuture<String> result = new CompletableFuture<>();
+        final ExecutorService consumer = Executors.newSingleThreadExecutor();
+        final Set<short[]> buffers = Collections.newSetFromMap(new IdentityHashMap<>());
+        final MessageDigest md;
+        Flow.Subscription subscription;
+        long sample;
+
+        DigestSubscriber() throws Exception {
+            md = MessageDigest.getInstance("MD5");
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(PcmBlock block) {
+            consumer.execute(() -> {
+                if (block.sample() != sample)
+                    result.completeExceptionally(new AssertionError("sample: " + block.sample()));
+                short[] pcm = block.samples();
+                buffers.add(pcm);
+                for (int i = 0; i < block.length(); i++) {
+                    md.update((byte) pcm[i]);
+                    md.update((byte) (pcm[i] >> 8));
+                }
+                sample += block.length() / block.channels();
+                block.release();
+                subscription.request(1);
+            });
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            result.completeExceptionally(throwable);
+            consumer.shutdown();
+        }
+
+        @Override
+        public void onComplete() {
+            consumer.execute(() -> result.complete(HexFormat.of().formatHex(md.digest())));
+            consumer.shutdown();
+        }
+    }
+
+    @Test
+    void testPublish() throws Exception {
+        for (Fixture fixture : Fixture.values()) {
+            DigestSubscriber subscriber = new DigestSubscriber();
+            new PcmPublisher(new Bitstream(fixture.open()), new Decoder()).subscribe(subscriber);
+
+            assertEquals(DecoderTest.decode(fixture), subscriber.result.get(10, TimeUnit.SECONDS), fixture.name());
+            // one block is used at a time, the buffer is recycled
+            assertEquals(1, subscriber.buffers.size(), fixture.name());
+        }
+    }
+
+    @Test
+    void testDemand() throws Exception {
+        AtomicInteger received = new AtomicInteger();
+        CompletableFuture<Flow.Subscription> subscribed = new CompletableFuture<>();
+        CompletableFuture<Throwable> error = new CompletableFuture<>();
+        PcmPublisher publisher = new PcmPublisher(new Bitstream(Fixture.MP3_44K_320_STEREO.open()), new Decoder());
+        publisher.subscribe(new Flow.Subscriber<>() {
+            @Override public void onSubscribe(Flow.Subscription subscription) { subscribed.complete(subscription); }
+            @Override public void onNext(PcmBlock item) { received.incrementAndGet(); }
+            @Override public void onError(Throwable throwable) { error.complete(throwable); }
+            @Override public void onComplete() {}
+        });
+        Flow.Subscription subscription = subscribed.get();
+        Thread.sleep(100);
+        assertEquals(0, received.get());
+
+        subscription.request(3);
+        Thread.sleep(200);
+        assertEquals(3, received.get());
+
+        subscription.request(0);
+        assertTrue(error.get(10, TimeUnit.SECONDS) instanceof IllegalArgumentException);
+
+        // one subscriber only
+        CompletableFuture<Throwable> second = new CompletableFuture<>();
+        publisher.subscribe(new Flow.Subscriber<>() {
+            @Override public void onSubscribe(Flow.Subscription subscription) { subscription.request(1); }
+            @Override public void onNext(PcmBlock item) {}
+            @Override public void onError(Throwable throwable) { second.complete(throwable); }
+            @Override public void onComplete() {}
+        });
+        assertTrue(second.get(10, TimeUnit.SECONDS) instanceof IllegalStateException);
+    }
+}
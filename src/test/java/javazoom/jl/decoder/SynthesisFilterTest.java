@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2026 by Naohide Sano, All rights reserved.
+ *
+ * Programmed by Naohide Sano
+ */
+
+package javazoom.jl.decoder;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+
+/**
+ * SynthesisFilter unit test.
+ *
+ * @author <a href="mailto:umjammer@gmail.com">Naohide Sano</a> (nsano)
+ * @version 0.00 2026/10/18 nsano initial version <br>
+ */
+class SynthesisFilterTest {
+
+    @Test
+    void testVectorIsBitExact() {
+        assumeTrue(SynthesisFilter.isVectorAvailable(), "--add-modules jdk.incubator.vector");
+
+        SynthesisFilter scalar = new SynthesisFilter(0, 32700.0f, null, false);
+        SynthesisFilter vector = new SynthesisFilter(0, 32700.0f, null, true);
+        FloatSampleBuffer expected = new FloatSampleBuffer(44100, 1);
+        FloatSampleBuffer actual = new FloatSampleBuffer(44100, 1);
+
+        Random random = new Random(0);
+        float[] samples = new float[32];
+        for (int block = 0; block < 1000; block++) {
+            if (block == 500) {
+                // as after a seek, the write position is not 15
+                scalar.reset(block);
+                vector.reset(block);
+            }
+            for (int sb = 0; sb < 32; sb++)
+                samples[sb] = (float) (random.nextGaussian() * (block % 3 == 0 ? 2 : 0.3) / (1 + sb));
+            if (block % 2 == 0) {
+                scalar.inputSamples(samples);
+                vector.inputSamples(samples);
+            } else {
+                for (int sb = 0; sb < 32; sb += 3) {
+                    scalar.inputSample(samples[sb], sb);
+                    vector.inputSample(samples[sb], sb);
+                }
+            }
+            expected.clearBuffer();
+            actual.clearBuffer();
+            scalar.calculate_pcm_samples(expected);
+            vector.calculate_pcm_samples(actual);
+            assertArrayEquals(expected.getBuffer(), actual.getBuffer(), "block " + block);
+        }
+    }
+
+    @Test
+    void testVectorSpecies() {
+        assumeTrue(SynthesisFilter.isVectorAvailable(), "--add-modules jdk.incubator.vector");
+
+        // preferred, expected, e.g. of sve
+        int[][] sizes = {{64, 64}, {128, 128}, {256, 256}, {384, 256}, {512, 512}, {640, 256}, {1024, 1024}, {2048, 512}};
+        for (int[] size : sizes) {
+            int bits = VectorSynthesis.bitSize(size[0]);
+            assertEquals(size[1], bits, "bits " + size[0]);
+            assertEquals(0, 32 % (bits / Float.SIZE), "bits " + size[0]);
+        }
+    }
+}